@@ -1,13 +1,27 @@
 package com.caio.websiteai;
 
+import com.caio.websiteai.article.service.ArticleBackfillRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 
+import java.util.Arrays;
+
 @SpringBootApplication
 @EnableCaching
 public class WebsiteAiApplication {
     public static void main(String[] args) {
+        if (ArticleBackfillRunner.isRequested(args)) {
+            // One-shot import next to a live instance: no web server, no scheduled tasks or index warm-ups, and the
+            // article journal stays with the server.
+            String[] backfillArgs = Arrays.copyOf(args, args.length + 2);
+            backfillArgs[args.length] = "--articles.journal.enabled=false";
+            backfillArgs[args.length + 1] = "--background-tasks.enabled=false";
+            SpringApplication application = new SpringApplication(WebsiteAiApplication.class);
+            application.setWebApplicationType(WebApplicationType.NONE);
+            System.exit(SpringApplication.exit(application.run(backfillArgs)));
+        }
         SpringApplication.run(WebsiteAiApplication.class, args);
     }
 }
@@ -0,0 +1,33 @@
+package com.caio.websiteai.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record ScoringRulesDefinition(
+        Dimension relevance,
+        Dimension depth,
+        Topics topics,
+        List<Rule> tags,
+        Sentiment sentiment,
+        List<String> premiumSources
+) {
+
+    public record Dimension(int base, int max, List<Rule> groups, Threshold longDescription, SourceBonus premiumSource) {
+    }
+
+    public record Rule(String name, int weight, String requires, List<String> keywords) {
+    }
+
+    public record Threshold(int longerThan, int bonus) {
+    }
+
+    public record SourceBonus(int bonus, List<String> sources) {
+    }
+
+    public record Topics(@JsonProperty("default") String defaultTopic, List<Rule> rules) {
+    }
+
+    public record Sentiment(double divisor, List<Rule> groups) {
+    }
+}
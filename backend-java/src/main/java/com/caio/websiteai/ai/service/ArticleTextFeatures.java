@@ -0,0 +1,136 @@
+package com.caio.websiteai.ai.service;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * Everything the enrichment scorers read from an article's text, computed in one pass per field: keyword hits
+ * over title and description, word count and length bucket of the body (content, else description) and the
+ * normalised source name.
+ */
+public final class ArticleTextFeatures {
+
+    private final String title;
+    private final String description;
+    private final String normalizedSource;
+    private final KeywordHits keywordHits;
+    private final int bodyLength;
+    private final int wordCount;
+
+    private ArticleTextFeatures(String title, String description, String normalizedSource, KeywordHits keywordHits,
+                                int bodyLength, int wordCount) {
+        this.title = title;
+        this.description = description;
+        this.normalizedSource = normalizedSource;
+        this.keywordHits = keywordHits;
+        this.bodyLength = bodyLength;
+        this.wordCount = wordCount;
+    }
+
+    static ArticleTextFeatures of(String title, String description, String content, String source,
+                                  KeywordHits keywordHits) {
+        String body = StringUtils.hasText(content) ? content : StringUtils.hasText(description) ? description : null;
+        return new ArticleTextFeatures(title, description,
+                StringUtils.hasText(source) ? source.toLowerCase(Locale.ENGLISH) : null,
+                keywordHits,
+                body != null ? body.length() : -1,
+                body != null ? countWords(body) : 0);
+    }
+
+    public boolean hasTitle() {
+        return StringUtils.hasText(title);
+    }
+
+    public KeywordHits keywordHits() {
+        return keywordHits;
+    }
+
+    public CompiledScoringRules rules() {
+        return keywordHits.rules();
+    }
+
+    public int descriptionLength() {
+        return StringUtils.hasText(description) ? description.length() : 0;
+    }
+
+    public String normalizedSource() {
+        return normalizedSource;
+    }
+
+    public boolean hasBody() {
+        return bodyLength >= 0;
+    }
+
+    public int wordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Body length bucket: 0 for no body or up to 400 chars, then 1 (&gt;400), 2 (&gt;800) and 3 (&gt;1500).
+     */
+    public int lengthBucket() {
+        if (bodyLength > 1500) {
+            return 3;
+        }
+        if (bodyLength > 800) {
+            return 2;
+        }
+        if (bodyLength > 400) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Counts words the way {@code text.trim().split("\\s+").length} does, without the regex or the array.
+     */
+    public static int countWords(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int words = 1;
+        boolean inSeparator = false;
+        for (int i = start; i < end; i++) {
+            boolean separator = isRegexWhitespace(text.charAt(i));
+            if (separator && !inSeparator) {
+                words++;
+            }
+            inSeparator = separator;
+        }
+        return words;
+    }
+
+    /**
+     * Counts words the way {@code text.split("\\s+").length} does, untrimmed: leading whitespace makes an empty first
+     * word and blank text counts as none. Stored {@code word_count} values were computed this way.
+     */
+    public static int countSplitWords(CharSequence text) {
+        int end = text.length();
+        while (end > 0 && isRegexWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0) {
+            return text.length() == 0 ? 1 : 0;
+        }
+        int words = 1;
+        boolean inSeparator = false;
+        for (int i = 0; i < end; i++) {
+            boolean separator = isRegexWhitespace(text.charAt(i));
+            if (separator && !inSeparator) {
+                words++;
+            }
+            inSeparator = separator;
+        }
+        return words;
+    }
+
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
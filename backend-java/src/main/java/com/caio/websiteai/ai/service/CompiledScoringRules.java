@@ -0,0 +1,266 @@
+package com.caio.websiteai.ai.service;
+
+import com.caio.websiteai.ai.dto.ScoringRulesDefinition;
+import com.caio.websiteai.ai.dto.ScoringRulesDefinition.Dimension;
+import com.caio.websiteai.ai.dto.ScoringRulesDefinition.Rule;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, ready-to-run form of a {@link ScoringRulesDefinition}: one keyword automaton over every rule's
+ * keywords plus flat weight and ordering tables, so scoring an article is array lookups only.
+ */
+public final class CompiledScoringRules {
+
+    private final String version;
+    private final KeywordAutomaton automaton;
+    private final List<String> groupNames;
+    private final Map<String, Integer> groupIndex;
+    private final List<List<String>> groupKeywords;
+    private final int[][] groupPatterns;
+    private final CompiledDimension relevance;
+    private final CompiledDimension depth;
+    private final String defaultTopic;
+    private final String[] topicNames;
+    private final int[] topicGroups;
+    private final String[] tagNames;
+    private final int[] tagGroups;
+    private final int[] sentimentGroups;
+    private final int[] sentimentWeights;
+    private final double sentimentDivisor;
+    private final String[] premiumSources;
+
+    private CompiledScoringRules(String version, ScoringRulesDefinition definition) {
+        this.version = version;
+        GroupTable groups = new GroupTable();
+
+        this.relevance = compileDimension("relevance", require(definition.relevance(), "relevance"), groups);
+        this.depth = compileDimension("depth", require(definition.depth(), "depth"), groups);
+
+        ScoringRulesDefinition.Topics topics = require(definition.topics(), "topics");
+        this.defaultTopic = topics.defaultTopic() != null ? topics.defaultTopic() : "general";
+        List<Rule> topicRules = nonNull(topics.rules());
+        this.topicNames = topicRules.stream().map(Rule::name).toArray(String[]::new);
+        this.topicGroups = topicRules.stream().mapToInt(rule -> groups.add("topic." + rule.name(), rule)).toArray();
+
+        List<Rule> tagRules = nonNull(definition.tags());
+        this.tagNames = tagRules.stream().map(Rule::name).toArray(String[]::new);
+        this.tagGroups = tagRules.stream().mapToInt(rule -> groups.add("tag." + rule.name(), rule)).toArray();
+
+        ScoringRulesDefinition.Sentiment sentiment = require(definition.sentiment(), "sentiment");
+        if (sentiment.divisor() == 0) {
+            throw new IllegalArgumentException("sentiment.divisor must not be zero");
+        }
+        this.sentimentDivisor = sentiment.divisor();
+        List<Rule> sentimentRules = nonNull(sentiment.groups());
+        this.sentimentGroups = sentimentRules.stream().mapToInt(rule -> groups.add("sentiment." + rule.name(), rule)).toArray();
+        this.sentimentWeights = sentimentRules.stream().mapToInt(Rule::weight).toArray();
+
+        this.premiumSources = lowercase(nonNull(definition.premiumSources()));
+
+        this.groupNames = List.copyOf(groups.names);
+        this.groupIndex = Map.copyOf(groups.index);
+        this.groupKeywords = List.copyOf(groups.keywords);
+        List<String> allKeywords = new ArrayList<>();
+        groups.keywords.forEach(allKeywords::addAll);
+        this.automaton = KeywordAutomaton.compile(allKeywords);
+        this.groupPatterns = new int[groupNames.size()][];
+        for (int group = 0; group < groupNames.size(); group++) {
+            groupPatterns[group] = groups.keywords.get(group).stream()
+                    .mapToInt(automaton::patternId)
+                    .distinct()
+                    .toArray();
+        }
+    }
+
+    public static CompiledScoringRules compile(String version, ScoringRulesDefinition definition) {
+        return new CompiledScoringRules(version, definition);
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public List<String> groupNames() {
+        return groupNames;
+    }
+
+    public List<String> groupKeywords(String group) {
+        return groupKeywords.get(groupIndex(group));
+    }
+
+    int groupIndex(String group) {
+        Integer index = groupIndex.get(group);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown keyword group " + group);
+        }
+        return index;
+    }
+
+    /**
+     * Scans {@code title + " " + description} once and counts the keywords of every group found in it.
+     * A {@code null} title or description is scanned as empty.
+     */
+    public KeywordHits match(String title, String description) {
+        long[] matched = automaton.newMatchSet();
+        int state = automaton.feed(0, title, matched);
+        state = automaton.feed(state, ' ', matched);
+        automaton.feed(state, description, matched);
+
+        int[] counts = new int[groupPatterns.length];
+        for (int group = 0; group < groupPatterns.length; group++) {
+            int count = 0;
+            for (int pattern : groupPatterns[group]) {
+                if (KeywordAutomaton.isMatched(matched, pattern)) {
+                    count++;
+                }
+            }
+            counts[group] = count;
+        }
+        return new KeywordHits(this, counts);
+    }
+
+    public int scoreRelevance(ArticleTextFeatures features) {
+        return relevance.score(features);
+    }
+
+    public int scoreDepth(ArticleTextFeatures features) {
+        return depth.score(features);
+    }
+
+    public String topicCategory(KeywordHits hits) {
+        for (int i = 0; i < topicGroups.length; i++) {
+            if (hits.count(topicGroups[i]) > 0) {
+                return topicNames[i];
+            }
+        }
+        return defaultTopic;
+    }
+
+    public List<String> tags(KeywordHits hits) {
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < tagGroups.length; i++) {
+            if (hits.count(tagGroups[i]) > 0) {
+                tags.add(tagNames[i]);
+            }
+        }
+        return tags;
+    }
+
+    public BigDecimal sentiment(KeywordHits hits) {
+        int score = 0;
+        for (int i = 0; i < sentimentGroups.length; i++) {
+            score += hits.count(sentimentGroups[i]) * sentimentWeights[i];
+        }
+        return BigDecimal.valueOf(Math.max(-1, Math.min(1, score / sentimentDivisor))).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public boolean isPremiumSource(String normalizedSource) {
+        return normalizedSource != null && containsAny(normalizedSource, premiumSources);
+    }
+
+    private static CompiledDimension compileDimension(String name, Dimension dimension, GroupTable groups) {
+        List<Rule> rules = nonNull(dimension.groups());
+        Map<String, Integer> local = new HashMap<>();
+        int[] groupIds = new int[rules.size()];
+        int[] weights = new int[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            groupIds[i] = groups.add(name + "." + rule.name(), rule);
+            weights[i] = rule.weight();
+            local.put(rule.name(), groupIds[i]);
+        }
+        int[] requires = new int[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            String required = rules.get(i).requires();
+            if (required == null) {
+                requires[i] = -1;
+            } else if (local.containsKey(required)) {
+                requires[i] = local.get(required);
+            } else {
+                throw new IllegalArgumentException(name + "." + rules.get(i).name() + " requires unknown group " + required);
+            }
+        }
+        ScoringRulesDefinition.Threshold longDescription = dimension.longDescription();
+        ScoringRulesDefinition.SourceBonus premiumSource = dimension.premiumSource();
+        return new CompiledDimension(dimension.base(), dimension.max(), groupIds, weights, requires,
+                longDescription != null ? longDescription.longerThan() : Integer.MAX_VALUE,
+                longDescription != null ? longDescription.bonus() : 0,
+                premiumSource != null ? lowercase(nonNull(premiumSource.sources())) : new String[0],
+                premiumSource != null ? premiumSource.bonus() : 0);
+    }
+
+    private static boolean containsAny(String text, String[] candidates) {
+        for (String candidate : candidates) {
+            if (text.contains(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] lowercase(List<String> values) {
+        return values.stream().map(value -> value.toLowerCase(Locale.ENGLISH)).toArray(String[]::new);
+    }
+
+    private static <T> T require(T value, String section) {
+        if (value == null) {
+            throw new IllegalArgumentException("Scoring rules are missing the " + section + " section");
+        }
+        return value;
+    }
+
+    private static <T> List<T> nonNull(List<T> values) {
+        return values != null ? values : List.of();
+    }
+
+    private record CompiledDimension(int base, int max, int[] groups, int[] weights, int[] requires,
+                                     int longDescriptionThreshold, int longDescriptionBonus,
+                                     String[] premiumSources, int premiumSourceBonus) {
+
+        int score(ArticleTextFeatures features) {
+            if (!features.hasTitle()) {
+                return 0;
+            }
+            KeywordHits hits = features.keywordHits();
+            int score = base;
+            for (int i = 0; i < groups.length; i++) {
+                if (requires[i] < 0 || hits.count(requires[i]) > 0) {
+                    score += hits.count(groups[i]) * weights[i];
+                }
+            }
+            if (features.descriptionLength() > longDescriptionThreshold) {
+                score += longDescriptionBonus;
+            }
+            if (features.normalizedSource() != null && containsAny(features.normalizedSource(), premiumSources)) {
+                score += premiumSourceBonus;
+            }
+            return Math.min(score, max);
+        }
+    }
+
+    private static final class GroupTable {
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<List<String>> keywords = new ArrayList<>();
+
+        int add(String name, Rule rule) {
+            if (rule.name() == null || rule.keywords() == null || rule.keywords().isEmpty()) {
+                throw new IllegalArgumentException("Rule " + name + " needs a name and at least one keyword");
+            }
+            if (index.containsKey(name)) {
+                throw new IllegalArgumentException("Duplicate rule " + name);
+            }
+            index.put(name, names.size());
+            names.add(name);
+            keywords.add(List.copyOf(rule.keywords()));
+            return names.size() - 1;
+        }
+    }
+}
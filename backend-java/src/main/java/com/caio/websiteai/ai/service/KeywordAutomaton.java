@@ -0,0 +1,177 @@
+package com.caio.websiteai.ai.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton compiled into a dense transition table. Input is case-folded while it is fed,
+ * matching {@code String.toLowerCase(Locale.ENGLISH)}, so callers can scan raw article text without building
+ * a lowercased copy. Every pattern found anywhere in the text is reported once, in a single pass whose cost
+ * depends on the text length only.
+ */
+public final class KeywordAutomaton {
+
+    private static final char DOTTED_CAPITAL_I = '\u0130';
+    private static final char COMBINING_DOT_ABOVE = '\u0307';
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final List<String> patterns;
+    private final short[] charClass;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    private KeywordAutomaton(List<String> patterns, short[] charClass, int alphabetSize,
+                             int[] transitions, int[][] outputs) {
+        this.patterns = patterns;
+        this.charClass = charClass;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    public static KeywordAutomaton compile(List<String> keywords) {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isEmpty()) {
+                ids.putIfAbsent(keyword.toLowerCase(Locale.ENGLISH), ids.size());
+            }
+        }
+        List<String> patterns = List.copyOf(ids.keySet());
+
+        Map<Character, Integer> classes = new HashMap<>();
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                classes.putIfAbsent(pattern.charAt(i), classes.size() + 1);
+            }
+        }
+        int alphabetSize = classes.size() + 1;
+        short[] charClass = new short[Character.MAX_VALUE + 1];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            charClass[c] = classes.getOrDefault(Character.toLowerCase((char) c), 0).shortValue();
+        }
+
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> terminal = new ArrayList<>();
+        trie.add(newRow(alphabetSize));
+        terminal.add(new ArrayList<>());
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int symbol = classes.get(pattern.charAt(i));
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newRow(alphabetSize));
+                    terminal.add(new ArrayList<>());
+                }
+                state = trie.get(state)[symbol];
+            }
+            terminal.get(state).add(id);
+        }
+
+        int stateCount = trie.size();
+        int[] transitions = new int[stateCount * alphabetSize];
+        int[] failure = new int[stateCount];
+        int[][] outputs = new int[stateCount][];
+        outputs[0] = NO_OUTPUT;
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int child = trie.get(0)[symbol];
+            if (child > 0) {
+                transitions[symbol] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = mergeOutputs(terminal.get(state), outputs[failure[state]]);
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int child = trie.get(state)[symbol];
+                int fallback = transitions[failure[state] * alphabetSize + symbol];
+                if (child > 0) {
+                    transitions[state * alphabetSize + symbol] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                } else {
+                    transitions[state * alphabetSize + symbol] = fallback;
+                }
+            }
+        }
+
+        return new KeywordAutomaton(patterns, charClass, alphabetSize, transitions, outputs);
+    }
+
+    public List<String> patterns() {
+        return patterns;
+    }
+
+    public int patternId(String keyword) {
+        return patterns.indexOf(keyword.toLowerCase(Locale.ENGLISH));
+    }
+
+    public long[] newMatchSet() {
+        return new long[(patterns.size() + 63) >>> 6];
+    }
+
+    /**
+     * Feeds {@code text} starting from {@code state}, recording every pattern that ends inside it in
+     * {@code matched}. Returns the state to continue from, so several fragments can be scanned as if they
+     * had been concatenated. A {@code null} text is treated as empty.
+     */
+    public int feed(int state, CharSequence text, long[] matched) {
+        if (text == null) {
+            return state;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            state = feed(state, text.charAt(i), matched);
+        }
+        return state;
+    }
+
+    public int feed(int state, char c, long[] matched) {
+        if (c == DOTTED_CAPITAL_I) {
+            // String.toLowerCase expands U+0130 to "i" followed by a combining dot.
+            state = advance(state, charClass['i'], matched);
+            return advance(state, charClass[COMBINING_DOT_ABOVE], matched);
+        }
+        return advance(state, charClass[c], matched);
+    }
+
+    private int advance(int state, int symbol, long[] matched) {
+        int next = transitions[state * alphabetSize + symbol];
+        for (int pattern : outputs[next]) {
+            matched[pattern >>> 6] |= 1L << pattern;
+        }
+        return next;
+    }
+
+    public static boolean isMatched(long[] matched, int pattern) {
+        return (matched[pattern >>> 6] & (1L << pattern)) != 0;
+    }
+
+    private static int[] newRow(int alphabetSize) {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] mergeOutputs(List<Integer> own, int[] inherited) {
+        if (own.isEmpty()) {
+            return inherited;
+        }
+        int[] merged = Arrays.copyOf(inherited, inherited.length + own.size());
+        for (int i = 0; i < own.size(); i++) {
+            merged[inherited.length + i] = own.get(i);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,28 @@
+package com.caio.websiteai.ai.service;
+
+/**
+ * Number of distinct keywords of each rule group found in an article's title and description, tied to the
+ * {@link CompiledScoringRules} that produced it.
+ */
+public final class KeywordHits {
+
+    private final CompiledScoringRules rules;
+    private final int[] counts;
+
+    KeywordHits(CompiledScoringRules rules, int[] counts) {
+        this.rules = rules;
+        this.counts = counts;
+    }
+
+    public CompiledScoringRules rules() {
+        return rules;
+    }
+
+    public int count(String group) {
+        return counts[rules.groupIndex(group)];
+    }
+
+    int count(int groupIndex) {
+        return counts[groupIndex];
+    }
+}
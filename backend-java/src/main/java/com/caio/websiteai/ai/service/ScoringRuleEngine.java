@@ -0,0 +1,101 @@
+package com.caio.websiteai.ai.service;
+
+import com.caio.websiteai.ai.dto.ScoringRulesDefinition;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the active {@link CompiledScoringRules}. The rules file is polled and, when its content changes, compiled
+ * off the request path and swapped in atomically; scorers read {@link #current()} without locking. A file that
+ * fails to parse or compile is logged and the previous rules stay active.
+ */
+@Component
+public class ScoringRuleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoringRuleEngine.class);
+
+    private final ResourceLoader resourceLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String location;
+    private final ObjectMapper rulesMapper = new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+    private final AtomicReference<CompiledScoringRules> current = new AtomicReference<>();
+
+    public ScoringRuleEngine(ResourceLoader resourceLoader,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${scoring.rules.location}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.eventPublisher = eventPublisher;
+        this.location = location;
+        try {
+            byte[] content = read();
+            current.set(compile(versionOf(content), content));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to read scoring rules from " + location, ex);
+        }
+        log.info("Loaded scoring rules {} from {}", current.get().version(), location);
+    }
+
+    public CompiledScoringRules current() {
+        return current.get();
+    }
+
+    @Scheduled(fixedDelayString = "${scoring.rules.reload-interval}", initialDelayString = "${scoring.rules.reload-interval}")
+    public void reloadIfChanged() {
+        CompiledScoringRules previous = current.get();
+        CompiledScoringRules next;
+        try {
+            byte[] content = read();
+            String version = versionOf(content);
+            if (version.equals(previous.version())) {
+                return;
+            }
+            next = compile(version, content);
+        } catch (Exception ex) {
+            log.warn("Keeping scoring rules {}; reload from {} failed: {}", previous.version(), location, ex.getMessage());
+            return;
+        }
+        if (current.compareAndSet(previous, next)) {
+            log.info("Scoring rules changed from {} to {}", previous.version(), next.version());
+            eventPublisher.publishEvent(new ScoringRulesChangedEvent(previous.version(), next.version()));
+        }
+    }
+
+    private byte[] read() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private CompiledScoringRules compile(String version, byte[] content) {
+        Object document = new Yaml(new SafeConstructor(new LoaderOptions())).load(new ByteArrayInputStream(content));
+        if (document == null) {
+            throw new IllegalArgumentException("Scoring rules file is empty");
+        }
+        return CompiledScoringRules.compile(version, rulesMapper.convertValue(document, ScoringRulesDefinition.class));
+    }
+
+    private static String versionOf(byte[] content) {
+        return DigestUtils.md5DigestAsHex(content).substring(0, 12);
+    }
+}
@@ -0,0 +1,4 @@
+package com.caio.websiteai.ai.service;
+
+public record ScoringRulesChangedEvent(String previousVersion, String version) {
+}
@@ -4,6 +4,7 @@ import com.caio.websiteai.analytics.dto.TrendingTopicDto;
 import com.caio.websiteai.article.repository.ArticleRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -15,6 +16,7 @@ public class TrendingTopicService {
 
     private final ArticleRepository articleRepository;
 
+    @Transactional(readOnly = true)
     public List<TrendingTopicDto> getTrendingTopics() {
         OffsetDateTime sevenDaysAgo = OffsetDateTime.now().minusDays(7);
         return articleRepository.findTrendingTopics(sevenDaysAgo).stream()
@@ -0,0 +1,22 @@
+package com.caio.websiteai.article.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder
+public class ArticleBackfillSummary {
+    int files;
+    long bytes;
+    long lines;
+    long inserted;
+    long updated;
+    long archived;
+    long unchanged;
+    long duplicates;
+    long expired;
+    long skipped;
+    Duration elapsed;
+}
@@ -0,0 +1,40 @@
+package com.caio.websiteai.article.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the newest-first article order: the {@code (published_at, id)} of the last row returned.
+ * Clients treat the encoded form as opaque.
+ */
+public record ArticleCursor(OffsetDateTime publishedAt, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static ArticleCursor of(ArticleSummaryDto article) {
+        return new ArticleCursor(article.getPublishedAt(), article.getId());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((publishedAt.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code encoded} was not produced by {@link #encode()}
+     */
+    public static ArticleCursor decode(String encoded) {
+        String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            return new ArticleCursor(OffsetDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Malformed cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.caio.websiteai.article.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of browsed articles. {@code nextCursor} is {@code null} on the last page.
+ */
+@Value
+@Builder
+public class ArticlePage {
+    List<ArticleSummaryDto> articles;
+    String nextCursor;
+}
@@ -11,4 +11,5 @@ public class ArticleStorageSummary {
     int inserted;
     int updated;
     int duplicates;
+    int unchanged;
 }
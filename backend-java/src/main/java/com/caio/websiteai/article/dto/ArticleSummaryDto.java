@@ -0,0 +1,33 @@
+package com.caio.websiteai.article.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Browse projection of a stored article. {@code content} is only populated when the caller asks for it.
+ */
+@Value
+@Builder
+public class ArticleSummaryDto {
+    String id;
+    String title;
+    String url;
+    String source;
+    String author;
+    OffsetDateTime publishedAt;
+    String description;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String content;
+    String country;
+    String topicCategory;
+    BigDecimal einsteinScore;
+    String imageUrl;
+    List<String> tags;
+    boolean premium;
+    boolean breaking;
+}
@@ -0,0 +1,61 @@
+package com.caio.websiteai.article.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.io.IOException;
+
+/**
+ * One line of a historical article dump: a row of the Node backend's {@code articles} table (snake_case columns),
+ * or a NewsAPI-shaped article (camelCase, with {@code source} as an {@code {"id", "name"}} object). Scores, tags and ids in the dump are ignored; backfill re-derives them.
+ * {@code publishedAt} stays text because old dumps mix zoned and zone-less timestamps.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class HistoricalArticle {
+    String title;
+    String url;
+    @JsonDeserialize(using = SourceName.class)
+    String source;
+    String author;
+    @JsonProperty("published_at")
+    @JsonAlias("publishedAt")
+    String publishedAt;
+    String description;
+    String content;
+    String country;
+    String category;
+    String provenance;
+    @JsonProperty("search_query")
+    @JsonAlias("searchQuery")
+    String searchQuery;
+    String language;
+    @JsonProperty("image_url")
+    @JsonAlias({"imageUrl", "urlToImage"})
+    String imageUrl;
+
+    /** Reads {@code source} as plain text or as the {@code name} of a NewsAPI source object. */
+    static final class SourceName extends JsonDeserializer<String> {
+
+        @Override
+        public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return parser.getValueAsString();
+            }
+            JsonNode name = parser.<JsonNode>readValueAsTree().get("name");
+            return name != null && name.isValueNode() && !name.isNull() ? name.asText() : null;
+        }
+    }
+}
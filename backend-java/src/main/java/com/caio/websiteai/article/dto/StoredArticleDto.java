@@ -2,6 +2,7 @@ package com.caio.websiteai.article.dto;
 
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -9,6 +10,7 @@ import java.util.List;
 
 @Value
 @Builder
+@Jacksonized
 public class StoredArticleDto {
     String id;
     String title;
@@ -1,12 +1,9 @@
 package com.caio.websiteai.article.entity;
 
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -15,6 +12,9 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -22,12 +22,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = @Index(name = "idx_articles_url_hash", columnList = "url_hash"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate
 public class ArticleEntity {
 
     @Id
@@ -40,6 +41,12 @@ public class ArticleEntity {
     @Column(columnDefinition = "TEXT", nullable = false, unique = true)
     private String url;
 
+    @Column(name = "url_hash")
+    private Long urlHash;
+
+    @Column(name = "content_fingerprint")
+    private Long contentFingerprint;
+
     @Column(length = 255)
     private String source;
 
@@ -94,9 +101,8 @@ public class ArticleEntity {
     @Column(name = "image_url", columnDefinition = "TEXT")
     private String imageUrl;
 
-    @ElementCollection(fetch = FetchType.LAZY)
-    @CollectionTable(name = "article_tags", joinColumns = @JoinColumn(name = "article_id"))
-    @Column(name = "tag")
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "tags", columnDefinition = "text[]")
     @Builder.Default
     private List<String> tags = new ArrayList<>();
 
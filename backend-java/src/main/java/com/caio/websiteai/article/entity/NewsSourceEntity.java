@@ -1,14 +1,12 @@
 package com.caio.websiteai.article.entity;
 
-import jakarta.persistence.CollectionTable;
+import com.caio.websiteai.common.ReferenceDataCacheInvalidator;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -16,6 +14,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(ReferenceDataCacheInvalidator.class)
 @Table(name = "news_sources")
 @Getter
 @Setter
@@ -47,9 +48,8 @@ public class NewsSourceEntity {
     @Column(name = "bias_score", precision = 3, scale = 2)
     private BigDecimal biasScore;
 
-    @ElementCollection(fetch = FetchType.LAZY)
-    @CollectionTable(name = "news_source_focus_areas", joinColumns = @JoinColumn(name = "news_source_id"))
-    @Column(name = "focus_area")
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "focus_areas", columnDefinition = "text[]")
     @Builder.Default
     private List<String> focusAreas = new ArrayList<>();
 
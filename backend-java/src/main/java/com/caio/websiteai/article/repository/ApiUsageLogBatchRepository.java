@@ -0,0 +1,44 @@
+package com.caio.websiteai.article.repository;
+
+import com.caio.websiteai.article.entity.ApiUsageLogEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC-batched inserts for {@code api_usage_log}, used by the buffered usage recorder.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ApiUsageLogBatchRepository {
+
+    private static final String INSERT = """
+            INSERT INTO api_usage_log (api_provider, api_key_index, endpoint, query_params, response_status,
+                                       response_size, response_time_ms, cost_estimate, articles_returned,
+                                       error_message, rate_limited, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<ApiUsageLogEntity> entries) {
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+            int i = 1;
+            ps.setString(i++, entry.getApiProvider());
+            ps.setObject(i++, entry.getApiKeyIndex(), Types.INTEGER);
+            ps.setString(i++, entry.getEndpoint());
+            ps.setString(i++, entry.getQueryParams());
+            ps.setObject(i++, entry.getResponseStatus(), Types.INTEGER);
+            ps.setObject(i++, entry.getResponseSize(), Types.INTEGER);
+            ps.setObject(i++, entry.getResponseTimeMs(), Types.INTEGER);
+            ps.setBigDecimal(i++, entry.getCostEstimate());
+            ps.setObject(i++, entry.getArticlesReturned(), Types.INTEGER);
+            ps.setString(i++, entry.getErrorMessage());
+            ps.setObject(i++, entry.getRateLimited(), Types.BOOLEAN);
+            ps.setObject(i, entry.getCreatedAt());
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.caio.websiteai.article.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Moves aged rows from {@code articles} into the month-partitioned {@code articles_archive} and manages its
+ * partitions. Each move is a single {@code DELETE ... RETURNING} / {@code INSERT} statement, so a batch is
+ * either archived completely or not at all.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArticleArchiveRepository {
+
+    private static final String PARTITION_PREFIX = "articles_archive_y";
+    private static final Pattern PARTITION_NAME = Pattern.compile("articles_archive_y(\\d{4})m(\\d{2})");
+
+    private static final String COLUMNS = """
+            id, url, url_hash, content_fingerprint, title, source, author, published_at, description, content,
+            country, category, rel_score, ana_score, einstein_score, topic_category, provenance, search_query,
+            language, sentiment_score, readability_score, word_count, image_url, tags, is_premium, is_breaking,
+            view_count, share_count, created_at, updated_at""";
+
+    private static final String FIND_ARCHIVABLE = """
+            SELECT id, date_trunc('month', published_at AT TIME ZONE 'UTC')::date AS month
+            FROM articles
+            WHERE COALESCE(published_at, created_at) < ?
+            LIMIT ?
+            """;
+
+    private static final String MOVE_BATCH = """
+            WITH moved AS (
+                DELETE FROM articles WHERE id = ANY(?)
+                RETURNING %1$s
+            )
+            INSERT INTO articles_archive (%1$s, archived_at)
+            SELECT %1$s, ? FROM moved
+            """.formatted(COLUMNS);
+
+    private static final String LIST_PARTITIONS = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = 'articles_archive'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Up to {@code limit} articles published (or, when undated, created) before {@code cutoff}, with the UTC month
+     * whose partition they belong in ({@code null} for undated articles, which go to the default partition).
+     */
+    public List<ArchiveCandidate> findArchivable(OffsetDateTime cutoff, int limit) {
+        return jdbcTemplate.query(FIND_ARCHIVABLE,
+                (rs, rowNum) -> {
+                    Date month = rs.getDate("month");
+                    return new ArchiveCandidate(rs.getString("id"),
+                            month != null ? YearMonth.from(month.toLocalDate()) : null);
+                },
+                cutoff, limit);
+    }
+
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF articles_archive FOR VALUES FROM ('" + monthStart(month) + "') TO ('"
+                + monthStart(month.plusMonths(1)) + "')");
+    }
+
+    /**
+     * Moves the given articles into the archive, stamping {@code archived_at}, and returns how many were moved.
+     * Their month partitions must already exist.
+     */
+    public int moveToArchive(Collection<String> ids, OffsetDateTime archivedAt) {
+        return jdbcTemplate.update(MOVE_BATCH, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("text", ids.toArray()));
+            ps.setObject(2, archivedAt);
+        });
+    }
+
+    public List<YearMonth> listPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    public void dropPartition(YearMonth month) {
+        String name = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE articles_archive DETACH PARTITION " + name);
+        jdbcTemplate.execute("DROP TABLE " + name);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("%s%04dm%02d", PARTITION_PREFIX, month.getYear(), month.getMonthValue());
+    }
+
+    private static String monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC).toString();
+    }
+
+    public record ArchiveCandidate(String id, YearMonth month) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.caio.websiteai.article.repository;
+
+import com.caio.websiteai.article.entity.ArticleEntity;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Bulk loading for historical imports: each batch is streamed with {@code COPY} into a transaction-scoped staging
+ * table and merged into {@code articles} by one set-based statement, with the same conflict rules as the regular
+ * upsert, or appended to {@code articles_archive} when it is already past the hot retention period. Nothing of a
+ * failed batch stays behind, since the staging table is dropped with its transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArticleBackfillRepository {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String COLUMNS = """
+            id, url, url_hash, content_fingerprint, title, source, author, published_at, description, content,
+            country, category, rel_score, ana_score, einstein_score, topic_category, provenance, search_query,
+            language, sentiment_score, readability_score, word_count, image_url, tags, is_premium, is_breaking""";
+
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE articles_staging (LIKE articles INCLUDING DEFAULTS) ON COMMIT DROP";
+
+    private static final String COPY_STAGING =
+            "COPY articles_staging (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    // Rows whose id already belongs to a different URL are left out: inserting them would violate the primary key,
+    // and the regular upsert treats them as duplicates too.
+    private static final String MERGE_STAGING = """
+            WITH candidates AS (
+                SELECT %1$s
+                FROM articles_staging s
+                WHERE NOT EXISTS (SELECT 1 FROM articles a WHERE a.id = s.id AND a.url <> s.url)
+            ), merged AS (
+                INSERT INTO articles (%1$s, view_count, share_count, created_at, updated_at)
+                SELECT %1$s, 0, 0, now(), now() FROM candidates
+                %2$s
+                RETURNING (xmax = 0) AS inserted
+            )
+            SELECT (SELECT count(*) FROM candidates) AS candidates,
+                   count(*) FILTER (WHERE inserted) AS inserted,
+                   count(*) FILTER (WHERE NOT inserted) AS updated
+            FROM merged
+            """.formatted(COLUMNS, ArticleBatchRepository.ON_URL_CONFLICT);
+
+    // Archived rows are history and never rewritten: a URL already in the archive is left alone, and one still in
+    // articles is archived from there by the retention job.
+    private static final String ARCHIVE_STAGING = """
+            WITH archived AS (
+                INSERT INTO articles_archive (%1$s, view_count, share_count, created_at, updated_at, archived_at)
+                SELECT %1$s, 0, 0, now(), now(), now()
+                FROM articles_staging s
+                WHERE NOT EXISTS (SELECT 1 FROM articles a WHERE a.url = s.url)
+                  AND NOT EXISTS (SELECT 1 FROM articles_archive r WHERE r.url_hash = s.url_hash AND r.url = s.url)
+                RETURNING 1
+            )
+            SELECT count(*) FROM archived
+            """.formatted(COLUMNS);
+
+    private static final String INSERT_MISSING_SOURCES = """
+            INSERT INTO news_sources (name, domain, api_source, is_premium, is_active, article_count, created_at)
+            SELECT btrim(source), substring(min(url) FROM '://([^/:?#]+)'), min(provenance), bool_or(is_premium),
+                   false, 0, now()
+            FROM articles
+            WHERE btrim(source) <> ''
+            GROUP BY btrim(source)
+            ON CONFLICT (name) DO NOTHING
+            """;
+
+    private static final String REFRESH_SOURCE_STATS = """
+            UPDATE news_sources s SET
+                article_count = a.articles,
+                avg_quality_score = COALESCE(a.avg_quality_score, s.avg_quality_score),
+                last_article_date = a.latest
+            FROM (
+                SELECT btrim(source) AS name,
+                       count(*) AS articles,
+                       CASE WHEN count(rel_score + ana_score) > 0
+                            THEN ROUND(SUM(rel_score + ana_score)::numeric / count(*), 2) END AS avg_quality_score,
+                       max(published_at) AS latest
+                FROM articles
+                WHERE btrim(source) <> ''
+                GROUP BY btrim(source)
+            ) a
+            WHERE s.name = a.name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Copies {@code articles} into staging and merges them. The articles must have distinct URLs and distinct ids.
+     */
+    @Transactional
+    public MergeResult merge(List<ArticleEntity> articles) {
+        jdbcTemplate.execute(CREATE_STAGING);
+        jdbcTemplate.execute((ConnectionCallback<Long>) con -> copyToStaging(con, articles));
+        MergeResult result = jdbcTemplate.queryForObject(MERGE_STAGING, (rs, rowNum) -> new MergeResult(
+                rs.getInt("candidates"), rs.getInt("inserted"), rs.getInt("updated")));
+        return result != null ? result : new MergeResult(0, 0, 0);
+    }
+
+    /**
+     * Copies {@code articles} into staging and appends those not stored yet to {@code articles_archive}, returning
+     * how many were archived. The articles must have distinct URLs and their month partitions must already exist.
+     */
+    @Transactional
+    public int archive(List<ArticleEntity> articles) {
+        jdbcTemplate.execute(CREATE_STAGING);
+        jdbcTemplate.execute((ConnectionCallback<Long>) con -> copyToStaging(con, articles));
+        Integer archived = jdbcTemplate.queryForObject(ARCHIVE_STAGING, Integer.class);
+        return archived != null ? archived : 0;
+    }
+
+    /**
+     * Recomputes article count, average quality and latest article date of every source from {@code articles},
+     * creating sources that have none yet. One pass after an import instead of per-batch incremental updates.
+     */
+    @Transactional
+    public int refreshSourceStats() {
+        jdbcTemplate.update(INSERT_MISSING_SOURCES);
+        return jdbcTemplate.update(REFRESH_SOURCE_STATS);
+    }
+
+    private static long copyToStaging(Connection con, List<ArticleEntity> articles) throws SQLException {
+        PGCopyOutputStream out = new PGCopyOutputStream(con.unwrap(PGConnection.class), COPY_STAGING, BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            for (ArticleEntity article : articles) {
+                writeRow(writer, article);
+            }
+            writer.flush();
+            return out.endCopy();
+        } catch (IOException ex) {
+            if (out.isActive()) {
+                out.cancelCopy();
+            }
+            throw new SQLException("COPY into articles_staging failed", ex);
+        }
+    }
+
+    /** One CSV record in {@link #COLUMNS} order: text is always quoted, so only unquoted empty fields are NULL. */
+    private static void writeRow(Writer writer, ArticleEntity article) throws IOException {
+        Object[] fields = {
+                article.getId(), article.getUrl(), article.getUrlHash(), article.getContentFingerprint(),
+                article.getTitle(), article.getSource(), article.getAuthor(), article.getPublishedAt(),
+                article.getDescription(), article.getContent(), article.getCountry(), article.getCategory(),
+                article.getRelevanceScore(), article.getAnalysisScore(), article.getEinsteinScore(),
+                article.getTopicCategory(), article.getProvenance(), article.getSearchQuery(), article.getLanguage(),
+                article.getSentimentScore(), article.getReadabilityScore(), article.getWordCount(),
+                article.getImageUrl(), article.getTags(), article.isPremium(), article.isBreaking()};
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object field = fields[i];
+            if (field instanceof String value) {
+                text(writer, value);
+            } else if (field instanceof List<?> values) {
+                text(writer, ArticleBatchRepository.arrayLiteral(values));
+            } else if (field instanceof BigDecimal number) {
+                writer.write(number.toPlainString());
+            } else if (field != null) {
+                writer.write(field.toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    /** Quoted CSV field; NUL characters are dropped because PostgreSQL text cannot hold them. */
+    private static void text(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            if (c != '\u0000') {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    public record MergeResult(int candidates, int inserted, int updated) {
+    }
+}
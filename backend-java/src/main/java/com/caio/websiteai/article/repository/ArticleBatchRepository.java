@@ -0,0 +1,243 @@
+package com.caio.websiteai.article.repository;
+
+import com.caio.websiteai.article.entity.ArticleEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Set-based writes for {@code articles}: one lookup per batch and one array-bound statement per chunk instead of a find/save round trip per row. Runs inside the caller's JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArticleBatchRepository {
+
+    static final String FIND_EXISTING =
+            "SELECT id, url, content_fingerprint FROM articles WHERE url = ANY(?) OR id = ANY(?)";
+
+    static final String FIND_EXISTING_BY_URL_HASH =
+            "SELECT id, url, content_fingerprint FROM articles WHERE url_hash = ANY(?) OR id = ANY(?)";
+
+    private static final String SCAN_URL_HASHES = "SELECT id, url, url_hash FROM articles";
+
+    private static final String BACKFILL_URL_HASH = "UPDATE articles SET url_hash = ? WHERE id = ?";
+
+    /**
+     * Upsert tail shared with the backfill merge: refreshes everything but identity and counters, and skips rows
+     * whose content fingerprint did not change.
+     */
+    static final String ON_URL_CONFLICT = """
+            ON CONFLICT (url) DO UPDATE SET
+                url_hash = EXCLUDED.url_hash,
+                content_fingerprint = EXCLUDED.content_fingerprint,
+                title = EXCLUDED.title,
+                source = EXCLUDED.source,
+                author = EXCLUDED.author,
+                published_at = EXCLUDED.published_at,
+                description = EXCLUDED.description,
+                content = EXCLUDED.content,
+                country = EXCLUDED.country,
+                category = EXCLUDED.category,
+                rel_score = EXCLUDED.rel_score,
+                ana_score = EXCLUDED.ana_score,
+                einstein_score = EXCLUDED.einstein_score,
+                topic_category = EXCLUDED.topic_category,
+                provenance = EXCLUDED.provenance,
+                search_query = EXCLUDED.search_query,
+                language = EXCLUDED.language,
+                sentiment_score = EXCLUDED.sentiment_score,
+                readability_score = EXCLUDED.readability_score,
+                word_count = EXCLUDED.word_count,
+                image_url = EXCLUDED.image_url,
+                tags = EXCLUDED.tags,
+                is_premium = EXCLUDED.is_premium,
+                is_breaking = EXCLUDED.is_breaking,
+                view_count = COALESCE(articles.view_count, 0),
+                share_count = COALESCE(articles.share_count, 0),
+                updated_at = EXCLUDED.updated_at
+            WHERE articles.content_fingerprint IS DISTINCT FROM EXCLUDED.content_fingerprint
+            """;
+
+    // One statement per chunk, with each column bound as an array. Rows whose id already belongs to a different URL
+    // are left out rather than violating the primary key; like rows whose content did not change, they are not
+    // returned, so the caller learns from the returned ids exactly which rows were written.
+    private static final String UPSERT_ARTICLES = """
+            INSERT INTO articles (id, url, url_hash, content_fingerprint, title, source, author, published_at, description, content, country,
+                                  category, rel_score, ana_score, einstein_score, topic_category, provenance,
+                                  search_query, language, sentiment_score, readability_score, word_count, image_url,
+                                  tags, is_premium, is_breaking, view_count, share_count, created_at, updated_at)
+            SELECT v.id, v.url, v.url_hash, v.content_fingerprint, v.title, v.source, v.author, v.published_at::timestamptz,
+                   v.description, v.content, v.country, v.category, v.rel_score, v.ana_score, v.einstein_score,
+                   v.topic_category, v.provenance, v.search_query, v.language, v.sentiment_score, v.readability_score,
+                   v.word_count, v.image_url, v.tags::text[], v.is_premium, v.is_breaking, 0, 0, ?, ?
+            FROM unnest(?::text[], ?::text[], ?::bigint[], ?::bigint[], ?::text[], ?::text[], ?::text[], ?::text[],
+                        ?::text[], ?::text[], ?::text[], ?::text[], ?::integer[], ?::integer[], ?::numeric[], ?::text[],
+                        ?::text[], ?::text[], ?::text[], ?::numeric[], ?::integer[], ?::integer[], ?::text[], ?::text[],
+                        ?::boolean[], ?::boolean[])
+                AS v(id, url, url_hash, content_fingerprint, title, source, author, published_at, description, content,
+                     country, category, rel_score, ana_score, einstein_score, topic_category, provenance, search_query,
+                     language, sentiment_score, readability_score, word_count, image_url, tags, is_premium, is_breaking)
+            WHERE NOT EXISTS (SELECT 1 FROM articles a WHERE a.id = v.id AND a.url <> v.url)
+            """ + ON_URL_CONFLICT + """
+            RETURNING id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${articles.storage.batch-size}")
+    private int batchSize;
+
+    public List<ArticleKey> findExisting(Collection<String> urls, Collection<String> ids) {
+        return jdbcTemplate.query(FIND_EXISTING,
+                ps -> {
+                    ps.setArray(1, textArray(ps, urls));
+                    ps.setArray(2, textArray(ps, ids));
+                },
+                ArticleBatchRepository::toArticleKey);
+    }
+
+    /**
+     * Same as {@link #findExisting} but through the {@code url_hash} index; callers compare the returned URLs,
+     * since different raw URLs can share a canonical hash.
+     */
+    public List<ArticleKey> findExistingByUrlHash(Collection<Long> urlHashes, Collection<String> ids) {
+        return jdbcTemplate.query(FIND_EXISTING_BY_URL_HASH,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", urlHashes.toArray()));
+                    ps.setArray(2, textArray(ps, ids));
+                },
+                ArticleBatchRepository::toArticleKey);
+    }
+
+    /**
+     * Streams every stored article's id, URL and URL hash (null for rows written before the column existed).
+     * Deliberately not read-only: the scan must see the primary, since a lagging replica would hide recent URLs
+     * from the known-URL index.
+     */
+    @Transactional
+    public void scanUrlHashes(UrlHashConsumer consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SCAN_URL_HASHES);
+            ps.setFetchSize(batchSize * 10);
+            return ps;
+        }, rs -> {
+            long urlHash = rs.getLong("url_hash");
+            consumer.accept(rs.getString("id"), rs.getString("url"), rs.wasNull() ? null : urlHash);
+        });
+    }
+
+    public void backfillUrlHashes(List<UrlHash> urlHashes) {
+        jdbcTemplate.batchUpdate(BACKFILL_URL_HASH, urlHashes, batchSize, (ps, urlHash) -> {
+            ps.setLong(1, urlHash.urlHash());
+            ps.setString(2, urlHash.id());
+        });
+    }
+
+    /**
+     * Inserts or updates {@code articles} (distinct URLs) in chunks of the configured batch size and returns the ids
+     * of the rows written. A row is missing from the result when its id is already taken by another URL, or when its
+     * URL is stored with the same content fingerprint.
+     */
+    public Set<String> upsertArticles(Collection<ArticleEntity> articles, OffsetDateTime now) {
+        Set<String> written = new HashSet<>();
+        List<ArticleEntity> all = List.copyOf(articles);
+        for (int from = 0; from < all.size(); from += batchSize) {
+            List<ArticleEntity> chunk = all.subList(from, Math.min(all.size(), from + batchSize));
+            written.addAll(jdbcTemplate.query(UPSERT_ARTICLES, ps -> {
+                int i = 1;
+                ps.setObject(i++, now);
+                ps.setObject(i++, now);
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getId));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getUrl));
+                ps.setArray(i++, column(ps, "bigint", chunk, ArticleEntity::getUrlHash));
+                ps.setArray(i++, column(ps, "bigint", chunk, ArticleEntity::getContentFingerprint));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getTitle));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getSource));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getAuthor));
+                ps.setArray(i++, column(ps, "text", chunk,
+                        article -> article.getPublishedAt() != null ? article.getPublishedAt().toString() : null));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getDescription));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getContent));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getCountry));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getCategory));
+                ps.setArray(i++, column(ps, "integer", chunk, ArticleEntity::getRelevanceScore));
+                ps.setArray(i++, column(ps, "integer", chunk, ArticleEntity::getAnalysisScore));
+                ps.setArray(i++, column(ps, "numeric", chunk, ArticleEntity::getEinsteinScore));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getTopicCategory));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getProvenance));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getSearchQuery));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getLanguage));
+                ps.setArray(i++, column(ps, "numeric", chunk, ArticleEntity::getSentimentScore));
+                ps.setArray(i++, column(ps, "integer", chunk, ArticleEntity::getReadabilityScore));
+                ps.setArray(i++, column(ps, "integer", chunk, ArticleEntity::getWordCount));
+                ps.setArray(i++, column(ps, "text", chunk, ArticleEntity::getImageUrl));
+                ps.setArray(i++, column(ps, "text", chunk, article -> arrayLiteral(article.getTags())));
+                ps.setArray(i++, column(ps, "boolean", chunk, ArticleEntity::isPremium));
+                ps.setArray(i, column(ps, "boolean", chunk, ArticleEntity::isBreaking));
+            }, (rs, rowNum) -> rs.getString("id")));
+        }
+        return written;
+    }
+
+    /**
+     * PostgreSQL array literal of {@code values}, every element quoted; for binding a list where one array column
+     * per row has to travel as text.
+     */
+    static String arrayLiteral(List<?> values) {
+        StringBuilder literal = new StringBuilder("{");
+        for (Object element : values) {
+            String value = String.valueOf(element);
+            if (literal.length() > 1) {
+                literal.append(',');
+            }
+            literal.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    literal.append('\\');
+                }
+                literal.append(c);
+            }
+            literal.append('"');
+        }
+        return literal.append('}').toString();
+    }
+
+    private static Array column(PreparedStatement ps, String type, List<ArticleEntity> articles,
+                                Function<ArticleEntity, ?> field) throws SQLException {
+        return ps.getConnection().createArrayOf(type, articles.stream().map(field).toArray());
+    }
+
+    private static Array textArray(PreparedStatement ps, Collection<String> values) throws SQLException {
+        return ps.getConnection().createArrayOf("text", values.toArray());
+    }
+
+    private static ArticleKey toArticleKey(ResultSet rs, int rowNum) throws SQLException {
+        long fingerprint = rs.getLong("content_fingerprint");
+        return new ArticleKey(rs.getString("id"), rs.getString("url"), rs.wasNull() ? null : fingerprint);
+    }
+
+    public record ArticleKey(String id, String url, Long contentFingerprint) {
+    }
+
+    public record UrlHash(String id, long urlHash) {
+    }
+
+    @FunctionalInterface
+    public interface UrlHashConsumer {
+        void accept(String id, String url, Long urlHash);
+    }
+}
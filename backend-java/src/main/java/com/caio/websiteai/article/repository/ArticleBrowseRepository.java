@@ -0,0 +1,129 @@
+package com.caio.websiteai.article.repository;
+
+import com.caio.websiteai.article.dto.ArticleCursor;
+import com.caio.websiteai.article.dto.ArticleSummaryDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Newest-first reads of stored articles with keyset pagination on {@code (published_at, id)}. Each page is a
+ * range scan that starts right after the previous page's last row, so page cost does not grow with depth the way
+ * {@code OFFSET} does. Only the browse columns are selected; {@code content} is read only when asked for.
+ * Undated articles have no place in this order and are not returned.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArticleBrowseRepository {
+
+    private static final String COLUMNS = """
+            id, title, url, source, author, published_at, description, country, topic_category, einstein_score,
+            image_url, tags, is_premium, is_breaking""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<ArticleSummaryDto> findPage(Filter filter, ArticleCursor after, boolean includeContent, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        return jdbcTemplate.query(pageQuery(filter, after, includeContent, params), params,
+                (rs, rowNum) -> toSummary(rs, includeContent));
+    }
+
+    /** The page query; adds its filter and cursor parameters to {@code params}, which must already hold the limit. */
+    static String pageQuery(Filter filter, ArticleCursor after, boolean includeContent,
+                            MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS)
+                .append(includeContent ? ", content" : "")
+                .append(" FROM articles WHERE published_at IS NOT NULL");
+        filter.appendConditions(sql, params);
+        if (after != null) {
+            sql.append(" AND (published_at, id) < (:afterPublishedAt, :afterId)");
+            params.addValue("afterPublishedAt", after.publishedAt());
+            params.addValue("afterId", after.id());
+        }
+        return sql.append(" ORDER BY published_at DESC, id DESC LIMIT :limit").toString();
+    }
+
+    /**
+     * Summaries of the given articles, in no particular order; ids that no longer exist are skipped.
+     */
+    public List<ArticleSummaryDto> findByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM articles WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids), (rs, rowNum) -> toSummary(rs, false));
+    }
+
+    private static ArticleSummaryDto toSummary(ResultSet rs, boolean includeContent) throws SQLException {
+        return ArticleSummaryDto.builder()
+                .id(rs.getString("id"))
+                .title(rs.getString("title"))
+                .url(rs.getString("url"))
+                .source(rs.getString("source"))
+                .author(rs.getString("author"))
+                .publishedAt(rs.getObject("published_at", OffsetDateTime.class))
+                .description(rs.getString("description"))
+                .content(includeContent ? rs.getString("content") : null)
+                .country(rs.getString("country"))
+                .topicCategory(rs.getString("topic_category"))
+                .einsteinScore(rs.getBigDecimal("einstein_score"))
+                .imageUrl(rs.getString("image_url"))
+                .tags(textList(rs.getArray("tags")))
+                .premium(rs.getBoolean("is_premium"))
+                .breaking(rs.getBoolean("is_breaking"))
+                .build();
+    }
+
+    private static List<String> textList(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        return new ArrayList<>(Arrays.asList((String[]) array.getArray()));
+    }
+
+    /**
+     * Browse filters; {@code null} means unfiltered. {@code from} is inclusive and {@code to} exclusive.
+     */
+    public record Filter(String country, String topic, BigDecimal minEinsteinScore, Boolean premium,
+                         OffsetDateTime from, OffsetDateTime to) {
+
+        /** Appends an {@code AND} condition per set filter to a query that already has a {@code WHERE} clause. */
+        public void appendConditions(StringBuilder sql, MapSqlParameterSource params) {
+            if (country != null) {
+                sql.append(" AND country = :country");
+                params.addValue("country", country);
+            }
+            if (topic != null) {
+                sql.append(" AND topic_category = :topic");
+                params.addValue("topic", topic);
+            }
+            if (minEinsteinScore != null) {
+                sql.append(" AND einstein_score >= :minEinsteinScore");
+                params.addValue("minEinsteinScore", minEinsteinScore);
+            }
+            if (premium != null) {
+                sql.append(" AND is_premium = :premium");
+                params.addValue("premium", premium);
+            }
+            if (from != null) {
+                sql.append(" AND published_at >= :from");
+                params.addValue("from", from);
+            }
+            if (to != null) {
+                sql.append(" AND published_at < :to");
+                params.addValue("to", to);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.caio.websiteai.article.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Full-table reads of {@code articles} for export. Rows come from a forward-only server-side cursor, so memory use
+ * does not depend on how many rows match.
+ */
+@Repository
+public class ArticleExportRepository {
+
+    public static final List<Column> COLUMNS = List.of(
+            new Column("id", ColumnType.TEXT),
+            new Column("title", ColumnType.TEXT),
+            new Column("url", ColumnType.TEXT),
+            new Column("source", ColumnType.TEXT),
+            new Column("author", ColumnType.TEXT),
+            new Column("published_at", ColumnType.TIMESTAMP),
+            new Column("description", ColumnType.TEXT),
+            new Column("country", ColumnType.TEXT),
+            new Column("category", ColumnType.TEXT),
+            new Column("topic_category", ColumnType.TEXT),
+            new Column("rel_score", ColumnType.INTEGER),
+            new Column("ana_score", ColumnType.INTEGER),
+            new Column("einstein_score", ColumnType.DECIMAL),
+            new Column("sentiment_score", ColumnType.DECIMAL),
+            new Column("readability_score", ColumnType.INTEGER),
+            new Column("word_count", ColumnType.INTEGER),
+            new Column("language", ColumnType.TEXT),
+            new Column("image_url", ColumnType.TEXT),
+            new Column("tags", ColumnType.TEXT_ARRAY),
+            new Column("is_premium", ColumnType.BOOLEAN),
+            new Column("is_breaking", ColumnType.BOOLEAN),
+            new Column("created_at", ColumnType.TIMESTAMP),
+            new Column("updated_at", ColumnType.TIMESTAMP));
+    public static final Column CONTENT = new Column("content", ColumnType.TEXT);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ArticleExportRepository(DataSource dataSource,
+                                   @Value("${articles.export.fetch-size}") int fetchSize) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Hands every matching row to {@code handler} in no particular order. Runs in a read-only transaction, which
+     * routes it to the read pool and lets the driver use a cursor; the connection goes back to the pool as soon as
+     * the last row has been handled or the handler throws. Undated articles are included unless a date filter is set.
+     */
+    @Transactional(readOnly = true)
+    public void stream(ArticleBrowseRepository.Filter filter, boolean includeContent, RowCallbackHandler handler) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(columns(includeContent).stream().map(Column::name).collect(Collectors.joining(", ")))
+                .append(" FROM articles WHERE TRUE");
+        filter.appendConditions(sql, params);
+        jdbcTemplate.query(sql.toString(), params, handler);
+    }
+
+    public static List<Column> columns(boolean includeContent) {
+        if (!includeContent) {
+            return COLUMNS;
+        }
+        List<Column> columns = new ArrayList<>(COLUMNS);
+        columns.add(CONTENT);
+        return columns;
+    }
+
+    public record Column(String name, ColumnType type) {
+    }
+
+    public enum ColumnType {
+        TEXT, INTEGER, DECIMAL, BOOLEAN, TIMESTAMP, TEXT_ARRAY
+    }
+}
@@ -13,6 +13,13 @@ public interface ArticleRepository extends JpaRepository<ArticleEntity, String>
 
     Optional<ArticleEntity> findByUrl(String url);
 
+    /**
+     * Most recent articles carrying {@code tag}; the containment test is served by the GIN index on {@code tags}.
+     */
+    @Query(value = "SELECT * FROM articles WHERE tags @> ARRAY[CAST(:tag AS text)] ORDER BY published_at DESC LIMIT :limit",
+            nativeQuery = true)
+    List<ArticleEntity> findRecentByTag(@Param("tag") String tag, @Param("limit") int limit);
+
     @Query("SELECT a.topicCategory AS topic, COUNT(a) AS articleCount, AVG(COALESCE(a.relevanceScore,0) + COALESCE(a.analysisScore,0)) AS avgScore, MAX(a.publishedAt) AS latestArticle " +
             "FROM ArticleEntity a WHERE a.topicCategory IS NOT NULL AND a.publishedAt > :after GROUP BY a.topicCategory " +
             "ORDER BY COUNT(a) DESC, AVG(COALESCE(a.relevanceScore,0) + COALESCE(a.analysisScore,0)) DESC")
@@ -1,10 +1,50 @@
 package com.caio.websiteai.article.repository;
 
 import com.caio.websiteai.article.entity.NewsSourceEntity;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 
 public interface NewsSourceRepository extends JpaRepository<NewsSourceEntity, Long> {
+
+    /** Cache of source name to id; cleared by {@code ReferenceDataCacheInvalidator} when a source changes. */
+    String ID_CACHE = "newsSourceIds";
+
     Optional<NewsSourceEntity> findByName(String name);
+
+    // Absent names are not cached, so a source created by insertIfAbsent is found on the next lookup.
+    @Cacheable(cacheNames = ID_CACHE, unless = "#result == null")
+    @Query("SELECT s.id FROM NewsSourceEntity s WHERE s.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    @CacheEvict(cacheNames = ID_CACHE)
+    default void evictIdByName(String name) {
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO news_sources (name, domain, api_source, is_premium, is_active, article_count, created_at) " +
+            "VALUES (:name, :domain, :apiSource, :premium, false, 0, now()) ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name,
+                       @Param("domain") String domain,
+                       @Param("apiSource") String apiSource,
+                       @Param("premium") boolean premium);
+
+    @Modifying
+    @Query(value = "UPDATE news_sources SET " +
+            "avg_quality_score = CASE WHEN :scored > 0 THEN ROUND((COALESCE(avg_quality_score, 0) * COALESCE(article_count, 0) + :scoreSum) " +
+            "/ (COALESCE(article_count, 0) + :articles), 2) ELSE avg_quality_score END, " +
+            "article_count = COALESCE(article_count, 0) + :articles, " +
+            "last_article_date = GREATEST(last_article_date, CAST(:latest AS timestamptz)) " +
+            "WHERE id = :id", nativeQuery = true)
+    int applyStats(@Param("id") Long id,
+                   @Param("articles") int articles,
+                   @Param("scored") int scored,
+                   @Param("scoreSum") long scoreSum,
+                   @Param("latest") OffsetDateTime latest);
 }
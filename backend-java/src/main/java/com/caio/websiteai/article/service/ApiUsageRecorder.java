@@ -0,0 +1,76 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.entity.ApiUsageLogEntity;
+import com.caio.websiteai.article.repository.ApiUsageLogBatchRepository;
+import com.caio.websiteai.common.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Asynchronous sink for {@code api_usage_log}. Callers hand entries to a lock-free ring and return at once; a
+ * scheduled flush drains it and writes the entries with batched inserts. Entries are dropped (and counted) when
+ * the ring is full or a flush fails, so usage logging never stalls or fails the work it describes.
+ */
+@Component
+public class ApiUsageRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiUsageRecorder.class);
+
+    private final ApiUsageLogBatchRepository apiUsageLogBatchRepository;
+    private final MpscRingBuffer<ApiUsageLogEntity> buffer;
+    private final int batchSize;
+
+    private final Counter recorded;
+    private final Counter droppedFull;
+    private final Counter droppedFailed;
+
+    public ApiUsageRecorder(ApiUsageLogBatchRepository apiUsageLogBatchRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${api-usage.buffer-capacity}") int bufferCapacity,
+                            @Value("${api-usage.batch-size}") int batchSize) {
+        this.apiUsageLogBatchRepository = apiUsageLogBatchRepository;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+
+        Gauge.builder("api_usage.buffer.depth", buffer, MpscRingBuffer::size).register(meterRegistry);
+        this.recorded = Counter.builder("api_usage.recorded").register(meterRegistry);
+        this.droppedFull = Counter.builder("api_usage.dropped").tag("reason", "full").register(meterRegistry);
+        this.droppedFailed = Counter.builder("api_usage.dropped").tag("reason", "flush_failed").register(meterRegistry);
+    }
+
+    public void record(ApiUsageLogEntity entry) {
+        if (!buffer.offer(entry)) {
+            droppedFull.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api-usage.flush-interval}")
+    public synchronized void flush() {
+        List<ApiUsageLogEntity> batch = new ArrayList<>(batchSize);
+        while (buffer.drain(batch::add, batchSize) > 0) {
+            try {
+                apiUsageLogBatchRepository.insertAll(batch);
+                recorded.increment(batch.size());
+            } catch (RuntimeException ex) {
+                droppedFailed.increment(batch.size());
+                log.warn("Failed to write {} API usage entries: {}", batch.size(), ex.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,100 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.repository.ArticleBackfillRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Command-line ingest mode: {@code java -jar app.jar --backfill=<file|dir>[,...] [--backfill-restart]} imports
+ * the given NDJSON dumps (for a directory, its {@code *.ndjson} and {@code *.jsonl} files in name order), refreshes
+ * source statistics and exits. Without {@code --backfill} this does nothing and the server starts as usual.
+ * <p>
+ * Live instances may keep running: their upsert skips an incoming article whose id a backfilled row already owns,
+ * and it counts as a duplicate instead of failing the batch. Their in-memory indexes (known URLs, search,
+ * suggestions) only see the imported rows after a restart.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArticleBackfillRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleBackfillRunner.class);
+
+    public static final String OPTION = "backfill";
+    public static final String RESTART_OPTION = "backfill-restart";
+
+    private final ArticleBackfillService articleBackfillService;
+    private final ArticleBackfillRepository articleBackfillRepository;
+
+    private int exitCode;
+
+    public static boolean isRequested(String[] args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + OPTION + "="));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        try {
+            List<Path> files = resolveFiles(args.getOptionValues(OPTION));
+            articleBackfillService.backfill(files, args.containsOption(RESTART_OPTION));
+            log.info("Refreshed statistics of {} news sources", articleBackfillRepository.refreshSourceStats());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.error("Backfill interrupted; rerun to resume from the checkpoint");
+            exitCode = 1;
+        } catch (Exception ex) {
+            log.error("Backfill failed; rerun to resume from the checkpoint", ex);
+            exitCode = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    static List<Path> resolveFiles(List<String> values) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String value : values) {
+            for (String name : value.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                Path path = Path.of(name.trim());
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> listing = Files.list(path)) {
+                        listing.filter(file -> Files.isRegularFile(file) && isDump(file))
+                                .sorted()
+                                .forEach(files::add);
+                    }
+                } else if (Files.isRegularFile(path)) {
+                    files.add(path);
+                } else {
+                    throw new NoSuchFileException(path.toString());
+                }
+            }
+        }
+        return files;
+    }
+
+    private static boolean isDump(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl");
+    }
+}
@@ -0,0 +1,405 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.dto.ArticleBackfillSummary;
+import com.caio.websiteai.article.dto.HistoricalArticle;
+import com.caio.websiteai.article.dto.StoredArticleDto;
+import com.caio.websiteai.article.entity.ArticleEntity;
+import com.caio.websiteai.article.repository.ArticleArchiveRepository;
+import com.caio.websiteai.article.repository.ArticleBackfillRepository;
+import com.caio.websiteai.article.repository.ArticleBackfillRepository.MergeResult;
+import com.caio.websiteai.common.CanonicalUrl;
+import com.caio.websiteai.common.MappedLineChunks;
+import com.caio.websiteai.common.MappedLineChunks.Chunk;
+import com.caio.websiteai.news.dto.Article;
+import com.caio.websiteai.news.service.ArticleEnrichmentService;
+import com.caio.websiteai.news.service.NewsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports historical NDJSON article dumps. Each file is memory-mapped and cut into chunks on line boundaries;
+ * chunks are parsed and enriched in parallel (same scoring as live ingestion) while the calling thread merges the
+ * finished ones in file order through {@code COPY} and a staging table. After each merged chunk the file's offset
+ * is written to the checkpoint file, so an interrupted import picks up after the last committed chunk.
+ * At most {@code parallelism + 1} chunks are in memory at once.
+ * <p>
+ * Rows are placed where {@link ArticleRetentionJob} would leave them: those published before the hot retention
+ * period go straight to {@code articles_archive}, and those whose archive month the job would drop are skipped
+ * and counted as expired.
+ */
+@Service
+public class ArticleBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleBackfillService.class);
+
+    static final String PROVENANCE = "backfill";
+
+    // Widths of the varchar columns in articles; a longer value would fail the whole chunk's COPY.
+    private static final int MAX_COUNTRY_LENGTH = 10;
+    private static final int MAX_SOURCE_LENGTH = 255;
+    private static final int MAX_AUTHOR_LENGTH = 255;
+    private static final int MAX_CATEGORY_LENGTH = 50;
+    private static final int MAX_PROVENANCE_LENGTH = 100;
+    private static final int MAX_LANGUAGE_LENGTH = 10;
+
+    // ISO-8601 with or without offset, and PostgreSQL's text form ("2024-03-01 12:00:00+00").
+    private static final DateTimeFormatter TIMESTAMP = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart().appendLiteral('T').optionalEnd()
+            .optionalStart().appendLiteral(' ').optionalEnd()
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .optionalStart().appendOffset("+HH:MM", "Z").optionalEnd()
+            .optionalStart().appendOffset("+HH", "Z").optionalEnd()
+            .toFormatter(Locale.ROOT);
+
+    private final ArticleBackfillRepository articleBackfillRepository;
+    private final ArticleArchiveRepository articleArchiveRepository;
+    private final ArticleEnrichmentService articleEnrichmentService;
+    private final ObjectReader articleReader;
+    private final int parallelism;
+    private final long chunkSize;
+    private final Path checkpointFile;
+    private final Duration progressInterval;
+    private final Duration hotPeriod;
+    private final Duration archivePeriod;
+
+    public ArticleBackfillService(ArticleBackfillRepository articleBackfillRepository,
+                                  ArticleArchiveRepository articleArchiveRepository,
+                                  ArticleEnrichmentService articleEnrichmentService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${articles.backfill.parallelism}") int parallelism,
+                                  @Value("${articles.backfill.chunk-size}") DataSize chunkSize,
+                                  @Value("${articles.backfill.checkpoint}") Path checkpointFile,
+                                  @Value("${articles.backfill.progress-interval}") Duration progressInterval,
+                                  @Value("${articles.retention.hot-period}") Duration hotPeriod,
+                                  @Value("${articles.retention.archive-period}") Duration archivePeriod) {
+        this.articleBackfillRepository = articleBackfillRepository;
+        this.articleArchiveRepository = articleArchiveRepository;
+        this.articleEnrichmentService = articleEnrichmentService;
+        this.articleReader = objectMapper.readerFor(HistoricalArticle.class);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize.toBytes();
+        this.checkpointFile = checkpointFile;
+        this.progressInterval = progressInterval;
+        this.hotPeriod = hotPeriod;
+        this.archivePeriod = archivePeriod;
+    }
+
+    /**
+     * Imports {@code files} in order. With {@code restart} the checkpoint is ignored and every file is read from
+     * its start; already stored articles are then only rewritten where their content changed.
+     */
+    public ArticleBackfillSummary backfill(List<Path> files, boolean restart) throws IOException, InterruptedException {
+        return backfill(files, restart, OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    ArticleBackfillSummary backfill(List<Path> files, boolean restart, OffsetDateTime now)
+            throws IOException, InterruptedException {
+        Retention retention = new Retention(now.minus(hotPeriod), now.minus(archivePeriod));
+        Properties checkpoint = restart ? new Properties() : loadCheckpoint();
+        Progress progress = new Progress();
+        ExecutorService parsers = Executors.newFixedThreadPool(parallelism,
+                new CustomizableThreadFactory("article-backfill-"));
+        try {
+            for (Path file : files) {
+                importFile(file, checkpoint, parsers, retention, progress);
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+        ArticleBackfillSummary summary = progress.summary(files.size());
+        log.info("Backfill finished: {} files, {} lines, {} inserted, {} updated, {} archived, {} unchanged, "
+                        + "{} duplicates, {} expired, {} skipped in {} s", summary.getFiles(), summary.getLines(),
+                summary.getInserted(), summary.getUpdated(), summary.getArchived(), summary.getUnchanged(),
+                summary.getDuplicates(), summary.getExpired(), summary.getSkipped(),
+                summary.getElapsed().toSeconds());
+        return summary;
+    }
+
+    private void importFile(Path file, Properties checkpoint, ExecutorService parsers, Retention retention,
+                            Progress progress) throws IOException, InterruptedException {
+        String key = file.toAbsolutePath().normalize().toString();
+        try (FileChannel channel = FileChannel.open(file)) {
+            long size = channel.size();
+            long from = Long.parseLong(checkpoint.getProperty(key, "0"));
+            if (from > size) {
+                log.warn("Checkpoint for {} is past its end ({} > {} bytes); importing it from the start", file,
+                        from, size);
+                from = 0;
+            }
+            if (from == size) {
+                log.info("Skipping {}: already imported", file);
+                return;
+            }
+            log.info("Importing {} from offset {} of {} bytes", file, from, size);
+            Iterator<Chunk> chunks = MappedLineChunks.split(channel, from, chunkSize).iterator();
+            Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+            while (chunks.hasNext() || !inFlight.isEmpty()) {
+                while (chunks.hasNext() && inFlight.size() <= parallelism) {
+                    Chunk chunk = chunks.next();
+                    inFlight.add(parsers.submit(() -> parse(channel, chunk)));
+                }
+                ParsedChunk parsed = await(inFlight.poll());
+                merge(parsed, retention, progress);
+                checkpoint.setProperty(key, Long.toString(parsed.chunk().end()));
+                saveCheckpoint(checkpoint);
+                progress.reportIfDue(file, parsed.chunk().end(), size, progressInterval);
+            }
+            progress.report(file, size, size);
+        }
+    }
+
+    ParsedChunk parse(FileChannel channel, Chunk chunk) throws IOException {
+        List<ArticleEntity> rows = new ArrayList<>();
+        int[] lines = new int[1];
+        MappedLineChunks.forEachLine(channel, chunk, (line, length) -> {
+            lines[0]++;
+            try {
+                ArticleEntity row = toEntity(articleReader.readValue(line, 0, length));
+                if (row != null) {
+                    rows.add(row);
+                }
+            } catch (JsonProcessingException ex) {
+                log.debug("Skipping malformed line in chunk at {}: {}", chunk.start(), ex.getOriginalMessage());
+            }
+        });
+        return new ParsedChunk(chunk, rows, lines[0]);
+    }
+
+    /**
+     * The stored form of a dump row after live enrichment, or {@code null} when it has no URL, title or valid
+     * country. The dump's provenance is kept; rows without one are marked as backfilled. Text longer than its
+     * {@code articles} column is truncated.
+     */
+    ArticleEntity toEntity(HistoricalArticle row) {
+        if (row == null || !StringUtils.hasText(row.getUrl()) || !StringUtils.hasText(row.getTitle())
+                || !StringUtils.hasText(row.getCountry()) || row.getCountry().trim().length() > MAX_COUNTRY_LENGTH) {
+            return null;
+        }
+        String country = row.getCountry().trim().toLowerCase(Locale.ROOT);
+        Article article = articleEnrichmentService.enrich(Article.builder()
+                .source(truncate(row.getSource(), MAX_SOURCE_LENGTH))
+                .author(truncate(row.getAuthor(), MAX_AUTHOR_LENGTH))
+                .title(row.getTitle())
+                .description(row.getDescription())
+                .url(row.getUrl())
+                .urlToImage(row.getImageUrl())
+                .publishedAt(parseTimestamp(row.getPublishedAt()))
+                .content(row.getContent())
+                .category(truncate(row.getCategory(), MAX_CATEGORY_LENGTH))
+                .searchQuery(row.getSearchQuery())
+                .language(truncate(row.getLanguage(), MAX_LANGUAGE_LENGTH))
+                .build());
+        article.setProvenance(StringUtils.hasText(row.getProvenance())
+                ? truncate(row.getProvenance(), MAX_PROVENANCE_LENGTH) : PROVENANCE);
+        StoredArticleDto dto = NewsService.toStoredArticle(country, article);
+        return ArticleStorageService.toEntity(dto.getId(), country, dto, CanonicalUrl.hash(dto.getUrl()));
+    }
+
+    // Cuts at a code point boundary, so a surrogate pair is never split.
+    static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        int end = Character.isHighSurrogate(value.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return value.substring(0, end);
+    }
+
+    /**
+     * Merges one chunk. Within a chunk the last line for a URL wins, and of two URLs that map to the same id only
+     * the first is kept, as the regular storage path does. Rows are then split by {@code retention}: hot rows are
+     * merged into {@code articles}, older ones archived, and those past the archive period dropped.
+     */
+    private void merge(ParsedChunk parsed, Retention retention, Progress progress) {
+        Map<String, ArticleEntity> byUrl = new LinkedHashMap<>();
+        for (ArticleEntity row : parsed.rows()) {
+            byUrl.put(row.getUrl(), row);
+        }
+        Map<String, ArticleEntity> byId = new LinkedHashMap<>();
+        for (ArticleEntity row : byUrl.values()) {
+            byId.putIfAbsent(row.getId(), row);
+        }
+        List<ArticleEntity> hot = new ArrayList<>();
+        List<ArticleEntity> cold = new ArrayList<>();
+        int expired = 0;
+        for (ArticleEntity row : byId.values()) {
+            // Undated rows stay hot: retention ages them by created_at, which the merge sets to now.
+            OffsetDateTime publishedAt = row.getPublishedAt();
+            if (publishedAt == null || !publishedAt.isBefore(retention.hotCutoff())) {
+                hot.add(row);
+            } else if (ArticleRetentionJob.isPastRetention(month(publishedAt), retention.archiveCutoff())) {
+                expired++;
+            } else {
+                cold.add(row);
+            }
+        }
+        MergeResult result = hot.isEmpty()
+                ? new MergeResult(0, 0, 0)
+                : articleBackfillRepository.merge(hot);
+        int archived = 0;
+        if (!cold.isEmpty()) {
+            cold.stream()
+                    .map(row -> month(row.getPublishedAt()))
+                    .distinct()
+                    .forEach(articleArchiveRepository::createPartition);
+            archived = articleBackfillRepository.archive(cold);
+        }
+        progress.bytes += parsed.chunk().length();
+        progress.lines += parsed.lines();
+        progress.skipped += parsed.lines() - parsed.rows().size();
+        progress.duplicates += parsed.rows().size() - byId.size() + hot.size() - result.candidates();
+        progress.expired += expired;
+        progress.inserted += result.inserted();
+        progress.updated += result.updated();
+        progress.archived += archived;
+        progress.unchanged += result.candidates() - result.inserted() - result.updated() + cold.size() - archived;
+    }
+
+    private static YearMonth month(OffsetDateTime timestamp) {
+        return YearMonth.from(timestamp.withOffsetSameInstant(ZoneOffset.UTC));
+    }
+
+    static OffsetDateTime parseTimestamp(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            if (text.chars().allMatch(Character::isDigit)) {
+                return Instant.ofEpochMilli(Long.parseLong(text)).atOffset(ZoneOffset.UTC);
+            }
+            TemporalAccessor parsed = TIMESTAMP.parseBest(text, OffsetDateTime::from, LocalDateTime::from);
+            return parsed instanceof LocalDateTime local ? local.atOffset(ZoneOffset.UTC) : (OffsetDateTime) parsed;
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Backfill chunk failed", ex.getCause());
+        }
+    }
+
+    private Properties loadCheckpoint() throws IOException {
+        Properties checkpoint = new Properties();
+        if (Files.exists(checkpointFile)) {
+            try (Reader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+                checkpoint.load(reader);
+            }
+        }
+        return checkpoint;
+    }
+
+    // Written next to the checkpoint and moved over it, so a crash never leaves a torn file behind.
+    private void saveCheckpoint(Properties checkpoint) throws IOException {
+        Path directory = checkpointFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, checkpointFile.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            checkpoint.store(writer, "Committed byte offset per imported file");
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    record ParsedChunk(Chunk chunk, List<ArticleEntity> rows, int lines) {
+    }
+
+    /** Rows published before {@code hotCutoff} are archived; archive months past {@code archiveCutoff} expire. */
+    private record Retention(OffsetDateTime hotCutoff, OffsetDateTime archiveCutoff) {
+    }
+
+    private static final class Progress {
+        private final long started = System.nanoTime();
+        private long lastReport = started;
+        private long bytes;
+        private long lines;
+        private long inserted;
+        private long updated;
+        private long archived;
+        private long unchanged;
+        private long duplicates;
+        private long expired;
+        private long skipped;
+
+        private void reportIfDue(Path file, long position, long size, Duration interval) {
+            if (System.nanoTime() - lastReport >= interval.toNanos()) {
+                report(file, position, size);
+            }
+        }
+
+        private void report(Path file, long position, long size) {
+            lastReport = System.nanoTime();
+            double seconds = Math.max(1e-3, (lastReport - started) / 1e9);
+            log.info("Backfill {}: {}% of {} MB, {} lines ({} inserted, {} updated, {} archived, {} expired, "
+                            + "{} skipped), {} lines/s, {} MB/s", file.getFileName(),
+                    position * 100 / Math.max(1, size), size >> 20, lines, inserted, updated, archived, expired,
+                    skipped, Math.round(lines / seconds),
+                    String.format(Locale.ROOT, "%.1f", bytes / seconds / (1 << 20)));
+        }
+
+        private ArticleBackfillSummary summary(int files) {
+            return ArticleBackfillSummary.builder()
+                    .files(files)
+                    .bytes(bytes)
+                    .lines(lines)
+                    .inserted(inserted)
+                    .updated(updated)
+                    .archived(archived)
+                    .unchanged(unchanged)
+                    .duplicates(duplicates)
+                    .expired(expired)
+                    .skipped(skipped)
+                    .elapsed(Duration.ofNanos(System.nanoTime() - started))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.dto.ArticleCursor;
+import com.caio.websiteai.article.dto.ArticlePage;
+import com.caio.websiteai.article.dto.ArticleSummaryDto;
+import com.caio.websiteai.article.repository.ArticleBrowseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ArticleBrowseService {
+
+    private final ArticleBrowseRepository articleBrowseRepository;
+
+    @Transactional(readOnly = true)
+    public ArticlePage browse(ArticleBrowseRepository.Filter filter, ArticleCursor after,
+                              boolean includeContent, int limit) {
+        // One extra row tells us whether another page exists without a separate count.
+        List<ArticleSummaryDto> rows = articleBrowseRepository.findPage(filter, after, includeContent, limit + 1);
+        if (rows.size() <= limit) {
+            return ArticlePage.builder().articles(rows).build();
+        }
+        List<ArticleSummaryDto> page = rows.subList(0, limit);
+        return ArticlePage.builder()
+                .articles(List.copyOf(page))
+                .nextCursor(ArticleCursor.of(page.get(limit - 1)).encode())
+                .build();
+    }
+}
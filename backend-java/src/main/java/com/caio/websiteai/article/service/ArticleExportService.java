@@ -0,0 +1,281 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.repository.ArticleBrowseRepository;
+import com.caio.websiteai.article.repository.ArticleExportRepository;
+import com.caio.websiteai.article.repository.ArticleExportRepository.Column;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams stored articles as NDJSON or CSV, optionally gzipped, straight from the database cursor to the response:
+ * each row is written and dropped before the next is read, so heap use is the same for ten rows or ten million.
+ * The connection is borrowed when the response body starts writing and returned when it finishes. At most the
+ * configured number of exports run at once, so they cannot take over the read pool.
+ */
+@Service
+public class ArticleExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleExportService.class);
+
+    public static final String TOO_MANY_EXPORTS = "Too many exports in progress, try again later";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ArticleExportRepository articleExportRepository;
+    private final JsonFactory jsonFactory;
+    private final Semaphore exportSlots;
+    private final Map<Format, Counter> exportedRows = new EnumMap<>(Format.class);
+
+    public ArticleExportService(ArticleExportRepository articleExportRepository,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${articles.export.max-concurrent}") int maxConcurrent) {
+        this.articleExportRepository = articleExportRepository;
+        this.jsonFactory = objectMapper.getFactory();
+        this.exportSlots = new Semaphore(maxConcurrent);
+        for (Format format : Format.values()) {
+            exportedRows.put(format, Counter.builder("articles.export.rows")
+                    .tag("format", format.extension())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * The export as a response body, or empty when the maximum number of exports is already running. The slot is
+     * only taken once the body starts writing, so a body that never runs (the client went away, the async request
+     * timed out first) holds nothing; one that loses the race for the last slot fails with 429 instead.
+     */
+    public Optional<StreamingResponseBody> export(ArticleBrowseRepository.Filter filter, Format format, boolean gzip,
+                                                  boolean includeContent) {
+        if (exportSlots.availablePermits() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(out -> {
+            if (!exportSlots.tryAcquire()) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_EXPORTS);
+            }
+            try {
+                write(filter, format, gzip, includeContent, out);
+            } finally {
+                exportSlots.release();
+            }
+        });
+    }
+
+    void write(ArticleBrowseRepository.Filter filter, Format format, boolean gzip, boolean includeContent,
+               OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        OutputStream target = gzip
+                ? new GZIPOutputStream(out, BUFFER_SIZE)
+                : new BufferedOutputStream(out, BUFFER_SIZE);
+        List<Column> columns = ArticleExportRepository.columns(includeContent);
+        RowWriter writer = format == Format.CSV
+                ? new CsvRowWriter(new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8)), columns)
+                : new NdjsonRowWriter(jsonFactory.createGenerator(target), columns);
+        Counter rows = exportedRows.get(format);
+        long[] count = new long[1];
+        try {
+            writer.start();
+            articleExportRepository.stream(filter, includeContent, rs -> {
+                try {
+                    writer.write(rs);
+                } catch (IOException ex) {
+                    // Usually the client went away; stop reading so the connection goes back to the pool.
+                    throw new UncheckedIOException(ex);
+                }
+                count[0]++;
+                rows.increment();
+            });
+            writer.finish();
+        } catch (UncheckedIOException ex) {
+            log.info("Article export aborted after {} rows: {}", count[0], ex.getCause().getMessage());
+            throw ex.getCause();
+        }
+        if (target instanceof GZIPOutputStream gzipped) {
+            gzipped.finish();
+        }
+        target.flush();
+        log.info("Exported {} articles as {} in {} ms", count[0], format, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * The column's value in the current row as a String, Integer, BigDecimal, Boolean, OffsetDateTime or String[];
+     * {@code null} for SQL NULL.
+     */
+    private static Object value(ResultSet rs, Column column) throws SQLException {
+        return switch (column.type()) {
+            case TEXT -> rs.getString(column.name());
+            case INTEGER -> {
+                int value = rs.getInt(column.name());
+                yield rs.wasNull() ? null : value;
+            }
+            case DECIMAL -> rs.getBigDecimal(column.name());
+            case BOOLEAN -> {
+                boolean value = rs.getBoolean(column.name());
+                yield rs.wasNull() ? null : value;
+            }
+            case TIMESTAMP -> rs.getObject(column.name(), OffsetDateTime.class);
+            case TEXT_ARRAY -> {
+                Array array = rs.getArray(column.name());
+                yield array != null ? (String[]) array.getArray() : null;
+            }
+        };
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private interface RowWriter {
+
+        void start() throws IOException;
+
+        void write(ResultSet rs) throws IOException, SQLException;
+
+        void finish() throws IOException;
+    }
+
+    /** One JSON object per line, keyed by column name. */
+    private record NdjsonRowWriter(JsonGenerator generator, List<Column> columns) implements RowWriter {
+
+        @Override
+        public void start() {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (Column column : columns) {
+                generator.writeFieldName(column.name());
+                Object value = value(rs, column);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof BigDecimal number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Boolean flag) {
+                    generator.writeBoolean(flag);
+                } else if (value instanceof String[] array) {
+                    generator.writeArray(array, 0, array.length);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // Leaves the target open (AUTO_CLOSE_TARGET is off) and hands the generator's buffers back for reuse.
+            generator.close();
+        }
+    }
+
+    /** RFC 4180 CSV with a header row; array values are joined with {@code ;}. */
+    private record CsvRowWriter(Writer writer, List<Column> columns) implements RowWriter {
+
+        @Override
+        public void start() throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns.get(i).name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = value(rs, columns.get(i));
+                if (value instanceof String[] array) {
+                    writeCell(String.join(";", array));
+                } else if (value != null) {
+                    writeCell(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(String cell) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < cell.length() && !quote; i++) {
+                char c = cell.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(cell);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < cell.length(); i++) {
+                char c = cell.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
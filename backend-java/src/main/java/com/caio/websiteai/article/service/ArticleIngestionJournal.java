@@ -0,0 +1,180 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.dto.StoredArticleDto;
+import com.caio.websiteai.common.MappedJournal;
+import com.caio.websiteai.common.MappedJournal.FsyncPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Durable record of every enriched batch handed to the write-behind queue. A batch is appended (and synced per
+ * {@code fsync-policy}) before it is acknowledged; each of its articles is then released once it is stored,
+ * superseded or deliberately dropped. The committed offset only moves past a batch when all of its articles
+ * have been released, so after a crash or a long database outage {@link #replay} hands back exactly the
+ * batches that never made it to Postgres, without another NewsAPI call.
+ */
+@Component
+public class ArticleIngestionJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleIngestionJournal.class);
+
+    public static final long NOT_JOURNALED = -1;
+
+    private final ObjectMapper objectMapper;
+    private final MappedJournal journal;
+    private final FsyncPolicy fsyncPolicy;
+    private final TreeMap<Long, Outstanding> outstanding = new TreeMap<>();
+    private final Counter appendFailures;
+
+    public ArticleIngestionJournal(ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${articles.journal.enabled}") boolean enabled,
+                                   @Value("${articles.journal.directory}") Path directory,
+                                   @Value("${articles.journal.segment-size}") DataSize segmentSize,
+                                   @Value("${articles.journal.fsync-policy}") FsyncPolicy fsyncPolicy) throws IOException {
+        this.objectMapper = objectMapper;
+        this.fsyncPolicy = fsyncPolicy;
+        this.journal = enabled ? MappedJournal.open(directory, Math.toIntExact(segmentSize.toBytes()), fsyncPolicy) : null;
+        this.appendFailures = Counter.builder("articles.journal.append.failures").register(meterRegistry);
+        if (journal != null) {
+            Gauge.builder("articles.journal.backlog.bytes", journal, j -> j.end() - j.committed())
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("articles.journal.outstanding.batches", outstanding, batches -> {
+                        synchronized (batches) {
+                            return batches.size();
+                        }
+                    })
+                    .register(meterRegistry);
+            log.info("Article journal at {} (committed {}, end {})", directory, journal.committed(), journal.end());
+        }
+    }
+
+    public boolean isEnabled() {
+        return journal != null;
+    }
+
+    /**
+     * Journals a batch and returns its record id, or {@link #NOT_JOURNALED} when journaling is off or the
+     * append failed (the batch is then only held in memory).
+     */
+    public long append(String country, List<StoredArticleDto> articles) {
+        if (journal == null || articles.isEmpty()) {
+            return NOT_JOURNALED;
+        }
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(new JournalBatch(country, articles));
+            synchronized (outstanding) {
+                long position = journal.append(payload);
+                outstanding.put(position, new Outstanding(articles.size(), journal.end()));
+                return position;
+            }
+        } catch (IOException | RuntimeException ex) {
+            appendFailures.increment();
+            log.warn("Failed to journal {} articles for {}: {}", articles.size(), country, ex.getMessage());
+            return NOT_JOURNALED;
+        }
+    }
+
+    /**
+     * Releases one article per entry in {@code records} and commits past every batch that is fully released.
+     */
+    public void release(Collection<Long> records) {
+        if (journal == null) {
+            return;
+        }
+        long commitTo = NOT_JOURNALED;
+        synchronized (outstanding) {
+            for (long record : records) {
+                Outstanding batch = outstanding.get(record);
+                if (batch != null) {
+                    batch.remaining--;
+                }
+            }
+            while (!outstanding.isEmpty() && outstanding.firstEntry().getValue().remaining <= 0) {
+                commitTo = outstanding.pollFirstEntry().getValue().end;
+            }
+            if (commitTo != NOT_JOURNALED) {
+                try {
+                    journal.commit(commitTo);
+                } catch (IOException ex) {
+                    log.warn("Failed to commit article journal at {}: {}", commitTo, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands every batch after the committed offset to {@code handler}, oldest first. Replayed batches are
+     * tracked like fresh appends and must be released the same way. All of them are registered before the
+     * first is handed over, so releases of newer batches can never commit past one still being replayed.
+     */
+    public void replay(ReplayHandler handler) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            long from = journal.committed();
+            long limit;
+            synchronized (outstanding) {
+                limit = journal.end();
+                journal.replay(from, limit, (position, next, payload) -> outstanding.put(position,
+                        new Outstanding(objectMapper.readValue(payload, JournalBatch.class).articles().size(), next)));
+            }
+            journal.replay(from, limit, (position, next, payload) -> {
+                JournalBatch batch = objectMapper.readValue(payload, JournalBatch.class);
+                handler.accept(position, batch.country(), batch.articles());
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to replay article journal", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${articles.journal.fsync-interval}")
+    public void forceToDisk() {
+        if (journal != null && fsyncPolicy == FsyncPolicy.INTERVAL) {
+            journal.force();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ReplayHandler {
+        void accept(long record, String country, List<StoredArticleDto> articles);
+    }
+
+    private record JournalBatch(String country, List<StoredArticleDto> articles) {
+    }
+
+    private static final class Outstanding {
+        private int remaining;
+        private final long end;
+
+        private Outstanding(int remaining, long end) {
+            this.remaining = remaining;
+            this.end = end;
+        }
+    }
+}
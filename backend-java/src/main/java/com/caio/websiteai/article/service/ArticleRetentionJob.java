@@ -0,0 +1,113 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.repository.ArticleArchiveRepository;
+import com.caio.websiteai.article.repository.ArticleArchiveRepository.ArchiveCandidate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps {@code articles} down to the hot retention period so that recency queries such as trending topics scan a
+ * bounded table however much history accumulates. Older articles are moved, in batches, into the month-partitioned
+ * {@code articles_archive} with {@code archived_at} set; archive partitions are created on demand and detached
+ * and dropped once the whole month is past the archive retention period.
+ * <p>
+ * A run after a long pause can move many batches; {@code spring.task.scheduling.pool.size} gives it its own
+ * scheduler thread so the short periodic tasks keep their schedule meanwhile.
+ */
+@Component
+public class ArticleRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleRetentionJob.class);
+
+    private final ArticleArchiveRepository articleArchiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration hotPeriod;
+    private final Duration archivePeriod;
+    private final int batchSize;
+    private final Counter archived;
+    private final Counter partitionsDropped;
+
+    public ArticleRetentionJob(ArticleArchiveRepository articleArchiveRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry,
+                               @Value("${articles.retention.hot-period}") Duration hotPeriod,
+                               @Value("${articles.retention.archive-period}") Duration archivePeriod,
+                               @Value("${articles.retention.batch-size}") int batchSize) {
+        this.articleArchiveRepository = articleArchiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.hotPeriod = hotPeriod;
+        this.archivePeriod = archivePeriod;
+        this.batchSize = batchSize;
+        this.archived = Counter.builder("articles.retention.archived").register(meterRegistry);
+        this.partitionsDropped = Counter.builder("articles.retention.partitions_dropped").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${articles.retention.cron}", zone = "UTC")
+    public void run() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        try {
+            int moved = archiveBefore(now.minus(hotPeriod), now);
+            int dropped = dropPartitionsBefore(now.minus(archivePeriod));
+            log.info("Article retention: archived {} articles, dropped {} archive partitions", moved, dropped);
+        } catch (RuntimeException ex) {
+            log.error("Article retention run failed; it will be retried on the next schedule", ex);
+        }
+    }
+
+    int archiveBefore(OffsetDateTime cutoff, OffsetDateTime archivedAt) {
+        int total = 0;
+        while (true) {
+            List<ArchiveCandidate> candidates = articleArchiveRepository.findArchivable(cutoff, batchSize);
+            if (candidates.isEmpty()) {
+                return total;
+            }
+            candidates.stream()
+                    .map(ArchiveCandidate::month)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .forEach(articleArchiveRepository::createPartition);
+            List<String> ids = candidates.stream().map(ArchiveCandidate::id).toList();
+            int moved = articleArchiveRepository.moveToArchive(ids, archivedAt);
+            eventPublisher.publishEvent(new ArticlesArchivedEvent(ids));
+            archived.increment(moved);
+            total += moved;
+            if (candidates.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    int dropPartitionsBefore(OffsetDateTime cutoff) {
+        int dropped = 0;
+        for (YearMonth month : articleArchiveRepository.listPartitions()) {
+            if (!isPastRetention(month, cutoff)) {
+                break;
+            }
+            articleArchiveRepository.dropPartition(month);
+            partitionsDropped.increment();
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * Whether the archive partition of {@code month} is dropped by a run with the given archive cutoff. The
+     * backfill importer skips rows of such months, since they would be gone after the next run.
+     */
+    static boolean isPastRetention(YearMonth month, OffsetDateTime cutoff) {
+        return !month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC).isAfter(cutoff);
+    }
+}
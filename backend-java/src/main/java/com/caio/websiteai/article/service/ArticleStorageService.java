@@ -1,26 +1,34 @@
 package com.caio.websiteai.article.service;
 
+import com.caio.websiteai.ai.service.ArticleTextFeatures;
 import com.caio.websiteai.article.dto.ArticleStorageSummary;
 import com.caio.websiteai.article.dto.StoredArticleDto;
 import com.caio.websiteai.article.entity.ApiUsageLogEntity;
 import com.caio.websiteai.article.entity.ArticleEntity;
-import com.caio.websiteai.article.entity.NewsSourceEntity;
-import com.caio.websiteai.article.repository.ApiUsageLogRepository;
+import com.caio.websiteai.article.repository.ArticleBatchRepository;
 import com.caio.websiteai.article.repository.ArticleRepository;
 import com.caio.websiteai.article.repository.NewsSourceRepository;
+import com.caio.websiteai.common.CanonicalUrl;
+import com.caio.websiteai.common.ContentHash;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
-import org.springframework.dao.DataIntegrityViolationException;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 
 @Service
@@ -30,8 +38,11 @@ public class ArticleStorageService {
     private static final Logger log = LoggerFactory.getLogger(ArticleStorageService.class);
 
     private final ArticleRepository articleRepository;
+    private final ArticleBatchRepository articleBatchRepository;
     private final NewsSourceRepository newsSourceRepository;
-    private final ApiUsageLogRepository apiUsageLogRepository;
+    private final ApiUsageRecorder apiUsageRecorder;
+    private final KnownUrlIndex knownUrlIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ArticleStorageSummary storeArticles(String country, List<StoredArticleDto> payload) {
@@ -43,51 +54,138 @@ public class ArticleStorageService {
                     .inserted(0)
                     .updated(0)
                     .duplicates(0)
+                    .unchanged(0)
                     .build();
         }
 
+        List<StoredArticleDto> candidates = payload.stream()
+                .filter(dto -> StringUtils.hasText(dto.getUrl()))
+                .toList();
+        Map<String, Long> urlHashes = new HashMap<>();
+        for (StoredArticleDto dto : candidates) {
+            urlHashes.computeIfAbsent(dto.getUrl(), CanonicalUrl::hash);
+        }
+
+        // Only URLs the known-URL index may have seen need a database lookup; the rest are new. Rows written by
+        // another process, such as a backfill, are not in the index; the upsert skips a new row whose id one of them
+        // already owns, and it is counted as a duplicate below.
+        boolean indexWarm = knownUrlIndex.isWarm();
+        Set<String> lookupUrls = new HashSet<>();
+        Set<Long> lookupHashes = new HashSet<>();
+        Set<String> lookupIds = new HashSet<>();
+        for (StoredArticleDto dto : candidates) {
+            long urlHash = urlHashes.get(dto.getUrl());
+            if (knownUrlIndex.mayBeKnown(urlHash)) {
+                lookupUrls.add(dto.getUrl());
+                lookupHashes.add(urlHash);
+                if (StringUtils.hasText(dto.getId())) {
+                    lookupIds.add(dto.getId());
+                }
+            }
+        }
+        Map<String, String> idByUrl = new HashMap<>();
+        Map<String, String> urlById = new HashMap<>();
+        Map<String, Long> storedFingerprints = new HashMap<>();
+        if (!lookupUrls.isEmpty()) {
+            List<ArticleBatchRepository.ArticleKey> existing = indexWarm
+                    ? articleBatchRepository.findExistingByUrlHash(lookupHashes, lookupIds)
+                    : articleBatchRepository.findExisting(lookupUrls, lookupIds);
+            for (ArticleBatchRepository.ArticleKey key : existing) {
+                idByUrl.put(key.url(), key.id());
+                urlById.put(key.id(), key.url());
+                storedFingerprints.put(key.url(), key.contentFingerprint());
+            }
+        }
+
         int inserted = 0;
         int updated = 0;
         int duplicates = 0;
+        int unchanged = 0;
+        Map<String, ArticleEntity> rows = new LinkedHashMap<>();
+        Map<String, StoredArticleDto> dtoByUrl = new HashMap<>();
 
-        for (StoredArticleDto dto : payload) {
-            if (!StringUtils.hasText(dto.getUrl())) {
+        for (StoredArticleDto dto : candidates) {
+            if (!StringUtils.hasText(dto.getTitle())) {
+                log.warn("Failed to persist article {}: missing title", dto.getUrl());
                 continue;
             }
 
-            ArticleEntity entity = articleRepository.findByUrl(dto.getUrl()).orElse(null);
-            boolean isNew = entity == null;
+            String id = idByUrl.get(dto.getUrl());
+            boolean isNew = id == null;
+            if (isNew) {
+                id = generateIdentifier(dto);
+                String owner = urlById.putIfAbsent(id, dto.getUrl());
+                if (owner != null) {
+                    log.debug("Duplicate article detected for URL {}", dto.getUrl());
+                    duplicates++;
+                    continue;
+                }
+                idByUrl.put(dto.getUrl(), id);
+            }
 
+            ArticleEntity entity = toEntity(id, country, dto, urlHashes.get(dto.getUrl()));
+            if (!isNew && !rows.containsKey(entity.getUrl())
+                    && entity.getContentFingerprint().equals(storedFingerprints.get(entity.getUrl()))) {
+                unchanged++;
+                continue;
+            }
+            rows.put(entity.getUrl(), entity);
+            dtoByUrl.put(entity.getUrl(), dto);
             if (isNew) {
-                entity = ArticleEntity.builder()
-                        .id(generateIdentifier(dto))
-                        .url(dto.getUrl())
-                        .title(dto.getTitle())
-                        .build();
+                inserted++;
             } else {
-                entity.setTitle(dto.getTitle());
+                updated++;
             }
+        }
 
-            applyArticleData(country, dto, entity);
-
-            try {
-                articleRepository.save(entity);
-                if (isNew) {
-                    inserted++;
+        if (!rows.isEmpty()) {
+            List<ArticleEntity> upserts = new ArrayList<>();
+            Map<String, ArticleEntity> changed = new HashMap<>();
+            for (ArticleEntity row : rows.values()) {
+                if (storedFingerprints.containsKey(row.getUrl())) {
+                    changed.put(row.getId(), row);
                 } else {
-                    updated++;
+                    upserts.add(row);
                 }
+            }
+            upserts.addAll(applyChanges(changed));
+            if (!upserts.isEmpty()) {
+                // A skipped row's id or URL is already stored by someone else; the index learns the URL so its next
+                // sighting goes through the lookup instead.
+                Set<String> written = articleBatchRepository.upsertArticles(upserts, OffsetDateTime.now());
+                List<Long> skippedUrlHashes = new ArrayList<>();
+                for (ArticleEntity row : upserts) {
+                    if (written.contains(row.getId())) {
+                        continue;
+                    }
+                    log.debug("Duplicate article detected for URL {}", row.getUrl());
+                    rows.remove(row.getUrl());
+                    skippedUrlHashes.add(row.getUrlHash());
+                    if (storedFingerprints.containsKey(row.getUrl())) {
+                        updated--;
+                    } else {
+                        inserted--;
+                    }
+                    duplicates++;
+                }
+                knownUrlIndex.addAll(skippedUrlHashes);
+            }
+        }
 
-                updateNewsSourceStats(dto, entity);
-            } catch (DataIntegrityViolationException ex) {
-                log.debug("Duplicate article detected for URL {}", dto.getUrl());
-                duplicates++;
-            } catch (Exception ex) {
-                log.warn("Failed to persist article {}: {}", dto.getTitle(), ex.getMessage());
+        if (!rows.isEmpty()) {
+            Map<String, SourceDelta> sourceDeltas = new TreeMap<>();
+            for (ArticleEntity row : rows.values()) {
+                if (StringUtils.hasText(row.getSource())) {
+                    StoredArticleDto dto = dtoByUrl.get(row.getUrl());
+                    sourceDeltas.computeIfAbsent(row.getSource().trim(), name -> new SourceDelta(dto)).add(dto);
+                }
             }
+            knownUrlIndex.addAll(rows.values().stream().map(ArticleEntity::getUrlHash).toList());
+            applyNewsSourceStats(sourceDeltas);
+            eventPublisher.publishEvent(new ArticlesStoredEvent(List.copyOf(rows.values())));
         }
 
-        apiUsageLogRepository.save(ApiUsageLogEntity.forBatchStorage("/store/" + country, payload.size()));
+        apiUsageRecorder.record(ApiUsageLogEntity.forBatchStorage("/store/" + country, payload.size()));
 
         return ArticleStorageSummary.builder()
                 .country(country)
@@ -95,10 +193,102 @@ public class ArticleStorageService {
                 .inserted(inserted)
                 .updated(updated)
                 .duplicates(duplicates)
+                .unchanged(unchanged)
                 .build();
     }
 
-    private void applyArticleData(String country, StoredArticleDto dto, ArticleEntity entity) {
+    /**
+     * Copies changed rows onto their managed entities; with {@code @DynamicUpdate} Hibernate then writes only the
+     * columns that differ. Returns the rows that vanished since the lookup, for the upsert path.
+     */
+    private List<ArticleEntity> applyChanges(Map<String, ArticleEntity> changed) {
+        if (changed.isEmpty()) {
+            return List.of();
+        }
+        List<ArticleEntity> missing = new ArrayList<>(changed.values());
+        for (ArticleEntity managed : articleRepository.findAllById(changed.keySet())) {
+            ArticleEntity row = changed.get(managed.getId());
+            missing.remove(row);
+            copyArticleData(row, managed);
+        }
+        return missing;
+    }
+
+    private void copyArticleData(ArticleEntity from, ArticleEntity to) {
+        to.setUrlHash(from.getUrlHash());
+        to.setContentFingerprint(from.getContentFingerprint());
+        to.setTitle(from.getTitle());
+        to.setSource(from.getSource());
+        to.setAuthor(from.getAuthor());
+        to.setPublishedAt(from.getPublishedAt());
+        to.setDescription(from.getDescription());
+        to.setContent(from.getContent());
+        to.setCountry(from.getCountry());
+        to.setCategory(from.getCategory());
+        to.setRelevanceScore(from.getRelevanceScore());
+        to.setAnalysisScore(from.getAnalysisScore());
+        to.setEinsteinScore(from.getEinsteinScore());
+        to.setTopicCategory(from.getTopicCategory());
+        to.setProvenance(from.getProvenance());
+        to.setSearchQuery(from.getSearchQuery());
+        to.setLanguage(from.getLanguage());
+        to.setSentimentScore(from.getSentimentScore());
+        to.setReadabilityScore(from.getReadabilityScore());
+        to.setWordCount(from.getWordCount());
+        to.setImageUrl(from.getImageUrl());
+        to.setPremium(from.isPremium());
+        to.setBreaking(from.isBreaking());
+        to.setTags(new ArrayList<>(from.getTags()));
+        if (to.getViewCount() == null) {
+            to.setViewCount(0);
+        }
+        if (to.getShareCount() == null) {
+            to.setShareCount(0);
+        }
+    }
+
+    /**
+     * The row to write for {@code dto}, fingerprinted; shared with {@link ArticleBackfillService}.
+     */
+    static ArticleEntity toEntity(String id, String country, StoredArticleDto dto, long urlHash) {
+        ArticleEntity entity = ArticleEntity.builder()
+                .id(id)
+                .url(dto.getUrl())
+                .urlHash(urlHash)
+                .title(dto.getTitle())
+                .build();
+        applyArticleData(country, dto, entity);
+        entity.setContentFingerprint(fingerprint(entity));
+        return entity;
+    }
+
+    private static long fingerprint(ArticleEntity entity) {
+        return ContentHash.of(
+                entity.getTitle(),
+                entity.getSource(),
+                entity.getAuthor(),
+                entity.getPublishedAt() != null ? entity.getPublishedAt().toInstant().toString() : null,
+                entity.getDescription(),
+                entity.getContent(),
+                entity.getCountry(),
+                entity.getCategory(),
+                Objects.toString(entity.getRelevanceScore(), null),
+                Objects.toString(entity.getAnalysisScore(), null),
+                entity.getEinsteinScore() != null ? entity.getEinsteinScore().toPlainString() : null,
+                entity.getTopicCategory(),
+                entity.getProvenance(),
+                entity.getSearchQuery(),
+                entity.getLanguage(),
+                entity.getSentimentScore() != null ? entity.getSentimentScore().toPlainString() : null,
+                Objects.toString(entity.getReadabilityScore(), null),
+                Objects.toString(entity.getWordCount(), null),
+                entity.getImageUrl(),
+                Boolean.toString(entity.isPremium()),
+                Boolean.toString(entity.isBreaking()),
+                String.join("\u001F", entity.getTags()));
+    }
+
+    private static void applyArticleData(String country, StoredArticleDto dto, ArticleEntity entity) {
         entity.setSource(dto.getSource());
         entity.setAuthor(dto.getAuthor());
         entity.setPublishedAt(dto.getPublishedAt());
@@ -120,62 +310,50 @@ public class ArticleStorageService {
         entity.setPremium(dto.isPremium());
         entity.setBreaking(dto.isBreaking());
         entity.setTags(new ArrayList<>(dto.getTags() != null ? dto.getTags() : List.of()));
-        if (entity.getViewCount() == null) {
-            entity.setViewCount(0);
-        }
-        if (entity.getShareCount() == null) {
-            entity.setShareCount(0);
-        }
     }
 
-    private Integer normalizeScore(Integer score) {
+    private static Integer normalizeScore(Integer score) {
         if (score == null) {
             return null;
         }
         return Math.max(0, Math.min(100, score));
     }
 
-    private int estimateWordCount(StoredArticleDto dto) {
+    // Untrimmed, as stored rows were counted: word_count feeds content_fingerprint, so a different count would
+    // rewrite every row whose text has leading or only whitespace on its next sighting.
+    private static int estimateWordCount(StoredArticleDto dto) {
         if (dto.getContent() != null) {
-            return dto.getContent().split("\\s+").length;
+            return ArticleTextFeatures.countSplitWords(dto.getContent());
         }
         if (dto.getDescription() != null) {
-            return dto.getDescription().split("\\s+").length;
+            return ArticleTextFeatures.countSplitWords(dto.getDescription());
         }
         return 0;
     }
 
-    private void updateNewsSourceStats(StoredArticleDto dto, ArticleEntity entity) {
-        if (!StringUtils.hasText(entity.getSource())) {
-            return;
-        }
-
-        String sourceName = entity.getSource().trim();
-        NewsSourceEntity source = newsSourceRepository.findByName(sourceName)
-                .orElseGet(() -> NewsSourceEntity.builder()
-                        .name(sourceName)
-                        .domain(extractDomain(entity.getUrl()))
-                        .apiSource(StringUtils.hasText(dto.getProvenance()) ? dto.getProvenance() : "newsapi")
-                        .premium(dto.isPremium())
-                        .build());
-
-        int existingCount = source.getArticleCount() == null ? 0 : source.getArticleCount();
-        int updatedCount = existingCount + 1;
-        source.setArticleCount(updatedCount);
-        if (dto.getRelevanceScore() != null && dto.getAnalysisScore() != null) {
-            int totalScore = dto.getRelevanceScore() + dto.getAnalysisScore();
-            BigDecimal previous = source.getAverageQualityScore();
-            double accumulated = previous != null ? previous.doubleValue() * existingCount : 0.0;
-            double newAverage = (accumulated + totalScore) / updatedCount;
-            source.setAverageQualityScore(BigDecimal.valueOf(newAverage).setScale(2, RoundingMode.HALF_UP));
-        }
-        if (entity.getPublishedAt() != null) {
-            if (source.getLastArticleDate() == null || entity.getPublishedAt().isAfter(source.getLastArticleDate())) {
-                source.setLastArticleDate(entity.getPublishedAt());
+    private void applyNewsSourceStats(Map<String, SourceDelta> deltas) {
+        // TreeMap order: concurrent batches lock news_sources rows in the same order.
+        deltas.forEach((name, delta) -> {
+            Long id = resolveSourceId(name, delta);
+            if (applyStats(id, delta) == 0) {
+                newsSourceRepository.evictIdByName(name);
+                applyStats(resolveSourceId(name, delta), delta);
             }
-        }
+        });
+    }
+
+    private int applyStats(Long id, SourceDelta delta) {
+        return newsSourceRepository.applyStats(id, delta.articles, delta.scored, delta.scoreSum, delta.latest);
+    }
 
-        newsSourceRepository.save(source);
+    private Long resolveSourceId(String name, SourceDelta delta) {
+        return newsSourceRepository.findIdByName(name).orElseGet(() -> {
+            StoredArticleDto first = delta.first;
+            newsSourceRepository.insertIfAbsent(name, extractDomain(first.getUrl()),
+                    StringUtils.hasText(first.getProvenance()) ? first.getProvenance() : "newsapi", first.isPremium());
+            return newsSourceRepository.findIdByName(name)
+                    .orElseThrow(() -> new IllegalStateException("News source " + name + " could not be created"));
+        });
     }
 
     private String generateIdentifier(StoredArticleDto dto) {
@@ -196,4 +374,27 @@ public class ArticleStorageService {
             return null;
         }
     }
+
+    private static final class SourceDelta {
+        private final StoredArticleDto first;
+        private int articles;
+        private int scored;
+        private long scoreSum;
+        private OffsetDateTime latest;
+
+        private SourceDelta(StoredArticleDto first) {
+            this.first = first;
+        }
+
+        private void add(StoredArticleDto dto) {
+            articles++;
+            if (dto.getRelevanceScore() != null && dto.getAnalysisScore() != null) {
+                scored++;
+                scoreSum += dto.getRelevanceScore() + dto.getAnalysisScore();
+            }
+            if (dto.getPublishedAt() != null && (latest == null || dto.getPublishedAt().isAfter(latest))) {
+                latest = dto.getPublishedAt();
+            }
+        }
+    }
 }
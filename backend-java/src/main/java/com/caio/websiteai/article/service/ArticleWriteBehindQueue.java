@@ -0,0 +1,368 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.dto.StoredArticleDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded write-behind buffer in front of {@link ArticleStorageService}. Request threads hand over enriched
+ * batches and return immediately; a dedicated thread flushes them once {@code flush-size} articles are pending
+ * or {@code flush-interval} has passed. Pending articles are coalesced by URL, so a newer copy replaces an
+ * unflushed older one. When the buffer is full the configured {@link OverflowPolicy} decides what gives way.
+ * A failed flush is put back (without overwriting newer copies) and retried after {@code flush-interval}; after
+ * {@code max-attempts} failed flushes its articles are stored one by one, and any that still fail are dropped.
+ * Every accepted batch is first written to the {@link ArticleIngestionJournal}; articles are released from it
+ * once stored, superseded or dropped, and anything left there at startup is replayed into the queue.
+ */
+@Component
+public class ArticleWriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleWriteBehindQueue.class);
+
+    public enum OverflowPolicy {
+        /** Wait up to {@code offer-timeout} for space, then drop the incoming article. */
+        BLOCK,
+        /** Evict the oldest pending article to make room. */
+        DROP_OLDEST,
+        /** Drop the incoming article. */
+        DROP_NEWEST
+    }
+
+    private final ArticleStorageService articleStorageService;
+    private final ArticleIngestionJournal journal;
+    private final int capacity;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+    private final int maxAttempts;
+    private final ExecutorService flushExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushNeeded = lock.newCondition();
+    private final LinkedHashMap<String, PendingArticle> pending = new LinkedHashMap<>();
+    private boolean running = true;
+    private long retryAtNanos;
+
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+    private final Counter coalesced;
+    private final Counter droppedOverflow;
+    private final Counter droppedShutdown;
+    private final Counter droppedFailed;
+
+    public ArticleWriteBehindQueue(ArticleStorageService articleStorageService,
+                                   ArticleIngestionJournal journal,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${articles.write-behind.capacity}") int capacity,
+                                   @Value("${articles.write-behind.flush-size}") int flushSize,
+                                   @Value("${articles.write-behind.flush-interval}") Duration flushInterval,
+                                   @Value("${articles.write-behind.overflow-policy}") OverflowPolicy overflowPolicy,
+                                   @Value("${articles.write-behind.offer-timeout}") Duration offerTimeout,
+                                   @Value("${articles.write-behind.max-attempts}") int maxAttempts) {
+        this.articleStorageService = articleStorageService;
+        this.journal = journal;
+        this.capacity = capacity;
+        this.flushSize = Math.min(flushSize, capacity);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        Gauge.builder("articles.writebehind.depth", this, ArticleWriteBehindQueue::depth)
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("articles.writebehind.flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("articles.writebehind.failures").register(meterRegistry);
+        this.coalesced = Counter.builder("articles.writebehind.coalesced").register(meterRegistry);
+        this.droppedOverflow = Counter.builder("articles.writebehind.dropped")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.droppedShutdown = Counter.builder("articles.writebehind.dropped")
+                .tag("reason", "shutdown")
+                .register(meterRegistry);
+        this.droppedFailed = Counter.builder("articles.writebehind.dropped")
+                .tag("reason", "failed")
+                .register(meterRegistry);
+
+        this.flushExecutor = Executors.newFixedThreadPool(2, new CustomizableThreadFactory("article-write-behind-"));
+        flushExecutor.execute(this::flushLoop);
+        flushExecutor.execute(this::replayJournal);
+    }
+
+    /**
+     * Queues {@code articles} for storage and returns how many were accepted; the rest were dropped by the
+     * overflow policy. Only {@link OverflowPolicy#BLOCK} ever waits, and at most {@code offer-timeout}.
+     */
+    public int submit(String country, List<StoredArticleDto> articles) {
+        if (CollectionUtils.isEmpty(articles)) {
+            return 0;
+        }
+        long record = journal.append(country, articles);
+        int accepted = 0;
+        List<Long> released = new ArrayList<>();
+        lock.lock();
+        try {
+            long blockNanos = offerTimeoutNanos;
+            for (StoredArticleDto article : articles) {
+                if (!running) {
+                    droppedShutdown.increment();
+                    released.add(record);
+                    continue;
+                }
+                PendingArticle entry = new PendingArticle(country, article, record, 0);
+                PendingArticle previous = pending.replace(article.getUrl(), entry);
+                if (previous != null) {
+                    coalesced.increment();
+                    released.add(previous.record());
+                    accepted++;
+                    continue;
+                }
+                if (pending.size() >= capacity) {
+                    if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                        Iterator<PendingArticle> oldest = pending.values().iterator();
+                        released.add(oldest.next().record());
+                        oldest.remove();
+                        droppedOverflow.increment();
+                    } else if (overflowPolicy == OverflowPolicy.BLOCK) {
+                        flushNeeded.signal();
+                        blockNanos = awaitSpace(blockNanos);
+                    }
+                    if (pending.size() >= capacity || !running) {
+                        droppedOverflow.increment();
+                        released.add(record);
+                        continue;
+                    }
+                }
+                pending.put(article.getUrl(), entry);
+                accepted++;
+            }
+            if (pending.size() >= flushSize) {
+                flushNeeded.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        journal.release(released);
+        return accepted;
+    }
+
+    public int depth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            flushNeeded.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flushExecutor.shutdown();
+        if (!flushExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Write-behind queue did not drain within 30s; {} articles not stored", depth());
+            flushExecutor.shutdownNow();
+        }
+    }
+
+    private long awaitSpace(long nanos) {
+        try {
+            while (pending.size() >= capacity && nanos > 0 && running) {
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return nanos;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    // Replayed batches wait for space without a timeout: they are already durable and must not be dropped.
+    private void replayJournal() {
+        try {
+            journal.replay((record, country, articles) -> {
+                List<Long> released = new ArrayList<>();
+                lock.lock();
+                try {
+                    for (StoredArticleDto article : articles) {
+                        while (running && pending.size() >= capacity && !pending.containsKey(article.getUrl())) {
+                            flushNeeded.signal();
+                            notFull.awaitUninterruptibly();
+                        }
+                        if (!running) {
+                            return;
+                        }
+                        if (pending.putIfAbsent(article.getUrl(), new PendingArticle(country, article, record, 0)) != null) {
+                            released.add(record);
+                        }
+                    }
+                    if (pending.size() >= flushSize) {
+                        flushNeeded.signal();
+                    }
+                } finally {
+                    lock.unlock();
+                    journal.release(released);
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to replay article journal; unreplayed batches stay on disk", ex);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<PendingArticle> batch;
+            boolean draining;
+            lock.lock();
+            try {
+                awaitFlushTrigger();
+                draining = !running;
+                if (draining && pending.isEmpty()) {
+                    return;
+                }
+                batch = drain();
+                notFull.signalAll();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (!batch.isEmpty()) {
+                flush(batch, draining);
+            }
+        }
+    }
+
+    private void awaitFlushTrigger() throws InterruptedException {
+        long deadline = Math.max(System.nanoTime() + flushIntervalNanos, retryAtNanos);
+        while (running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            if (pending.size() >= flushSize && System.nanoTime() - retryAtNanos >= 0) {
+                return;
+            }
+            flushNeeded.awaitNanos(remaining);
+        }
+    }
+
+    private List<PendingArticle> drain() {
+        List<PendingArticle> batch = new ArrayList<>(Math.min(pending.size(), flushSize));
+        Iterator<PendingArticle> it = pending.values().iterator();
+        while (it.hasNext() && batch.size() < flushSize) {
+            batch.add(it.next());
+            it.remove();
+        }
+        return batch;
+    }
+
+    private void flush(List<PendingArticle> batch, boolean draining) {
+        Map<String, List<PendingArticle>> byCountry = new LinkedHashMap<>();
+        for (PendingArticle entry : batch) {
+            byCountry.computeIfAbsent(entry.country(), country -> new ArrayList<>()).add(entry);
+        }
+        byCountry.forEach((country, entries) -> {
+            List<StoredArticleDto> articles = entries.stream().map(PendingArticle::article).toList();
+            try {
+                flushTimer.record(() -> articleStorageService.storeArticles(country, articles));
+                journal.release(entries.stream().map(PendingArticle::record).toList());
+            } catch (Exception ex) {
+                flushFailures.increment();
+                log.warn("Failed to store {} articles for {}: {}", articles.size(), country, ex.getMessage());
+                if (draining) {
+                    // Left unreleased in the journal, so they are replayed on the next start.
+                    droppedShutdown.increment(articles.size());
+                    return;
+                }
+                List<PendingArticle> retry = new ArrayList<>();
+                List<PendingArticle> exhausted = new ArrayList<>();
+                for (PendingArticle entry : entries) {
+                    (entry.attempts() + 1 < maxAttempts ? retry : exhausted).add(entry.failedOnce());
+                }
+                requeue(retry);
+                storeOneByOne(country, exhausted);
+            }
+        });
+    }
+
+    // Isolates the rows that keep a batch failing (a constraint or length violation), so they cannot block the
+    // rest of their country or pin their journal records forever.
+    private void storeOneByOne(String country, List<PendingArticle> entries) {
+        List<Long> released = new ArrayList<>();
+        for (PendingArticle entry : entries) {
+            try {
+                flushTimer.record(() -> articleStorageService.storeArticles(country, List.of(entry.article())));
+            } catch (Exception ex) {
+                droppedFailed.increment();
+                log.warn("Dropping article {} for {} after {} failed attempts: {}", entry.article().getUrl(), country,
+                        entry.attempts(), ex.getMessage());
+            }
+            released.add(entry.record());
+        }
+        journal.release(released);
+    }
+
+    private void requeue(List<PendingArticle> entries) {
+        List<Long> released = new ArrayList<>();
+        lock.lock();
+        try {
+            retryAtNanos = System.nanoTime() + flushIntervalNanos;
+            for (PendingArticle entry : entries) {
+                String url = entry.article().getUrl();
+                if (pending.containsKey(url)) {
+                    released.add(entry.record());
+                    continue;
+                }
+                if (pending.size() >= capacity) {
+                    droppedOverflow.increment();
+                    released.add(entry.record());
+                    continue;
+                }
+                pending.put(url, entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        journal.release(released);
+    }
+
+    private record PendingArticle(String country, StoredArticleDto article, long record, int attempts) {
+
+        PendingArticle failedOnce() {
+            return new PendingArticle(country, article, record, attempts + 1);
+        }
+    }
+}
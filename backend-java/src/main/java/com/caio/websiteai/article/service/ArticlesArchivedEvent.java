@@ -0,0 +1,9 @@
+package com.caio.websiteai.article.service;
+
+import java.util.List;
+
+/**
+ * Published by {@link ArticleRetentionJob} with the ids of articles it moved out of {@code articles}.
+ */
+public record ArticlesArchivedEvent(List<String> articleIds) {
+}
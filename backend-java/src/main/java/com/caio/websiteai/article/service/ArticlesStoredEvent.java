@@ -0,0 +1,12 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.entity.ArticleEntity;
+
+import java.util.List;
+
+/**
+ * Published by {@link ArticleStorageService} with the rows a batch inserted or changed; unchanged articles are not
+ * included. The entities are detached copies and must not be modified.
+ */
+public record ArticlesStoredEvent(List<ArticleEntity> articles) {
+}
@@ -0,0 +1,119 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.repository.ArticleBatchRepository;
+import com.caio.websiteai.article.repository.ArticleBatchRepository.UrlHash;
+import com.caio.websiteai.common.CanonicalUrl;
+import com.caio.websiteai.common.LongHashSet;
+import com.caio.websiteai.config.BackgroundTasksConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory set of the canonical URL hashes of every stored article, warmed from the database once the
+ * application is ready (back-filling {@code url_hash} for rows written before the column existed). A miss is
+ * authoritative, so {@link ArticleStorageService} only asks the database about URLs the index may already know.
+ * Until warm-up completes every URL is treated as possibly known. URLs stored by other processes (another
+ * instance, a backfill) are missed until the next warm-up; the upsert skips a new row whose id such a row owns,
+ * so it surfaces as a duplicate instead of a primary-key violation.
+ */
+@Component
+public class KnownUrlIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(KnownUrlIndex.class);
+
+    private final ArticleBatchRepository articleBatchRepository;
+    private final LongHashSet hashes;
+    private volatile boolean warm;
+    private final Counter knownChecks;
+    private final Counter unknownChecks;
+
+    public KnownUrlIndex(ArticleBatchRepository articleBatchRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${articles.known-url-index.expected-size}") int expectedSize) {
+        this.articleBatchRepository = articleBatchRepository;
+        this.hashes = new LongHashSet(expectedSize);
+        Gauge.builder("articles.known_url_index.size", this, KnownUrlIndex::size).register(meterRegistry);
+        this.knownChecks = Counter.builder("articles.known_url_index.checks")
+                .tag("result", "maybe_known")
+                .register(meterRegistry);
+        this.unknownChecks = Counter.builder("articles.known_url_index.checks")
+                .tag("result", "unknown")
+                .register(meterRegistry);
+    }
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = BackgroundTasksConfig.ENABLED)
+    public void warmUpInBackground() {
+        new CustomizableThreadFactory("known-url-index-").newThread(this::warmUp).start();
+    }
+
+    void warmUp() {
+        long started = System.nanoTime();
+        List<UrlHash> backfill = new ArrayList<>();
+        try {
+            articleBatchRepository.scanUrlHashes((id, url, urlHash) -> {
+                long hash = urlHash != null ? urlHash : CanonicalUrl.hash(url);
+                if (urlHash == null) {
+                    backfill.add(new UrlHash(id, hash));
+                }
+                add(hash);
+            });
+            if (!backfill.isEmpty()) {
+                articleBatchRepository.backfillUrlHashes(backfill);
+            }
+            warm = true;
+            log.info("Known-URL index warmed with {} URLs ({} back-filled) in {} ms", size(), backfill.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            log.warn("Known-URL index warm-up failed; storage keeps checking every URL: {}", ex.getMessage());
+        }
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * {@code false} only when the URL hash is definitely not stored yet.
+     */
+    public boolean mayBeKnown(long urlHash) {
+        boolean known = !warm || contains(urlHash);
+        (known ? knownChecks : unknownChecks).increment();
+        return known;
+    }
+
+    public void addAll(Collection<Long> urlHashes) {
+        synchronized (hashes) {
+            urlHashes.forEach(hashes::add);
+        }
+    }
+
+    public int size() {
+        synchronized (hashes) {
+            return hashes.size();
+        }
+    }
+
+    private void add(long urlHash) {
+        synchronized (hashes) {
+            hashes.add(urlHash);
+        }
+    }
+
+    private boolean contains(long urlHash) {
+        synchronized (hashes) {
+            return hashes.contains(urlHash);
+        }
+    }
+}
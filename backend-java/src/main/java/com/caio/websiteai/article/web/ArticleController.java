@@ -0,0 +1,99 @@
+package com.caio.websiteai.article.web;
+
+import com.caio.websiteai.article.dto.ArticleCursor;
+import com.caio.websiteai.article.dto.ArticlePage;
+import com.caio.websiteai.article.repository.ArticleBrowseRepository;
+import com.caio.websiteai.article.service.ArticleBrowseService;
+import com.caio.websiteai.article.service.ArticleExportService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@RestController
+@RequestMapping("/api")
+@Validated
+@RequiredArgsConstructor
+public class ArticleController {
+
+    private final ArticleBrowseService articleBrowseService;
+    private final ArticleExportService articleExportService;
+
+    @GetMapping("/articles")
+    public ResponseEntity<ArticlePage> articles(
+            @RequestParam(value = "country", required = false)
+            @Pattern(regexp = "^[A-Za-z]{2}$", message = "Use 2-letter country code, e.g., US")
+            String country,
+            @RequestParam(value = "topic", required = false) String topic,
+            @RequestParam(value = "minEinsteinScore", required = false) BigDecimal minEinsteinScore,
+            @RequestParam(value = "premium", required = false) Boolean premium,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeContent", defaultValue = "false") boolean includeContent,
+            @RequestParam(value = "limit", defaultValue = "20")
+            @Min(value = 1, message = "limit must be at least 1")
+            @Max(value = 100, message = "limit must be at most 100")
+            int limit
+    ) {
+        ArticleBrowseRepository.Filter filter = new ArticleBrowseRepository.Filter(
+                country != null ? country.toLowerCase() : null, topic, minEinsteinScore, premium, from, to);
+        return ResponseEntity.ok(articleBrowseService.browse(filter, decodeCursor(cursor), includeContent, limit));
+    }
+
+    @GetMapping("/export/articles")
+    public ResponseEntity<StreamingResponseBody> exportArticles(
+            @RequestParam(value = "format", defaultValue = "ndjson") ArticleExportService.Format format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestParam(value = "country", required = false)
+            @Pattern(regexp = "^[A-Za-z]{2}$", message = "Use 2-letter country code, e.g., US")
+            String country,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(value = "includeContent", defaultValue = "false") boolean includeContent
+    ) {
+        ArticleBrowseRepository.Filter filter = new ArticleBrowseRepository.Filter(
+                country != null ? country.toLowerCase() : null, null, null, null, from, to);
+        StreamingResponseBody body = articleExportService.export(filter, format, gzip, includeContent)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        ArticleExportService.TOO_MANY_EXPORTS));
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("articles." + format.extension() + (gzip ? ".gz" : ""))
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    private static ArticleCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return ArticleCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", ex);
+        }
+    }
+}
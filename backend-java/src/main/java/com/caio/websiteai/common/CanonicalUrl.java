@@ -0,0 +1,80 @@
+package com.caio.websiteai.common;
+
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Canonical form and 64-bit hash of article URLs, so the same story reached through tracking links, default
+ * ports, fragments or a trailing slash maps to one key. Only what never changes the target page is removed;
+ * path and query case are preserved.
+ */
+public final class CanonicalUrl {
+
+    private static final Set<String> TRACKING_PARAMETERS = Set.of("fbclid", "gclid", "mc_cid", "mc_eid");
+
+    private CanonicalUrl() {
+    }
+
+    public static String canonicalize(String url) {
+        if (!StringUtils.hasText(url)) {
+            return url;
+        }
+        String trimmed = url.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException ex) {
+            return trimmed;
+        }
+        if (uri.getScheme() == null || uri.getRawAuthority() == null || uri.getHost() == null) {
+            return trimmed;
+        }
+
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder canonical = new StringBuilder(trimmed.length())
+                .append(scheme)
+                .append("://")
+                .append(uri.getHost().toLowerCase(Locale.ROOT));
+        int port = uri.getPort();
+        if (port != -1 && !(port == 80 && scheme.equals("http")) && !(port == 443 && scheme.equals("https"))) {
+            canonical.append(':').append(port);
+        }
+
+        String path = uri.getRawPath();
+        if (!StringUtils.hasLength(path)) {
+            path = "/";
+        } else if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        canonical.append(path);
+
+        String query = uri.getRawQuery();
+        if (query != null) {
+            StringJoiner kept = new StringJoiner("&");
+            for (String parameter : query.split("&")) {
+                if (!parameter.isEmpty() && !isTracking(parameter)) {
+                    kept.add(parameter);
+                }
+            }
+            if (kept.length() > 0) {
+                canonical.append('?').append(kept);
+            }
+        }
+        return canonical.toString();
+    }
+
+    public static long hash(String url) {
+        return ContentHash.of(canonicalize(url));
+    }
+
+    private static boolean isTracking(String parameter) {
+        int equals = parameter.indexOf('=');
+        String name = (equals >= 0 ? parameter.substring(0, equals) : parameter).toLowerCase(Locale.ROOT);
+        return name.startsWith("utm_") || TRACKING_PARAMETERS.contains(name);
+    }
+}
@@ -0,0 +1,48 @@
+package com.caio.websiteai.common;
+
+/**
+ * Fast non-cryptographic 64-bit hash over a sequence of text fields (FNV-1a over UTF-16 code units, finished with
+ * the MurmurHash3 avalanche). Fields are separated and {@code null} is distinguished from empty, so
+ * {@code ("ab", "c")}, {@code ("a", "bc")} and {@code (null, "abc")} all hash differently.
+ */
+public final class ContentHash {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private ContentHash() {
+    }
+
+    public static long of(CharSequence... fields) {
+        long hash = OFFSET_BASIS;
+        for (CharSequence field : fields) {
+            if (field == null) {
+                hash = mix(hash, 0xFFFF);
+                hash = mix(hash, 0xFFFE);
+                continue;
+            }
+            for (int i = 0; i < field.length(); i++) {
+                hash = mix(hash, field.charAt(i));
+            }
+            hash = mix(hash, 0xFFFF);
+        }
+        return finish(hash);
+    }
+
+    private static long mix(long hash, int codeUnit) {
+        hash ^= codeUnit & 0xFF;
+        hash *= PRIME;
+        hash ^= codeUnit >>> 8;
+        hash *= PRIME;
+        return hash;
+    }
+
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,305 @@
+package com.caio.websiteai.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of opaque records stored in fixed-size memory-mapped segment files. Records are framed as
+ * {@code [length][crc32c][payload]} and addressed by a logical position ({@code segment * segmentSize + offset}).
+ * A record that does not fit in the current segment rolls over to the next one. Consumers {@link #commit} the
+ * position they have durably processed; it is persisted in a checkpoint file, replay starts from it and
+ * segments wholly below it are deleted. Opening a journal after a crash scans forward from the checkpoint and
+ * truncates at the first torn or corrupt record.
+ */
+public final class MappedJournal implements Closeable {
+
+    public enum FsyncPolicy {
+        /** Force every append to disk before it returns. */
+        ALWAYS,
+        /** Appends reach the page cache (and survive a process crash); {@link #force()} is called periodically. */
+        INTERVAL,
+        /** Leave flushing to the operating system. */
+        NEVER
+    }
+
+    private static final int HEADER_BYTES = 8;
+    private static final int ROLL_MARKER = -1;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+
+    private long segmentIndex;
+    private MappedByteBuffer segment;
+    private long end;
+    private volatile long committed;
+
+    private MappedJournal(Path directory, int segmentSize, FsyncPolicy fsyncPolicy) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    public static MappedJournal open(Path directory, int segmentSize, FsyncPolicy fsyncPolicy) throws IOException {
+        if (segmentSize <= HEADER_BYTES * 2) {
+            throw new IllegalArgumentException("Segment size " + segmentSize + " is too small");
+        }
+        Files.createDirectories(directory);
+        MappedJournal journal = new MappedJournal(directory, segmentSize, fsyncPolicy);
+        journal.recover();
+        return journal;
+    }
+
+    public int maxRecordSize() {
+        return segmentSize - HEADER_BYTES;
+    }
+
+    /**
+     * Appends one record and returns its position. Under {@link FsyncPolicy#ALWAYS} the record is on disk when
+     * this returns.
+     */
+    public synchronized long append(byte[] payload) throws IOException {
+        if (payload.length == 0 || payload.length > maxRecordSize()) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit a journal segment");
+        }
+        int offset = offsetOf(end);
+        // A record that ended exactly on the boundary leaves end at offset 0 of a segment not yet mapped.
+        boolean filled = end / segmentSize != segmentIndex;
+        if (filled || offset + HEADER_BYTES + payload.length > segmentSize) {
+            if (!filled && offset + Integer.BYTES <= segmentSize) {
+                segment.putInt(offset, ROLL_MARKER);
+            }
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                segment.force();
+            }
+            segmentIndex++;
+            segment = map(segmentIndex);
+            end = segmentIndex * segmentSize;
+            offset = 0;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        segment.put(offset + HEADER_BYTES, payload);
+        segment.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        // Length last: a reader never sees a length whose payload has not been written.
+        segment.putInt(offset, payload.length);
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            segment.force(offset, HEADER_BYTES + payload.length);
+        }
+        long position = end;
+        end += HEADER_BYTES + payload.length;
+        return position;
+    }
+
+    public synchronized void force() {
+        segment.force();
+    }
+
+    public synchronized long end() {
+        return end;
+    }
+
+    public long committed() {
+        return committed;
+    }
+
+    /**
+     * Records that everything before {@code position} has been processed and releases segments that are no longer
+     * needed.
+     */
+    public synchronized void commit(long position) throws IOException {
+        if (position <= committed) {
+            return;
+        }
+        if (position > end) {
+            throw new IllegalArgumentException("Cannot commit " + position + " past journal end " + end);
+        }
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 2);
+            buffer.putLong(position).putLong(~position).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        committed = position;
+
+        long firstNeeded = position / segmentSize;
+        for (long index : segmentIndexes()) {
+            if (index < firstNeeded) {
+                Files.deleteIfExists(segmentPath(index));
+            }
+        }
+    }
+
+    /**
+     * Reads the records between {@code from} and {@code limit} (a position previously returned by {@link #end()}),
+     * in order.
+     */
+    public void replay(long from, long limit, RecordConsumer consumer) throws IOException {
+        long position = from;
+        MappedByteBuffer buffer = null;
+        long bufferIndex = -1;
+        while (position < limit) {
+            long index = position / segmentSize;
+            if (index != bufferIndex) {
+                buffer = mapReadOnly(index);
+                bufferIndex = index;
+            }
+            Record record = readRecord(buffer, offsetOf(position));
+            if (record == null) {
+                position = (index + 1) * segmentSize;
+                continue;
+            }
+            long next = position + HEADER_BYTES + record.payload().length;
+            consumer.accept(position, next, record.payload());
+            position = next;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (segment != null && fsyncPolicy != FsyncPolicy.NEVER) {
+            segment.force();
+        }
+    }
+
+    private void recover() throws IOException {
+        committed = readCheckpoint();
+        List<Long> indexes = segmentIndexes();
+        if (indexes.isEmpty()) {
+            segmentIndex = committed / segmentSize;
+            segment = map(segmentIndex);
+            end = Math.max(committed, segmentIndex * segmentSize);
+            return;
+        }
+
+        long position = Math.max(committed, indexes.get(0) * segmentSize);
+        long last = indexes.get(indexes.size() - 1);
+        MappedByteBuffer buffer = null;
+        long bufferIndex = -1;
+        while (true) {
+            long index = position / segmentSize;
+            if (index != bufferIndex) {
+                buffer = map(index);
+                bufferIndex = index;
+            }
+            int offset = offsetOf(position);
+            Record record = readRecord(buffer, offset);
+            if (record != null) {
+                position += HEADER_BYTES + record.payload().length;
+                continue;
+            }
+            boolean rolled = offset + Integer.BYTES > segmentSize || buffer.getInt(offset) == ROLL_MARKER;
+            if (rolled && index < last) {
+                position = (index + 1) * segmentSize;
+                continue;
+            }
+            // Torn or corrupt tail: wipe it so later appends are never followed by stale bytes.
+            for (int i = offset; i < segmentSize; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            for (long stale : indexes) {
+                if (stale > index) {
+                    Files.deleteIfExists(segmentPath(stale));
+                }
+            }
+            segmentIndex = index;
+            segment = buffer;
+            end = position;
+            return;
+        }
+    }
+
+    private Record readRecord(ByteBuffer buffer, int offset) {
+        if (offset + HEADER_BYTES > segmentSize) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > segmentSize - offset - HEADER_BYTES) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(offset + HEADER_BYTES, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+            return null;
+        }
+        return new Record(payload);
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+        if (buffer.remaining() != Long.BYTES * 2) {
+            throw new IOException("Corrupt journal checkpoint " + checkpoint);
+        }
+        long position = buffer.getLong();
+        if (buffer.getLong() != ~position) {
+            throw new IOException("Corrupt journal checkpoint " + checkpoint);
+        }
+        return position;
+    }
+
+    private MappedByteBuffer map(long index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private MappedByteBuffer mapReadOnly(long index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, segmentSize);
+        }
+    }
+
+    private List<Long> segmentIndexes() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> indexes.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        indexes.sort(null);
+        return indexes;
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private int offsetOf(long position) {
+        return (int) (position % segmentSize);
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long position, long nextPosition, byte[] payload) throws IOException;
+    }
+
+    private record Record(byte[] payload) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.caio.websiteai.common;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads large line-oriented files through read-only memory mappings. {@link #split} cuts a file into chunks of about
+ * a target size that each end just after a newline, so chunks can be parsed independently and in parallel;
+ * {@link #forEachLine} maps one chunk and hands over its lines. Files of any size work: only one chunk is mapped
+ * at a time per reader.
+ */
+public final class MappedLineChunks {
+
+    private static final int SCAN_WINDOW = 64 * 1024;
+
+    private MappedLineChunks() {
+    }
+
+    /**
+     * Byte range {@code [start, end)} of a file.
+     */
+    public record Chunk(long start, long end) {
+        public long length() {
+            return end - start;
+        }
+    }
+
+    @FunctionalInterface
+    public interface LineConsumer {
+        /** {@code line[0..length)} holds the line without its terminator; the array is reused for the next line. */
+        void accept(byte[] line, int length) throws IOException;
+    }
+
+    /**
+     * Chunks covering the file from {@code from} to its end. Every chunk but the last ends just after a {@code \n};
+     * a chunk only exceeds {@code targetSize} by the rest of the line the target cuts through.
+     */
+    public static List<Chunk> split(FileChannel channel, long from, long targetSize) throws IOException {
+        if (targetSize <= 0 || targetSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Chunk size " + targetSize + " is out of range");
+        }
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        long start = from;
+        while (start < size) {
+            long end = Math.min(size, start + targetSize);
+            if (end < size) {
+                end = lineEnd(channel, end - 1, size);
+            }
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line at offset " + start + " is too long to map");
+            }
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Hands every non-empty line of {@code chunk} to {@code consumer}, without its {@code \n} or {@code \r\n}.
+     */
+    public static void forEachLine(FileChannel channel, Chunk chunk, LineConsumer consumer) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.length());
+        byte[] line = new byte[4096];
+        int limit = mapped.limit();
+        int lineStart = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && mapped.get(i) != '\n') {
+                continue;
+            }
+            int length = i - lineStart;
+            if (length > 0 && mapped.get(lineStart + length - 1) == '\r') {
+                length--;
+            }
+            if (length > 0) {
+                if (length > line.length) {
+                    line = Arrays.copyOf(line, Math.max(length, line.length * 2));
+                }
+                mapped.get(lineStart, line, 0, length);
+                consumer.accept(line, length);
+            }
+            lineStart = i + 1;
+        }
+    }
+
+    /** Position just after the first {@code \n} at or after {@code position}, or {@code size} when there is none. */
+    private static long lineEnd(FileChannel channel, long position, long size) throws IOException {
+        for (long window = position; window < size; window += SCAN_WINDOW) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, window,
+                    Math.min(SCAN_WINDOW, size - window));
+            for (int i = 0; i < mapped.limit(); i++) {
+                if (mapped.get(i) == '\n') {
+                    return window + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+}
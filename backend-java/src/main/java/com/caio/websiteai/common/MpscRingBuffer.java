@@ -0,0 +1,72 @@
+package com.caio.websiteai.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring for many producers and one consumer. Producers claim a slot with a CAS on the tail and
+ * publish into it; {@link #offer} never blocks and returns {@code false} when the ring is full. Only one thread
+ * at a time may call {@link #drain}.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        while (true) {
+            long claim = tail.get();
+            if (claim - head >= slots.length()) {
+                return false;
+            }
+            if (tail.compareAndSet(claim, claim + 1)) {
+                slots.lazySet((int) (claim & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hands up to {@code limit} elements to {@code consumer} in claim order and returns how many it took. Stops
+     * early at a slot that has been claimed but not yet published; that element is picked up by the next drain.
+     */
+    public int drain(Consumer<E> consumer, int limit) {
+        long position = head;
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (position & mask);
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            head = ++position;
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
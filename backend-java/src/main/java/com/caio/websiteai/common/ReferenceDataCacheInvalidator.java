@@ -0,0 +1,55 @@
+package com.caio.websiteai.common;
+
+import com.caio.websiteai.article.entity.NewsSourceEntity;
+import com.caio.websiteai.article.repository.NewsSourceRepository;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on the reference entities that clears their lookup caches whenever one is inserted, updated or
+ * deleted through the entity manager. Inside a transaction the cache is cleared after commit, so a concurrent
+ * lookup cannot re-cache the old row between the flush and the commit.
+ */
+@Component
+public class ReferenceDataCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public ReferenceDataCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Object entity) {
+        String cacheName = cacheFor(entity);
+        Cache cache = cacheName != null ? cacheManager.getCache(cacheName) : null;
+        if (cache == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.clear();
+                }
+            });
+        } else {
+            cache.clear();
+        }
+    }
+
+    private static String cacheFor(Object entity) {
+        if (entity instanceof NewsSourceEntity) {
+            return NewsSourceRepository.ID_CACHE;
+        }
+        return null;
+    }
+}
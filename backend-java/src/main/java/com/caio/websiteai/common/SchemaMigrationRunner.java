@@ -0,0 +1,258 @@
+package com.caio.websiteai.common;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.jdbc.datasource.init.ScriptException;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * Applies the versioned SQL scripts in {@code classpath:db/migration} ({@code V<n>__<description>.sql}) once
+ * Hibernate has updated the schema. They cover what {@code ddl-auto} cannot express: moving data between
+ * layouts, GIN and partial indexes, dropping replaced tables. Each script runs once, in its own transaction, and
+ * is recorded in {@code schema_migrations}; an advisory lock keeps concurrent instances from racing. A script whose
+ * first line is {@value #NO_TRANSACTION} runs statement by statement in autocommit instead, which
+ * {@code CREATE INDEX CONCURRENTLY} requires.
+ * <p>
+ * The lock is polled with {@code pg_try_advisory_lock} rather than waited for: a session blocked in
+ * {@code pg_advisory_lock} holds a snapshot, and a concurrent index build in the holder waits for every such snapshot
+ * to go away, so the two instances would deadlock. A failed concurrent build leaves an invalid index that
+ * {@code IF NOT EXISTS} would then skip, so such leftovers are dropped before the script runs and the version is
+ * only recorded once every index it creates is valid.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaMigrationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrationRunner.class);
+
+    static final String LOCATION = "classpath*:db/migration/V*__*.sql";
+    static final String NO_TRANSACTION = "-- migration: no-transaction";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern CONCURRENT_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+CONCURRENTLY\\s+IF\\s+NOT\\s+EXISTS\\s+(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final long LOCK_KEY = 0x7363_6865_6d61L;
+    private static final long LOCK_POLL_MILLIS = 1_000;
+
+    private static final String INVALID_INDEXES = """
+            SELECT c.relname
+            FROM pg_index i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            WHERE NOT i.indisvalid AND c.relname = ANY (?) AND pg_table_is_visible(c.oid)""";
+
+    private static final String CREATE_HISTORY = """
+            CREATE TABLE IF NOT EXISTS schema_migrations (
+                version     INTEGER PRIMARY KEY,
+                description VARCHAR(255) NOT NULL,
+                checksum    INTEGER NOT NULL,
+                applied_at  TIMESTAMPTZ NOT NULL DEFAULT now()
+            )""";
+
+    private final DataSource dataSource;
+    private final ResourceLoader resourceLoader;
+
+    public SchemaMigrationRunner(DataSource dataSource, ResourceLoader resourceLoader) {
+        this.dataSource = dataSource;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void migrate() throws IOException, SQLException {
+        List<Migration> migrations = discover(resourceLoader);
+        if (migrations.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_HISTORY);
+            }
+            lock(connection);
+            try {
+                Map<Integer, Integer> applied = appliedChecksums(connection);
+                for (Migration migration : migrations) {
+                    Integer checksum = applied.get(migration.version());
+                    if (checksum == null) {
+                        apply(connection, migration);
+                    } else if (checksum != migration.checksum()) {
+                        log.warn("Migration V{} ({}) changed after it was applied; not re-running it",
+                                migration.version(), migration.description());
+                    }
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                }
+            }
+        }
+    }
+
+    // Polled in autocommit so that, between attempts, this session holds no snapshot a concurrent build waits for.
+    private void lock(Connection connection) throws SQLException {
+        boolean waiting = false;
+        while (true) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+                if (rs.next() && rs.getBoolean(1)) {
+                    return;
+                }
+            }
+            if (!waiting) {
+                log.info("Another instance is applying migrations; waiting for it to finish");
+                waiting = true;
+            }
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the migration lock", ex);
+            }
+        }
+    }
+
+    static List<Migration> discover(ResourceLoader resourceLoader) throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : ResourcePatternUtils.getResourcePatternResolver(resourceLoader).getResources(LOCATION)) {
+            Matcher name = SCRIPT_NAME.matcher(resource.getFilename() != null ? resource.getFilename() : "");
+            if (!name.matches()) {
+                continue;
+            }
+            String sql = resource.getContentAsString(StandardCharsets.UTF_8);
+            CRC32C crc = new CRC32C();
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '), sql,
+                    (int) crc.getValue(), !sql.startsWith(NO_TRANSACTION)));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version V" + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    private Map<Integer, Integer> appliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, Integer> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getInt(2));
+            }
+        }
+        return applied;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long started = System.nanoTime();
+        if (migration.transactional()) {
+            applyInTransaction(connection, migration);
+        } else {
+            applyWithoutTransaction(connection, migration);
+        }
+        log.info("Applied migration V{} ({}) in {} ms", migration.version(), migration.description(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Sent whole, so these scripts may contain DO blocks and dollar-quoted bodies.
+    private void applyInTransaction(Connection connection, Migration migration) throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(migration.sql());
+            recordApplied(connection, migration);
+            connection.commit();
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw new IllegalStateException("Migration V" + migration.version() + " (" + migration.description()
+                    + ") failed", ex);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private void applyWithoutTransaction(Connection connection, Migration migration) throws SQLException {
+        List<String> indexes = migration.concurrentIndexes();
+        try {
+            for (String index : invalidIndexes(connection, indexes)) {
+                log.warn("Dropping invalid index {} left by an earlier failed build of V{}", index,
+                        migration.version());
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+                }
+            }
+            ScriptUtils.executeSqlScript(connection,
+                    new ByteArrayResource(migration.sql().getBytes(StandardCharsets.UTF_8)));
+        } catch (ScriptException | SQLException ex) {
+            throw new IllegalStateException("Migration V" + migration.version() + " (" + migration.description()
+                    + ") failed part-way; statements before the failure stay applied", ex);
+        }
+        List<String> invalid = invalidIndexes(connection, indexes);
+        if (!invalid.isEmpty()) {
+            throw new IllegalStateException("Migration V" + migration.version() + " (" + migration.description()
+                    + ") left invalid indexes " + invalid + "; they are rebuilt on the next start");
+        }
+        recordApplied(connection, migration);
+    }
+
+    private List<String> invalidIndexes(Connection connection, List<String> indexes) throws SQLException {
+        List<String> invalid = new ArrayList<>();
+        if (indexes.isEmpty()) {
+            return invalid;
+        }
+        try (PreparedStatement query = connection.prepareStatement(INVALID_INDEXES)) {
+            query.setArray(1, connection.createArrayOf("text", indexes.toArray()));
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    invalid.add(rs.getString(1));
+                }
+            }
+        }
+        return invalid;
+    }
+
+    private void recordApplied(Connection connection, Migration migration) throws SQLException {
+        try (PreparedStatement record = connection.prepareStatement(
+                "INSERT INTO schema_migrations (version, description, checksum) VALUES (?, ?, ?)")) {
+            record.setInt(1, migration.version());
+            record.setString(2, migration.description());
+            record.setInt(3, migration.checksum());
+            record.executeUpdate();
+        }
+    }
+
+    record Migration(int version, String description, String sql, int checksum, boolean transactional) {
+
+        /** Names of the indexes this script builds with {@code CREATE INDEX CONCURRENTLY IF NOT EXISTS}. */
+        List<String> concurrentIndexes() {
+            List<String> names = new ArrayList<>();
+            Matcher matcher = CONCURRENT_INDEX.matcher(sql);
+            while (matcher.find()) {
+                names.add(matcher.group(1));
+            }
+            return names;
+        }
+    }
+}
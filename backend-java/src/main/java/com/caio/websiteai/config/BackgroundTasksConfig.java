@@ -0,0 +1,19 @@
+package com.caio.websiteai.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Periodic tasks and the in-memory index warm-ups that follow startup. Both are switched off with
+ * {@code background-tasks.enabled=false}, which the one-shot backfill mode sets: it must not run retention or
+ * rebuilds during the import, nor start full-table scans while it shuts down.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "background-tasks.enabled", matchIfMissing = true)
+public class BackgroundTasksConfig {
+
+    /** Condition for {@code ApplicationReadyEvent} listeners that warm in-memory state from the database. */
+    public static final String ENABLED = "@environment.getProperty('background-tasks.enabled', 'true') != 'false'";
+}
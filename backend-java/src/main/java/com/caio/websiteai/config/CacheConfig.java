@@ -1,5 +1,7 @@
 package com.caio.websiteai.config;
 
+import com.caio.websiteai.article.repository.NewsSourceRepository;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -20,8 +22,18 @@ public class CacheConfig {
 
     @Bean
     public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-        CaffeineCacheManager mgr = new CaffeineCacheManager("countryNews");
+        CaffeineCacheManager mgr = new CaffeineCacheManager();
         mgr.setCaffeine(caffeine);
+        mgr.registerCustomCache(NewsSourceRepository.ID_CACHE, referenceDataCache());
         return mgr;
     }
+
+    // Small, rarely changing tables: long-lived entries, invalidated explicitly on change, with hit/miss stats.
+    private static Cache<Object, Object> referenceDataCache() {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(1, TimeUnit.HOURS)
+                .maximumSize(10_000)
+                .recordStats()
+                .build();
+    }
 }
@@ -8,11 +8,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.sql.Connection;
 import java.util.Optional;
 
 @Configuration
@@ -20,24 +22,71 @@ public class DatabaseConfig {
 
     private static final Logger log = LoggerFactory.getLogger(DatabaseConfig.class);
 
+    /**
+     * Routes each transaction by its read-only flag: {@code @Transactional(readOnly = true)} work gets a connection
+     * from the read pool, everything else (including non-transactional JDBC) from the write pool. The physical
+     * connection is only fetched on first use, after the transaction has marked it read-only.
+     */
     @Bean
     @Primary
-    public DataSource dataSource(Environment environment) {
-        DatabaseConnectionInfo connectionInfo = resolveConnection(environment);
+    public DataSource dataSource(HikariDataSource writeDataSource, HikariDataSource readDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy();
+        routing.setTargetDataSource(writeDataSource);
+        routing.setReadOnlyDataSource(readDataSource);
+        // Known defaults, so startup does not borrow a connection to detect them.
+        routing.setDefaultAutoCommit(true);
+        routing.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @Bean
+    public HikariDataSource writeDataSource(Environment environment) {
+        HikariConfig config = poolConfig(resolveConnection(environment), environment);
+        config.setMaximumPoolSize(environment.getProperty("SPRING_DATASOURCE_MAX_POOL_SIZE", Integer.class, 10));
+        config.setMinimumIdle(environment.getProperty("SPRING_DATASOURCE_MIN_IDLE", Integer.class, 2));
+        config.setPoolName("ai-intelligence-hikari");
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * A separately sized pool for read-only transactions, so long writes cannot starve read endpoints. Points at
+     * {@code SPRING_DATASOURCE_READ_URL} when a replica is configured, otherwise at the primary.
+     */
+    @Bean
+    public HikariDataSource readDataSource(Environment environment) {
+        DatabaseConnectionInfo primary = resolveConnection(environment);
+        String replicaUrl = trimToNull(environment.getProperty("SPRING_DATASOURCE_READ_URL"));
+        DatabaseConnectionInfo connectionInfo = primary;
+        if (StringUtils.hasText(replicaUrl)) {
+            log.info("Using SPRING_DATASOURCE_READ_URL for read-only transactions");
+            connectionInfo = new DatabaseConnectionInfo(replicaUrl,
+                    Optional.ofNullable(trimToNull(environment.getProperty("SPRING_DATASOURCE_READ_USERNAME")))
+                            .orElse(primary.username()),
+                    Optional.ofNullable(environment.getProperty("SPRING_DATASOURCE_READ_PASSWORD"))
+                            .orElse(primary.password()),
+                    primary.driverClassName());
+        }
+        HikariConfig config = poolConfig(connectionInfo, environment);
+        config.setMaximumPoolSize(environment.getProperty("SPRING_DATASOURCE_READ_MAX_POOL_SIZE", Integer.class, 5));
+        config.setMinimumIdle(environment.getProperty("SPRING_DATASOURCE_READ_MIN_IDLE", Integer.class, 1));
+        config.setReadOnly(true);
+        config.setPoolName("ai-intelligence-read-hikari");
+        return new HikariDataSource(config);
+    }
 
+    private HikariConfig poolConfig(DatabaseConnectionInfo connectionInfo, Environment environment) {
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(connectionInfo.jdbcUrl());
         config.setUsername(connectionInfo.username());
         config.setPassword(connectionInfo.password());
         config.setDriverClassName(connectionInfo.driverClassName());
-        config.setMaximumPoolSize(environment.getProperty("SPRING_DATASOURCE_MAX_POOL_SIZE", Integer.class, 10));
-        config.setMinimumIdle(environment.getProperty("SPRING_DATASOURCE_MIN_IDLE", Integer.class, 2));
         config.setConnectionTimeout(environment.getProperty("SPRING_DATASOURCE_CONNECTION_TIMEOUT", Long.class, 30_000L));
         config.setValidationTimeout(environment.getProperty("SPRING_DATASOURCE_VALIDATION_TIMEOUT", Long.class, 5_000L));
         config.setInitializationFailTimeout(-1L); // allow app to start even if DB is temporarily unavailable
-        config.setPoolName("ai-intelligence-hikari");
-
-        return new HikariDataSource(config);
+        // Lets pgjdbc send a JDBC batch of inserts/upserts as multi-row statements instead of one per row.
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        return config;
     }
 
     private DatabaseConnectionInfo resolveConnection(Environment environment) {
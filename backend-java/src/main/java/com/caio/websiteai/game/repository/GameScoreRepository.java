@@ -10,24 +10,24 @@ public interface GameScoreRepository extends JpaRepository<GameScoreEntity, Stri
 
     List<GameScoreEntity> findAllByOrderByScoreDesc();
 
+    // Top 20 first, then one index-driven count per country (game_submissions(country, user_id) and
+    // user_achievements(user_id)) instead of joining and grouping every submission.
     @Query(value = """
-            SELECT gs.country AS country,
-                   gs.score AS score,
-                   gs.total_submissions AS totalSubmissions,
-                   gs.unique_contributors AS uniqueContributors,
-                   gs.last_submission_at AS lastSubmissionAt,
-                   gs.rank_position AS rankPosition,
-                   gs.daily_score AS dailyScore,
-                   gs.weekly_score AS weeklyScore,
-                   gs.monthly_score AS monthlyScore,
-                   COUNT(ua.id) AS achievementCount
-            FROM game_scores gs
-            LEFT JOIN game_submissions gsub ON gs.country = gsub.country
-            LEFT JOIN user_achievements ua ON gsub.user_id = ua.user_id
-            GROUP BY gs.country, gs.score, gs.total_submissions, gs.unique_contributors,
-                     gs.last_submission_at, gs.rank_position, gs.daily_score, gs.weekly_score, gs.monthly_score
-            ORDER BY gs.score DESC
-            LIMIT 20
+            SELECT top.country AS country,
+                   top.score AS score,
+                   top.total_submissions AS totalSubmissions,
+                   top.unique_contributors AS uniqueContributors,
+                   top.last_submission_at AS lastSubmissionAt,
+                   top.rank_position AS rankPosition,
+                   top.daily_score AS dailyScore,
+                   top.weekly_score AS weeklyScore,
+                   top.monthly_score AS monthlyScore,
+                   (SELECT COUNT(ua.id)
+                    FROM game_submissions gsub
+                    JOIN user_achievements ua ON ua.user_id = gsub.user_id
+                    WHERE gsub.country = top.country) AS achievementCount
+            FROM (SELECT * FROM game_scores ORDER BY score DESC LIMIT 20) top
+            ORDER BY top.score DESC
             """, nativeQuery = true)
     List<LeaderboardProjection> fetchLeaderboard();
 
@@ -0,0 +1,16 @@
+package com.caio.websiteai.news.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+@Value
+@Builder
+public class CountryNewsBatchResponse {
+    List<String> requested;
+    Map<String, CountryNewsResponse> countries;
+    Map<String, String> failures;
+    boolean partial;
+}
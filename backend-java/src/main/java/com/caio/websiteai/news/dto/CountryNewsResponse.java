@@ -3,12 +3,17 @@ package com.caio.websiteai.news.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class CountryNewsResponse {
     private String country;
     private int total;
     private List<Article> articles;
+    private OffsetDateTime fetchedAt;
+    private long ageSeconds;
+    private boolean stale;
+    private String scoringVersion;
 }
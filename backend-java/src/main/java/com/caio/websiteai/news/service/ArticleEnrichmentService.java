@@ -0,0 +1,115 @@
+package com.caio.websiteai.news.service;
+
+import com.caio.websiteai.ai.service.ArticleScoringService;
+import com.caio.websiteai.ai.service.ArticleTextFeatures;
+import com.caio.websiteai.ai.service.CompiledScoringRules;
+import com.caio.websiteai.ai.service.KeywordHits;
+import com.caio.websiteai.ai.service.ScoringRulesChangedEvent;
+import com.caio.websiteai.common.ContentHash;
+import com.caio.websiteai.news.dto.Article;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ArticleEnrichmentService {
+
+    private static final int[] READABILITY_BY_LENGTH_BUCKET = {50, 55, 60, 70};
+
+    private final ArticleScoringService articleScoringService;
+    private final Cache<ScoreKey, ArticleScores> scoreMemo;
+
+    public ArticleEnrichmentService(ArticleScoringService articleScoringService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${news.enrichment.memo-size}") long memoSize) {
+        this.articleScoringService = articleScoringService;
+        // Scores depend only on title, description, source and content under a given rule version, so a
+        // refresh that sees the same headline again reuses them instead of re-running the scorers.
+        this.scoreMemo = Caffeine.newBuilder()
+                .maximumSize(memoSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, scoreMemo, "articleScores");
+    }
+
+    public String scoringVersion() {
+        return articleScoringService.scoringVersion();
+    }
+
+    public Article enrich(Article article) {
+        if (article == null) {
+            return null;
+        }
+
+        long contentHash = ContentHash.of(article.getTitle(), article.getDescription(), article.getSource(),
+                article.getContent());
+        ArticleScores scores = scoreMemo.getIfPresent(new ScoreKey(contentHash, scoringVersion()));
+        if (scores == null) {
+            scores = score(article);
+            scoreMemo.put(new ScoreKey(contentHash, scores.scoringVersion()), scores);
+        }
+
+        article.setRelevanceScore(scores.relevanceScore());
+        article.setAnalysisScore(scores.analysisScore());
+        article.setEinsteinScore(scores.einsteinScore());
+        article.setTopicCategory(scores.topicCategory());
+        article.setLanguage(StringUtils.hasText(article.getLanguage()) ? article.getLanguage() : "en");
+        article.setWordCount(scores.wordCount());
+        article.setReadabilityScore(scores.readabilityScore());
+        article.setSentimentScore(scores.sentimentScore());
+        article.setProvenance("newsapi");
+        article.setPremium(scores.premium());
+        article.setBreaking(Boolean.FALSE);
+        article.setTags(new ArrayList<>(scores.tags()));
+        if (!StringUtils.hasText(article.getCategory()) && article.getTopicCategory() != null) {
+            article.setCategory(article.getTopicCategory());
+        }
+        if (!StringUtils.hasText(article.getSource())) {
+            article.setSource("Unknown");
+        }
+        return article;
+    }
+
+    @EventListener
+    public void onScoringRulesChanged(ScoringRulesChangedEvent event) {
+        scoreMemo.invalidateAll();
+    }
+
+    private ArticleScores score(Article article) {
+        ArticleTextFeatures features = articleScoringService.extractFeatures(article);
+        CompiledScoringRules rules = features.rules();
+        KeywordHits hits = features.keywordHits();
+        int relevanceScore = articleScoringService.scoreArticleRelevance(features);
+        int analysisScore = articleScoringService.scoreAnalysisDepth(features);
+        double avg = (relevanceScore + analysisScore) / 2.0;
+        return new ArticleScores(
+                rules.version(),
+                relevanceScore,
+                analysisScore,
+                BigDecimal.valueOf(avg).setScale(2, RoundingMode.HALF_UP),
+                rules.topicCategory(hits),
+                features.wordCount(),
+                READABILITY_BY_LENGTH_BUCKET[features.lengthBucket()],
+                rules.sentiment(hits),
+                rules.isPremiumSource(features.normalizedSource()),
+                List.copyOf(rules.tags(hits)));
+    }
+
+    private record ScoreKey(long contentHash, String scoringVersion) {
+    }
+
+    private record ArticleScores(String scoringVersion, int relevanceScore, int analysisScore, BigDecimal einsteinScore,
+                                 String topicCategory, int wordCount, int readabilityScore, BigDecimal sentimentScore,
+                                 boolean premium, List<String> tags) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.caio.websiteai.news.service;
+
+import com.caio.websiteai.news.dto.CountryNewsBatchResponse;
+import com.caio.websiteai.news.dto.CountryNewsResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class CountryNewsBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryNewsBatchService.class);
+
+    private final NewsService newsService;
+    private final Duration countryTimeout;
+    private final ExecutorService fetchExecutor;
+
+    public CountryNewsBatchService(NewsService newsService,
+                                   @Value("${news.batch.max-concurrency}") int maxConcurrency,
+                                   @Value("${news.batch.country-timeout}") Duration countryTimeout) {
+        this.newsService = newsService;
+        this.countryTimeout = countryTimeout;
+        // The pool size is the upstream concurrency limit: at most this many countries hit NewsAPI at once, across
+        // all batch requests.
+        this.fetchExecutor = Executors.newFixedThreadPool(maxConcurrency,
+                new CustomizableThreadFactory("country-news-batch-"));
+    }
+
+    public CountryNewsBatchResponse getCountryNews(List<String> countryCodes) {
+        List<String> codes = countryCodes.stream()
+                .map(code -> code.trim().toLowerCase(Locale.ENGLISH))
+                .distinct()
+                .toList();
+
+        // Cache hits are answered on the caller's thread; only misses take a pool thread.
+        Map<String, CountryNewsResponse> countries = new LinkedHashMap<>();
+        Map<String, CountryFetch> pending = new LinkedHashMap<>();
+        for (String code : codes) {
+            Optional<CountryNewsResponse> cached = newsService.getCachedCountryNews(code);
+            if (cached.isPresent()) {
+                countries.put(code, cached.get());
+                continue;
+            }
+            CountryFetch fetch = new CountryFetch(code);
+            pending.put(code, fetch);
+            fetchExecutor.execute(fetch);
+        }
+
+        // The request waits at most one country timeout in total. A timed-out fetch keeps its pool thread until the
+        // load finishes, so misses queued behind other requests' fetches may not start in time; they fail here and
+        // are skipped when a thread does reach them.
+        long waitUntil = System.nanoTime() + countryTimeout.toNanos();
+        Map<String, String> failures = new LinkedHashMap<>();
+        pending.forEach((code, fetch) -> {
+            try {
+                countries.put(code, fetch.result.get(Math.max(0, waitUntil - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException ex) {
+                fetch.abandon();
+                failures.put(code, "Timed out after " + countryTimeout.toMillis() + " ms");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fetch.abandon();
+                failures.put(code, "Interrupted");
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                log.warn("Failed to load news for country {}: {}", code, cause.getMessage());
+                failures.put(code, cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+            }
+        });
+
+        return CountryNewsBatchResponse.builder()
+                .requested(codes)
+                .countries(countries)
+                .failures(failures)
+                .partial(!failures.isEmpty())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * One country's fetch. When the request's deadline passes it is abandoned: a fetch no thread has picked up yet is
+     * skipped, and a running one only stops counting for this batch. The load itself is never interrupted: it is the
+     * cache loader shared with every other caller waiting on the same country, so it runs to completion and fills
+     * the cache for them.
+     */
+    private final class CountryFetch implements Runnable {
+        private final String code;
+        private final CompletableFuture<CountryNewsResponse> result = new CompletableFuture<>();
+
+        private CountryFetch(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(newsService.getCountryNews(code));
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+
+        private void abandon() {
+            result.cancel(false);
+        }
+    }
+}
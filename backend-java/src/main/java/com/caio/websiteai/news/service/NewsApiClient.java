@@ -1,22 +1,36 @@
 package com.caio.websiteai.news.service;
 
+import com.caio.websiteai.article.entity.ApiUsageLogEntity;
+import com.caio.websiteai.article.service.ApiUsageRecorder;
 import com.caio.websiteai.news.dto.Article;
-import com.caio.websiteai.news.dto.CountryNewsResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 
-import java.net.URI;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
-import java.util.List;
+import java.util.function.Consumer;
 
 @Component
 @RequiredArgsConstructor
 public class NewsApiClient {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+    private final ApiUsageRecorder apiUsageRecorder;
 
     @Value("${news.api.base-url}")
     private String baseUrl;
@@ -24,54 +38,169 @@ public class NewsApiClient {
     @Value("${news.api.key:}")
     private String apiKey;
 
-    public CountryNewsResponse getTopHeadlinesByCountry(String countryCode) {
-        record Source(String id, String name) {}
-        record RawArticle(Source source, String author, String title, String description,
-                          String url, String urlToImage, String publishedAt, String content) {}
-        record RawResponse(String status, int totalResults, List<RawArticle> articles) {}
+    @Value("${news.api.page-size:50}")
+    private int pageSize;
 
+    /**
+     * Decodes the top-headlines response token by token and hands each article to {@code sink} as soon as
+     * its closing brace is read, without materialising the whole payload first. Every call, failed or not, is
+     * reported to the {@link ApiUsageRecorder}.
+     *
+     * @return the number of articles delivered to the sink
+     */
+    public int streamTopHeadlinesByCountry(String countryCode, Consumer<Article> sink) {
         String requestUrl = baseUrl.endsWith("/") ? baseUrl + "top-headlines" : baseUrl + "/top-headlines";
+        int effectivePageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, pageSize));
+        String query = "country=" + countryCode + "&pageSize=" + effectivePageSize;
 
-        RawResponse raw = restClient.get()
-                .uri(requestUrl + "?country=" + countryCode + "&pageSize=50")
-                .accept(MediaType.APPLICATION_JSON)
-                .header("X-Api-Key", apiKey)
-                .retrieve()
-                .body(RawResponse.class);
-        if (raw == null || raw.articles() == null) {
-            return CountryNewsResponse.builder()
-                    .country(countryCode)
-                    .total(0)
-                    .articles(List.of())
-                    .build();
+        long started = System.nanoTime();
+        ApiUsageLogEntity.ApiUsageLogEntityBuilder usage = ApiUsageLogEntity.builder()
+                .apiProvider("newsapi")
+                .apiKeyIndex(0)
+                .endpoint("/top-headlines")
+                .queryParams(query)
+                .createdAt(OffsetDateTime.now());
+        try {
+            Integer delivered = restClient.get()
+                    .uri(requestUrl + "?" + query)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .header("X-Api-Key", apiKey)
+                    .exchange((request, response) -> {
+                        int status = response.getStatusCode().value();
+                        usage.responseStatus(status).rateLimited(status == HttpStatus.TOO_MANY_REQUESTS.value());
+                        if (response.getStatusCode().isError()) {
+                            byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                            usage.responseSize(body.length);
+                            throw new RestClientResponseException(
+                                    "NewsAPI request failed with status " + status,
+                                    response.getStatusCode(), response.getStatusText(), response.getHeaders(),
+                                    body, StandardCharsets.UTF_8);
+                        }
+                        CountingInputStream body = new CountingInputStream(response.getBody());
+                        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                            return readArticles(parser, sink);
+                        } finally {
+                            usage.responseSize((int) Math.min(Integer.MAX_VALUE, body.count));
+                        }
+                    });
+            int count = delivered != null ? delivered : 0;
+            usage.articlesReturned(count);
+            return count;
+        } catch (RuntimeException ex) {
+            usage.errorMessage(ex.getMessage());
+            throw ex;
+        } finally {
+            usage.responseTimeMs((int) ((System.nanoTime() - started) / 1_000_000));
+            apiUsageRecorder.record(usage.build());
         }
+    }
 
-        List<Article> mapped = raw.articles().stream().map(a ->
-                Article.builder()
-                        .source(a.source() != null ? a.source().name() : null)
-                        .author(a.author())
-                        .title(a.title())
-                        .description(a.description())
-                        .url(a.url())
-                        .urlToImage(a.urlToImage())
-                        .publishedAt(parseDate(a.publishedAt()))
-                        .content(a.content())
-                        .language("en")
-                        .provenance("newsapi")
-                        .premium(Boolean.FALSE)
-                        .breaking(Boolean.FALSE)
-                        .build()
-        ).toList();
-
-        return CountryNewsResponse.builder()
-                .country(countryCode)
-                .total(mapped.size())
-                .articles(mapped)
+    private int readArticles(JsonParser parser, Consumer<Article> sink) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return 0;
+        }
+        int delivered = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("articles".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    sink.accept(readArticle(parser));
+                    delivered++;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return delivered;
+    }
+
+    private Article readArticle(JsonParser parser) throws IOException {
+        Article article = Article.builder()
+                .language("en")
+                .provenance("newsapi")
+                .premium(Boolean.FALSE)
+                .breaking(Boolean.FALSE)
                 .build();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "source" -> article.setSource(readSourceName(parser));
+                case "author" -> article.setAuthor(readText(parser));
+                case "title" -> article.setTitle(readText(parser));
+                case "description" -> article.setDescription(readText(parser));
+                case "url" -> article.setUrl(readText(parser));
+                case "urlToImage" -> article.setUrlToImage(readText(parser));
+                case "publishedAt" -> article.setPublishedAt(parseDate(readText(parser)));
+                case "content" -> article.setContent(readText(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return article;
+    }
+
+    private String readSourceName(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return readText(parser);
+        }
+        String name = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("name".equals(field)) {
+                name = readText(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    private static String readText(JsonParser parser) throws IOException {
+        if (parser.currentToken().isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        parser.skipChildren();
+        return null;
     }
 
     private static OffsetDateTime parseDate(String s) {
         try { return s == null ? null : OffsetDateTime.parse(s); }
         catch (Exception e) { return null; }
     }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
 }
@@ -1,228 +1,271 @@
 package com.caio.websiteai.news.service;
 
-import com.caio.websiteai.ai.service.ArticleScoringService;
+import com.caio.websiteai.ai.service.ScoringRulesChangedEvent;
 import com.caio.websiteai.article.dto.StoredArticleDto;
-import com.caio.websiteai.article.service.ArticleStorageService;
+import com.caio.websiteai.article.service.ArticleWriteBehindQueue;
+import com.caio.websiteai.common.CanonicalUrl;
 import com.caio.websiteai.news.dto.Article;
 import com.caio.websiteai.news.dto.CountryNewsResponse;
-import org.springframework.cache.annotation.Cacheable;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class NewsService {
 
-    private static final Set<String> PREMIUM_SOURCES = Set.of(
-            "techcrunch", "wired", "reuters", "bloomberg", "financial times", "wall street journal", "mit technology review"
-    );
-
     private final NewsApiClient newsApiClient;
-    private final ArticleStorageService articleStorageService;
-    private final ArticleScoringService articleScoringService;
+    private final ArticleWriteBehindQueue articleWriteBehindQueue;
+    private final ArticleEnrichmentService articleEnrichmentService;
+    private final Duration softTtl;
+    private final Ticker ticker;
+    private final ExecutorService refreshExecutor;
+    private final LoadingCache<String, CachedCountryNews> countryNewsCache;
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private final Counter coalesced;
 
+    @Autowired
     public NewsService(NewsApiClient newsApiClient,
-                       ArticleStorageService articleStorageService,
-                       ArticleScoringService articleScoringService) {
+                       ArticleWriteBehindQueue articleWriteBehindQueue,
+                       ArticleEnrichmentService articleEnrichmentService,
+                       MeterRegistry meterRegistry,
+                       @Value("${news.cache.soft-ttl}") Duration softTtl,
+                       @Value("${news.cache.hard-ttl}") Duration hardTtl,
+                       @Value("${news.cache.maximum-size}") long maximumSize,
+                       @Value("${news.cache.refresh-threads}") int refreshThreads) {
+        this(newsApiClient, articleWriteBehindQueue, articleEnrichmentService, meterRegistry, softTtl, hardTtl,
+                maximumSize, refreshThreads, Ticker.systemTicker());
+    }
+
+    // The ticker drives both the cache's TTLs and the reported age, so tests can move time forward.
+    NewsService(NewsApiClient newsApiClient,
+                ArticleWriteBehindQueue articleWriteBehindQueue,
+                ArticleEnrichmentService articleEnrichmentService,
+                MeterRegistry meterRegistry,
+                Duration softTtl,
+                Duration hardTtl,
+                long maximumSize,
+                int refreshThreads,
+                Ticker ticker) {
         this.newsApiClient = newsApiClient;
-        this.articleStorageService = articleStorageService;
-        this.articleScoringService = articleScoringService;
+        this.articleWriteBehindQueue = articleWriteBehindQueue;
+        this.articleEnrichmentService = articleEnrichmentService;
+        this.softTtl = softTtl;
+        this.ticker = ticker;
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads,
+                new CustomizableThreadFactory("country-news-refresh-"));
+        // Entries older than the soft TTL are served as-is while a single background reload replaces them;
+        // only entries past the hard TTL (or never loaded) block the caller. The cache runs at most one load or
+        // refresh per country at a time, and concurrent callers wait on it, so overlapping misses make a single
+        // NewsAPI call; its load and hit/miss counts are reported under the countryNews cache metrics, and the callers
+        // that joined a load in flight under news.country.coalesced.
+        this.countryNewsCache = Caffeine.newBuilder()
+                .refreshAfterWrite(softTtl)
+                .expireAfterWrite(hardTtl)
+                .maximumSize(maximumSize)
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .build(this::loadCountryNews);
+        CaffeineCacheMetrics.monitor(meterRegistry, countryNewsCache, "countryNews");
+        this.coalesced = Counter.builder("news.country.coalesced").register(meterRegistry);
     }
 
-    @Cacheable(cacheNames = "countryNews", key = "#countryCode")
     public CountryNewsResponse getCountryNews(String countryCode) {
-        CountryNewsResponse response = newsApiClient.getTopHeadlinesByCountry(countryCode);
-        if (response.getArticles() == null) {
-            response.setArticles(List.of());
-            response.setTotal(0);
-            return response;
+        // A caller arriving while another caller's load for the country is in flight waits on that load instead of
+        // calling NewsAPI itself; it is counted as coalesced, apart from the cache's own load and miss counts.
+        if (loading.contains(countryCode)) {
+            coalesced.increment();
         }
+        return present(countryNewsCache.get(countryCode, this::loadOnMiss));
+    }
 
-        List<Article> enriched = response.getArticles().stream()
-                .map(article -> enrichArticle(countryCode, article))
-                .filter(Objects::nonNull)
-                .toList();
-
-        articleStorageService.storeArticles(countryCode, mapToStoredArticles(countryCode, enriched));
-
-        response.setArticles(enriched);
-        response.setTotal(enriched.size());
-        return response;
+    /**
+     * The cached news for a country, without loading it on a miss. A stale entry is still returned and triggers the
+     * same background refresh as {@link #getCountryNews(String)}.
+     */
+    public Optional<CountryNewsResponse> getCachedCountryNews(String countryCode) {
+        return Optional.ofNullable(countryNewsCache.getIfPresent(countryCode)).map(this::present);
     }
 
-    private Article enrichArticle(String countryCode, Article article) {
-        if (article == null) {
-            return null;
+    private CountryNewsResponse present(CachedCountryNews cached) {
+        CountryNewsResponse response = cached.response;
+        if (!articleEnrichmentService.scoringVersion().equals(response.getScoringVersion())) {
+            rescoreInBackground(cached);
         }
+        Duration age = Duration.ofNanos(ticker.read() - cached.loadedAt);
+        return response.toBuilder()
+                .fetchedAt(cached.fetchedAt.atOffset(ZoneOffset.UTC))
+                .ageSeconds(Math.max(0, age.toSeconds()))
+                .stale(age.compareTo(softTtl) > 0)
+                .build();
+    }
 
-        article.setRelevanceScore(articleScoringService.scoreArticleRelevance(article));
-        article.setAnalysisScore(articleScoringService.scoreAnalysisDepth(article));
-        if (article.getRelevanceScore() != null && article.getAnalysisScore() != null) {
-            double avg = (article.getRelevanceScore() + article.getAnalysisScore()) / 2.0;
-            article.setEinsteinScore(BigDecimal.valueOf(avg).setScale(2, RoundingMode.HALF_UP));
-        }
-        article.setTopicCategory(determineTopicCategory(article));
-        article.setLanguage(StringUtils.hasText(article.getLanguage()) ? article.getLanguage() : "en");
-        article.setWordCount(calculateWordCount(article));
-        article.setReadabilityScore(calculateReadabilityScore(article));
-        article.setSentimentScore(calculateSentimentScore(article));
-        article.setProvenance("newsapi");
-        article.setPremium(isPremiumSource(article));
-        article.setBreaking(Boolean.FALSE);
-        article.setTags(determineTags(article));
-        if (!StringUtils.hasText(article.getCategory()) && article.getTopicCategory() != null) {
-            article.setCategory(article.getTopicCategory());
-        }
-        if (!StringUtils.hasText(article.getSource())) {
-            article.setSource("Unknown");
-        }
-        return article;
+    @EventListener
+    public void onScoringRulesChanged(ScoringRulesChangedEvent event) {
+        countryNewsCache.asMap().values().forEach(this::rescoreInBackground);
     }
 
-    private int calculateWordCount(Article article) {
-        String text = article.getContent();
-        if (!StringUtils.hasText(text)) {
-            text = article.getDescription();
-        }
-        if (!StringUtils.hasText(text)) {
-            return 0;
-        }
-        return text.trim().split("\\s+").length;
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
     }
 
-    private int calculateReadabilityScore(Article article) {
-        String text = article.getContent();
-        if (!StringUtils.hasText(text)) {
-            text = article.getDescription();
-        }
-        if (!StringUtils.hasText(text)) {
-            return 50;
-        }
-        int length = text.length();
-        if (length > 1500) {
-            return 70;
+    // Background refreshes go through loadCountryNews directly: callers are served the stale entry meanwhile, so they
+    // do not count as coalesced.
+    private CachedCountryNews loadOnMiss(String countryCode) {
+        loading.add(countryCode);
+        try {
+            return loadCountryNews(countryCode);
+        } finally {
+            loading.remove(countryCode);
         }
-        if (length > 800) {
-            return 60;
-        }
-        if (length > 400) {
-            return 55;
-        }
-        return 50;
     }
 
-    private BigDecimal calculateSentimentScore(Article article) {
-        String text = (article.getTitle() + " " + article.getDescription()).toLowerCase(Locale.ENGLISH);
-        int score = 0;
-        String[] positive = {"growth", "success", "breakthrough", "improve", "boost"};
-        String[] negative = {"concern", "risk", "decline", "warning", "ban"};
-        for (String word : positive) {
-            if (text.contains(word)) {
-                score += 1;
-            }
-        }
-        for (String word : negative) {
-            if (text.contains(word)) {
-                score -= 1;
-            }
-        }
-        return BigDecimal.valueOf(Math.max(-1, Math.min(1, score / 5.0))).setScale(2, RoundingMode.HALF_UP);
+    private CachedCountryNews loadCountryNews(String countryCode) {
+        return new CachedCountryNews(fetchCountryNews(countryCode), Instant.now(), ticker.read());
     }
 
-    private List<String> determineTags(Article article) {
-        List<String> tags = new ArrayList<>();
-        String text = (article.getTitle() + " " + article.getDescription()).toLowerCase(Locale.ENGLISH);
-        if (text.contains("policy") || text.contains("regulation")) {
-            tags.add("policy");
-        }
-        if (text.contains("research") || text.contains("study")) {
-            tags.add("research");
-        }
-        if (text.contains("investment") || text.contains("funding")) {
-            tags.add("investment");
+    // Rescoring swaps the response inside the cached holder instead of writing to the cache, so the entry keeps
+    // its original write time and soft/hard TTLs.
+    private void rescoreInBackground(CachedCountryNews cached) {
+        if (!cached.rescoring.compareAndSet(false, true)) {
+            return;
         }
-        if (text.contains("security") || text.contains("defense")) {
-            tags.add("security");
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    rescore(cached);
+                } finally {
+                    cached.rescoring.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            cached.rescoring.set(false);
         }
-        return tags;
     }
 
-    private boolean isPremiumSource(Article article) {
-        if (!StringUtils.hasText(article.getSource())) {
-            return false;
+    private void rescore(CachedCountryNews cached) {
+        String version = articleEnrichmentService.scoringVersion();
+        CountryNewsResponse response = cached.response;
+        if (version.equals(response.getScoringVersion())) {
+            return;
         }
-        String normalizedSource = article.getSource().toLowerCase(Locale.ENGLISH);
-        return PREMIUM_SOURCES.stream().anyMatch(normalizedSource::contains);
+        List<Article> rescored = response.getArticles().stream()
+                .map(this::rescoreArticle)
+                .toList();
+        cached.response = response.toBuilder()
+                .articles(rescored)
+                .scoringVersion(version)
+                .build();
     }
 
-    private String determineTopicCategory(Article article) {
-        String text = (article.getTitle() + " " + article.getDescription()).toLowerCase(Locale.ENGLISH);
-        if (text.contains("policy") || text.contains("regulation")) {
-            return "policy";
-        }
-        if (text.contains("research") || text.contains("study")) {
-            return "research";
+    private Article rescoreArticle(Article article) {
+        Article copy = article.toBuilder().build();
+        if (Objects.equals(copy.getCategory(), copy.getTopicCategory())) {
+            copy.setCategory(null);
         }
-        if (text.contains("startup") || text.contains("investment")) {
-            return "business";
-        }
-        if (text.contains("security") || text.contains("defense")) {
-            return "security";
-        }
-        if (text.contains("ethics")) {
-            return "ethics";
-        }
-        return "general";
+        return articleEnrichmentService.enrich(copy);
     }
 
-    private List<StoredArticleDto> mapToStoredArticles(String countryCode, List<Article> articles) {
-        if (CollectionUtils.isEmpty(articles)) {
-            return List.of();
-        }
-        return articles.stream()
-                .filter(article -> article != null && StringUtils.hasText(article.getUrl()))
-                .map(article -> StoredArticleDto.builder()
-                        .id(buildArticleId(countryCode, article))
-                        .title(article.getTitle())
-                        .url(article.getUrl())
-                        .source(article.getSource())
-                        .author(article.getAuthor())
-                        .publishedAt(article.getPublishedAt())
-                        .description(article.getDescription())
-                        .content(article.getContent())
-                        .country(countryCode)
-                        .category(article.getCategory())
-                        .relevanceScore(article.getRelevanceScore())
-                        .analysisScore(article.getAnalysisScore())
-                        .einsteinScore(article.getEinsteinScore())
-                        .topicCategory(article.getTopicCategory())
-                        .provenance(article.getProvenance())
-                        .searchQuery(article.getSearchQuery())
-                        .language(article.getLanguage())
-                        .sentimentScore(article.getSentimentScore())
-                        .readabilityScore(article.getReadabilityScore())
-                        .wordCount(article.getWordCount())
-                        .imageUrl(article.getUrlToImage())
-                        .tags(article.getTags())
-                        .premium(Boolean.TRUE.equals(article.getPremium()))
-                        .breaking(Boolean.TRUE.equals(article.getBreaking()))
-                        .build())
-                .toList();
+    private CountryNewsResponse fetchCountryNews(String countryCode) {
+        String scoringVersion = articleEnrichmentService.scoringVersion();
+        List<Article> enriched = new ArrayList<>();
+        List<StoredArticleDto> toStore = new ArrayList<>();
+        newsApiClient.streamTopHeadlinesByCountry(countryCode, article -> {
+            Article result = articleEnrichmentService.enrich(article);
+            if (result == null) {
+                return;
+            }
+            enriched.add(result);
+            if (StringUtils.hasText(result.getUrl())) {
+                toStore.add(toStoredArticle(countryCode, result));
+            }
+        });
+
+        articleWriteBehindQueue.submit(countryCode, toStore);
+
+        return CountryNewsResponse.builder()
+                .country(countryCode)
+                .total(enriched.size())
+                .articles(enriched)
+                .scoringVersion(scoringVersion)
+                .build();
+    }
+
+    /**
+     * The storage form of an enriched article, with the id derived from its URL and country.
+     */
+    public static StoredArticleDto toStoredArticle(String countryCode, Article article) {
+        return StoredArticleDto.builder()
+                .id(buildArticleId(countryCode, article))
+                .title(article.getTitle())
+                .url(article.getUrl())
+                .source(article.getSource())
+                .author(article.getAuthor())
+                .publishedAt(article.getPublishedAt())
+                .description(article.getDescription())
+                .content(article.getContent())
+                .country(countryCode)
+                .category(article.getCategory())
+                .relevanceScore(article.getRelevanceScore())
+                .analysisScore(article.getAnalysisScore())
+                .einsteinScore(article.getEinsteinScore())
+                .topicCategory(article.getTopicCategory())
+                .provenance(article.getProvenance())
+                .searchQuery(article.getSearchQuery())
+                .language(article.getLanguage())
+                .sentimentScore(article.getSentimentScore())
+                .readabilityScore(article.getReadabilityScore())
+                .wordCount(article.getWordCount())
+                .imageUrl(article.getUrlToImage())
+                .tags(article.getTags())
+                .premium(Boolean.TRUE.equals(article.getPremium()))
+                .breaking(Boolean.TRUE.equals(article.getBreaking()))
+                .build();
     }
 
-    private String buildArticleId(String countryCode, Article article) {
+    private static String buildArticleId(String countryCode, Article article) {
         String base = StringUtils.hasText(article.getUrl()) ? article.getUrl() : article.getTitle();
         if (!StringUtils.hasText(base)) {
             base = countryCode + "-article";
         }
-        return Integer.toHexString(base.hashCode()) + "-" + countryCode;
+        return String.format("%016x-%s", CanonicalUrl.hash(base), countryCode);
+    }
+
+    private static final class CachedCountryNews {
+        private final Instant fetchedAt;
+        private final long loadedAt;
+        private final AtomicBoolean rescoring = new AtomicBoolean();
+        private volatile CountryNewsResponse response;
+
+        private CachedCountryNews(CountryNewsResponse response, Instant fetchedAt, long loadedAt) {
+            this.response = response;
+            this.fetchedAt = fetchedAt;
+            this.loadedAt = loadedAt;
+        }
     }
 }
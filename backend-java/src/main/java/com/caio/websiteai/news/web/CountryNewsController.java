@@ -1,16 +1,22 @@
 package com.caio.websiteai.news.web;
 
+import com.caio.websiteai.news.dto.CountryNewsBatchResponse;
 import com.caio.websiteai.news.dto.CountryNewsResponse;
+import com.caio.websiteai.news.service.CountryNewsBatchService;
 import com.caio.websiteai.news.service.NewsService;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api")
 @Validated
@@ -18,9 +24,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class CountryNewsController {
 
     private final NewsService newsService;
+    private final CountryNewsBatchService countryNewsBatchService;
 
-    public CountryNewsController(NewsService newsService) {
+    public CountryNewsController(NewsService newsService, CountryNewsBatchService countryNewsBatchService) {
         this.newsService = newsService;
+        this.countryNewsBatchService = countryNewsBatchService;
     }
 
     @GetMapping("/country-news/{code}")
@@ -32,6 +40,15 @@ public class CountryNewsController {
         return ResponseEntity.ok(newsService.getCountryNews(code.toLowerCase()));
     }
 
+    @GetMapping("/country-news")
+    public ResponseEntity<CountryNewsBatchResponse> countryNewsBatch(
+            @RequestParam("codes")
+            @Size(min = 1, max = 30, message = "Request between 1 and 30 countries")
+            List<@Pattern(regexp = "^[A-Za-z]{2}$", message = "Use 2-letter country code, e.g., US") String> codes
+    ) {
+        return ResponseEntity.ok(countryNewsBatchService.getCountryNews(codes));
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("OK");
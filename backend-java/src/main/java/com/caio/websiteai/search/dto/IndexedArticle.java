@@ -0,0 +1,10 @@
+package com.caio.websiteai.search.dto;
+
+import java.util.List;
+
+/**
+ * The searchable fields of a stored article, plus the fields search results can be filtered on.
+ */
+public record IndexedArticle(String id, String title, String description, List<String> tags, String country,
+                             String topic) {
+}
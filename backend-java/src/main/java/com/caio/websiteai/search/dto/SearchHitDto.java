@@ -0,0 +1,12 @@
+package com.caio.websiteai.search.dto;
+
+import com.caio.websiteai.article.dto.ArticleSummaryDto;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class SearchHitDto {
+    ArticleSummaryDto article;
+    double score;
+}
@@ -0,0 +1,16 @@
+package com.caio.websiteai.search.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class SearchResponse {
+    String query;
+    int total;
+    List<SearchHitDto> results;
+    long tookMicros;
+    boolean complete;
+}
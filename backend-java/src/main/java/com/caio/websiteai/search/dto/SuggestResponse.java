@@ -0,0 +1,14 @@
+package com.caio.websiteai.search.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class SuggestResponse {
+    String query;
+    List<SuggestionDto> suggestions;
+    boolean complete;
+}
@@ -0,0 +1,11 @@
+package com.caio.websiteai.search.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * The fields of a stored article that typeahead suggestions are drawn from and weighted by.
+ */
+public record SuggestibleArticle(long urlHash, String title, String source, String topic, OffsetDateTime publishedAt,
+                                 BigDecimal einsteinScore) {
+}
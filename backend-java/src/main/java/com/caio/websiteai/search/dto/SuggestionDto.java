@@ -0,0 +1,12 @@
+package com.caio.websiteai.search.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class SuggestionDto {
+    String text;
+    // "headline" for a word from article titles, "source" or "topic".
+    String type;
+}
@@ -0,0 +1,70 @@
+package com.caio.websiteai.search.repository;
+
+import com.caio.websiteai.common.CanonicalUrl;
+import com.caio.websiteai.search.dto.IndexedArticle;
+import com.caio.websiteai.search.dto.SuggestibleArticle;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the searchable columns of {@code articles} for building the in-memory search and suggestion indexes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArticleSearchRepository {
+
+    private static final String SCAN = "SELECT id, title, description, tags, country, topic_category FROM articles";
+    private static final String SUGGESTIBLE_SCAN =
+            "SELECT url, url_hash, title, source, topic_category, published_at, einstein_score FROM articles";
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Feeds every stored article to {@code consumer}. Runs in a transaction so that the driver streams rows with a
+     * server-side cursor instead of loading the table into memory.
+     */
+    @Transactional(readOnly = true)
+    public void scan(Consumer<IndexedArticle> consumer) {
+        jdbcTemplate.query(con -> streaming(con, SCAN), rs -> {
+            Array tags = rs.getArray("tags");
+            consumer.accept(new IndexedArticle(rs.getString("id"), rs.getString("title"),
+                    rs.getString("description"), tags != null ? Arrays.asList((String[]) tags.getArray()) : List.of(),
+                    rs.getString("country"), rs.getString("topic_category")));
+        });
+    }
+
+    /**
+     * Feeds every stored article's suggestion fields to {@code consumer}, streaming like {@link #scan}. Rows written
+     * before {@code url_hash} existed get the hash computed from their URL.
+     */
+    @Transactional(readOnly = true)
+    public void scanSuggestible(Consumer<SuggestibleArticle> consumer) {
+        jdbcTemplate.query(con -> streaming(con, SUGGESTIBLE_SCAN), rs -> {
+            long urlHash = rs.getLong("url_hash");
+            if (rs.wasNull()) {
+                urlHash = CanonicalUrl.hash(rs.getString("url"));
+            }
+            consumer.accept(new SuggestibleArticle(urlHash, rs.getString("title"), rs.getString("source"),
+                    rs.getString("topic_category"), rs.getObject("published_at", OffsetDateTime.class),
+                    rs.getBigDecimal("einstein_score")));
+        });
+    }
+
+    private static PreparedStatement streaming(Connection con, String sql) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql);
+        ps.setFetchSize(FETCH_SIZE);
+        return ps;
+    }
+}
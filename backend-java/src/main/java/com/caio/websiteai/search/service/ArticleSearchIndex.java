@@ -0,0 +1,178 @@
+package com.caio.websiteai.search.service;
+
+import com.caio.websiteai.article.entity.ArticleEntity;
+import com.caio.websiteai.article.service.ArticlesArchivedEvent;
+import com.caio.websiteai.article.service.ArticlesStoredEvent;
+import com.caio.websiteai.config.BackgroundTasksConfig;
+import com.caio.websiteai.search.dto.IndexedArticle;
+import com.caio.websiteai.search.repository.ArticleSearchRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Application-wide full-text index of stored articles. It is built in the background once the application is
+ * ready by streaming {@code articles}, then kept current from {@link ArticlesStoredEvent} and
+ * {@link ArticlesArchivedEvent} after their transactions commit. Updates that arrive during a build are applied to
+ * the live index and replayed onto the new one before it is swapped in. When tombstoned doc IDs exceed the
+ * configured share of the index, a rebuild compacts them away. Assumes this instance is the only writer of
+ * {@code articles}.
+ */
+@Component
+public class ArticleSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleSearchIndex.class);
+
+    private final ArticleSearchRepository articleSearchRepository;
+    private final double maxDeletedRatio;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Timer queryTimer;
+
+    // Guarded by lock.
+    private InvertedIndex index = new InvertedIndex();
+    private List<Consumer<InvertedIndex>> pendingDuringRebuild;
+    private volatile boolean ready;
+
+    public ArticleSearchIndex(ArticleSearchRepository articleSearchRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${search.index.max-deleted-ratio}") double maxDeletedRatio) {
+        this.articleSearchRepository = articleSearchRepository;
+        this.maxDeletedRatio = maxDeletedRatio;
+        this.queryTimer = Timer.builder("search.index.query").register(meterRegistry);
+        gauge(meterRegistry, "search.index.documents", InvertedIndex::size);
+        gauge(meterRegistry, "search.index.deleted", InvertedIndex::deletedCount);
+        gauge(meterRegistry, "search.index.terms", InvertedIndex::termCount);
+        gauge(meterRegistry, "search.index.posting_bytes", InvertedIndex::postingBytes);
+    }
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = BackgroundTasksConfig.ENABLED)
+    public void rebuildInBackground() {
+        if (rebuilding.compareAndSet(false, true)) {
+            new CustomizableThreadFactory("search-index-").newThread(this::rebuild).start();
+        }
+    }
+
+    void rebuild() {
+        long started = System.nanoTime();
+        withWriteLock(() -> pendingDuringRebuild = new ArrayList<>());
+        try {
+            InvertedIndex fresh = new InvertedIndex();
+            articleSearchRepository.scan(fresh::add);
+            withWriteLock(() -> {
+                pendingDuringRebuild.forEach(update -> update.accept(fresh));
+                index = fresh;
+            });
+            ready = true;
+            log.info("Search index built with {} articles in {} ms", size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            log.warn("Search index build failed; searching the incrementally maintained index: {}", ex.getMessage());
+        } finally {
+            withWriteLock(() -> pendingDuringRebuild = null);
+            rebuilding.set(false);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesStored(ArticlesStoredEvent event) {
+        List<IndexedArticle> articles = event.articles().stream().map(ArticleSearchIndex::toIndexed).toList();
+        update(target -> articles.forEach(target::add));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesArchived(ArticlesArchivedEvent event) {
+        update(target -> event.articleIds().forEach(target::remove));
+    }
+
+    InvertedIndex.Result search(SearchQuery query, String country, String topic, int limit) {
+        long started = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return index.search(query, country, topic, limit);
+        } finally {
+            lock.readLock().unlock();
+            queryTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * {@code false} until the first build from the database has completed; until then only articles stored since
+     * startup are searchable.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Consumer<InvertedIndex> update) {
+        boolean compact = writeLocked(() -> {
+            update.accept(index);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(update);
+                return false;
+            }
+            return ready && index.deletedCount() > maxDeletedRatio * Math.max(1, index.size());
+        });
+        if (compact) {
+            rebuildInBackground();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        writeLocked(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T writeLocked(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, ToDoubleFunction<InvertedIndex> value) {
+        Gauge.builder(name, this, self -> {
+            lock.readLock().lock();
+            try {
+                return value.applyAsDouble(index);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }).register(meterRegistry);
+    }
+
+    private static IndexedArticle toIndexed(ArticleEntity article) {
+        return new IndexedArticle(article.getId(), article.getTitle(), article.getDescription(), article.getTags(),
+                article.getCountry(), article.getTopicCategory());
+    }
+}
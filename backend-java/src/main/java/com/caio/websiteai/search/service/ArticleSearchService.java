@@ -0,0 +1,52 @@
+package com.caio.websiteai.search.service;
+
+import com.caio.websiteai.article.dto.ArticleSummaryDto;
+import com.caio.websiteai.article.repository.ArticleBrowseRepository;
+import com.caio.websiteai.search.dto.SearchHitDto;
+import com.caio.websiteai.search.dto.SearchResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ArticleSearchService {
+
+    private final ArticleSearchIndex articleSearchIndex;
+    private final ArticleBrowseRepository articleBrowseRepository;
+
+    /**
+     * Ranks matches in memory, then loads only the returned page of articles by primary key.
+     */
+    @Transactional(readOnly = true)
+    public SearchResponse search(String query, String country, String topic, int limit) {
+        long started = System.nanoTime();
+        InvertedIndex.Result result = articleSearchIndex.search(SearchQuery.parse(query), country, topic, limit);
+        long tookMicros = (System.nanoTime() - started) / 1_000;
+
+        Map<String, ArticleSummaryDto> articles = articleBrowseRepository
+                .findByIds(result.hits().stream().map(InvertedIndex.Hit::articleId).toList())
+                .stream()
+                .collect(Collectors.toMap(ArticleSummaryDto::getId, Function.identity()));
+        List<SearchHitDto> hits = new ArrayList<>(result.hits().size());
+        for (InvertedIndex.Hit hit : result.hits()) {
+            ArticleSummaryDto article = articles.get(hit.articleId());
+            if (article != null) {
+                hits.add(SearchHitDto.builder().article(article).score(hit.score()).build());
+            }
+        }
+        return SearchResponse.builder()
+                .query(query)
+                .total(result.total())
+                .results(hits)
+                .tookMicros(tookMicros)
+                .complete(articleSearchIndex.isReady())
+                .build();
+    }
+}
@@ -0,0 +1,452 @@
+package com.caio.websiteai.search.service;
+
+import com.caio.websiteai.search.dto.IndexedArticle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Positional inverted index over article title, description and tags, ranked with BM25. Articles get dense int doc
+ * IDs in insertion order; re-indexing or removing an article tombstones its old doc ID, which stays in the posting
+ * lists (and in document frequencies) until the index is rebuilt. Not thread-safe: {@link ArticleSearchIndex}
+ * guards it.
+ */
+final class InvertedIndex {
+
+    // Position gap between fields so that a phrase cannot match across the end of one and the start of the next.
+    static final int FIELD_GAP = 16;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> docByArticle = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private String[] articleIds = new String[1024];
+    private String[] countries = new String[1024];
+    private String[] topics = new String[1024];
+    private int[] lengths = new int[1024];
+    private int docCount;
+    private int deletedCount;
+    private long liveLength;
+
+    void add(IndexedArticle article) {
+        remove(article.id());
+        int doc = docCount++;
+        ensureCapacity(doc + 1);
+
+        Map<String, Positions> terms = new HashMap<>();
+        int position = 0;
+        int length = 0;
+        List<String> fields = new ArrayList<>();
+        fields.add(article.title());
+        fields.add(article.description());
+        if (article.tags() != null) {
+            fields.addAll(article.tags());
+        }
+        for (String field : fields) {
+            List<String> tokens = Tokenizer.tokenize(field);
+            for (String token : tokens) {
+                terms.computeIfAbsent(token, t -> new Positions()).add(position++);
+            }
+            length += tokens.size();
+            position += FIELD_GAP;
+        }
+        terms.forEach((term, positions) ->
+                postings.computeIfAbsent(term, t -> new PostingList()).add(doc, positions.values, positions.size));
+
+        articleIds[doc] = article.id();
+        countries[doc] = article.country();
+        topics[doc] = article.topic();
+        lengths[doc] = length;
+        liveLength += length;
+        docByArticle.put(article.id(), doc);
+    }
+
+    boolean remove(String articleId) {
+        Integer doc = docByArticle.remove(articleId);
+        if (doc == null) {
+            return false;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        liveLength -= lengths[doc];
+        return true;
+    }
+
+    int size() {
+        return docCount - deletedCount;
+    }
+
+    int deletedCount() {
+        return deletedCount;
+    }
+
+    int termCount() {
+        return postings.size();
+    }
+
+    long postingBytes() {
+        return postings.values().stream().mapToLong(PostingList::sizeInBytes).sum();
+    }
+
+    Result search(SearchQuery query, String country, String topic, int limit) {
+        if (query.isEmpty() || size() == 0) {
+            return new Result(List.of(), 0);
+        }
+        List<DocIterator> groups = new ArrayList<>();
+        for (List<SearchQuery.Clause> group : query.required()) {
+            List<DocIterator> alternatives = new ArrayList<>();
+            for (SearchQuery.Clause clause : group) {
+                DocIterator iterator = iterator(clause);
+                if (iterator != null) {
+                    alternatives.add(iterator);
+                }
+            }
+            if (alternatives.isEmpty()) {
+                return new Result(List.of(), 0);
+            }
+            groups.add(alternatives.size() == 1 ? alternatives.get(0) : new OrIterator(alternatives));
+        }
+        List<DocIterator> excluded = new ArrayList<>();
+        for (SearchQuery.Clause clause : query.excluded()) {
+            DocIterator iterator = iterator(clause);
+            if (iterator != null) {
+                excluded.add(iterator);
+            }
+        }
+        DocIterator matches = groups.size() == 1 ? groups.get(0) : new AndIterator(groups);
+
+        // Min-heap of the best hits so far; on equal scores the later (newer) document wins.
+        PriorityQueue<ScoredDoc> best = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble(ScoredDoc::score).thenComparingInt(ScoredDoc::doc));
+        int total = 0;
+        for (int target = 0; matches.advance(target); target = matches.doc() + 1) {
+            int doc = matches.doc();
+            if (deleted.get(doc) || !accepts(doc, country, topic) || isExcluded(doc, excluded)) {
+                continue;
+            }
+            total++;
+            double score = matches.score();
+            // Docs arrive in increasing order, so an equal score displaces the root, which is the oldest of the worst.
+            if (best.size() < limit || score >= best.peek().score()) {
+                best.add(new ScoredDoc(doc, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        Hit[] hits = new Hit[best.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            ScoredDoc scored = best.poll();
+            hits[i] = new Hit(articleIds[scored.doc()], scored.score());
+        }
+        return new Result(List.of(hits), total);
+    }
+
+    private boolean accepts(int doc, String country, String topic) {
+        return (country == null || country.equalsIgnoreCase(countries[doc]))
+                && (topic == null || topic.equalsIgnoreCase(topics[doc]));
+    }
+
+    private static boolean isExcluded(int doc, List<DocIterator> excluded) {
+        for (DocIterator iterator : excluded) {
+            if (iterator.advance(doc) && iterator.doc() == doc) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@code null} when some term of the clause is not in the index, so nothing can match it. */
+    private DocIterator iterator(SearchQuery.Clause clause) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String term : clause.terms()) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return null;
+            }
+            lists.add(list);
+        }
+        return clause.isPhrase() ? new PhraseIterator(lists) : new TermIterator(lists.get(0));
+    }
+
+    private double idf(PostingList list) {
+        int df = list.docCount();
+        return Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+    }
+
+    private double termWeight(int frequency, int doc) {
+        double averageLength = size() > 0 ? Math.max(1.0, (double) liveLength / size()) : 1.0;
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengths[doc] / averageLength));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > articleIds.length) {
+            int grown = Math.max(capacity, articleIds.length * 2);
+            articleIds = Arrays.copyOf(articleIds, grown);
+            countries = Arrays.copyOf(countries, grown);
+            topics = Arrays.copyOf(topics, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+        }
+    }
+
+    record Hit(String articleId, double score) {
+    }
+
+    record Result(List<Hit> hits, int total) {
+    }
+
+    private record ScoredDoc(int doc, double score) {
+    }
+
+    private static final class Positions {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+
+    /**
+     * Matching documents in increasing doc ID order. {@link #doc()} is {@link Integer#MAX_VALUE} once exhausted.
+     */
+    private interface DocIterator {
+
+        /** Moves to the first match at or after {@code target}; {@code false} when there is none. */
+        boolean advance(int target);
+
+        int doc();
+
+        /** BM25 contribution of the current document. */
+        double score();
+
+        /** Upper bound on the number of matches, used to drive intersections from the rarest clause. */
+        int cost();
+    }
+
+    private final class TermIterator implements DocIterator {
+        private final PostingList.Reader reader;
+        private final double idf;
+        private final int cost;
+
+        TermIterator(PostingList list) {
+            this.reader = list.reader();
+            this.idf = idf(list);
+            this.cost = list.docCount();
+        }
+
+        @Override
+        public boolean advance(int target) {
+            return reader.advance(target);
+        }
+
+        @Override
+        public int doc() {
+            return reader.doc();
+        }
+
+        @Override
+        public double score() {
+            return idf * termWeight(reader.freq(), reader.doc());
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+    }
+
+    /**
+     * Documents containing the terms at consecutive positions, scored as one term occurring once per occurrence.
+     */
+    private final class PhraseIterator implements DocIterator {
+        private final PostingList.Reader[] readers;
+        private final int[][] positions;
+        private final double idf;
+        private final int cost;
+        private int doc = -1;
+        private int frequency;
+
+        PhraseIterator(List<PostingList> lists) {
+            readers = new PostingList.Reader[lists.size()];
+            positions = new int[lists.size()][8];
+            double idfSum = 0;
+            int smallest = Integer.MAX_VALUE;
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = lists.get(i).reader();
+                idfSum += idf(lists.get(i));
+                smallest = Math.min(smallest, lists.get(i).docCount());
+            }
+            idf = idfSum;
+            cost = smallest;
+        }
+
+        @Override
+        public boolean advance(int target) {
+            if (doc >= target) {
+                return doc != Integer.MAX_VALUE;
+            }
+            outer:
+            while (true) {
+                // Leapfrog until every term's reader sits on the same document.
+                for (PostingList.Reader reader : readers) {
+                    if (!reader.advance(target)) {
+                        doc = Integer.MAX_VALUE;
+                        return false;
+                    }
+                    if (reader.doc() > target) {
+                        target = reader.doc();
+                        continue outer;
+                    }
+                }
+                frequency = phraseFrequency();
+                if (frequency > 0) {
+                    doc = target;
+                    return true;
+                }
+                target++;
+            }
+        }
+
+        private int phraseFrequency() {
+            for (int i = 0; i < readers.length; i++) {
+                positions[i] = readers[i].positions(positions[i]);
+            }
+            int found = 0;
+            for (int p = 0; p < readers[0].freq(); p++) {
+                int start = positions[0][p];
+                boolean match = true;
+                for (int i = 1; i < readers.length && match; i++) {
+                    match = Arrays.binarySearch(positions[i], 0, readers[i].freq(), start + i) >= 0;
+                }
+                if (match) {
+                    found++;
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public int doc() {
+            return doc;
+        }
+
+        @Override
+        public double score() {
+            return idf * termWeight(frequency, doc);
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+    }
+
+    private static final class AndIterator implements DocIterator {
+        private final DocIterator[] iterators;
+        private int doc = -1;
+
+        AndIterator(List<DocIterator> iterators) {
+            this.iterators = iterators.stream()
+                    .sorted(Comparator.comparingInt(DocIterator::cost))
+                    .toArray(DocIterator[]::new);
+        }
+
+        @Override
+        public boolean advance(int target) {
+            if (doc >= target) {
+                return doc != Integer.MAX_VALUE;
+            }
+            outer:
+            while (true) {
+                for (DocIterator iterator : iterators) {
+                    if (!iterator.advance(target)) {
+                        doc = Integer.MAX_VALUE;
+                        return false;
+                    }
+                    if (iterator.doc() > target) {
+                        target = iterator.doc();
+                        continue outer;
+                    }
+                }
+                doc = target;
+                return true;
+            }
+        }
+
+        @Override
+        public int doc() {
+            return doc;
+        }
+
+        @Override
+        public double score() {
+            double score = 0;
+            for (DocIterator iterator : iterators) {
+                score += iterator.score();
+            }
+            return score;
+        }
+
+        @Override
+        public int cost() {
+            return iterators[0].cost();
+        }
+    }
+
+    private static final class OrIterator implements DocIterator {
+        private final List<DocIterator> iterators;
+        private final int cost;
+        private int doc = -1;
+
+        OrIterator(List<DocIterator> iterators) {
+            this.iterators = iterators;
+            this.cost = iterators.stream().mapToInt(DocIterator::cost).sum();
+        }
+
+        @Override
+        public boolean advance(int target) {
+            if (doc >= target) {
+                return doc != Integer.MAX_VALUE;
+            }
+            doc = Integer.MAX_VALUE;
+            for (DocIterator iterator : iterators) {
+                if (iterator.advance(target)) {
+                    doc = Math.min(doc, iterator.doc());
+                }
+            }
+            return doc != Integer.MAX_VALUE;
+        }
+
+        @Override
+        public int doc() {
+            return doc;
+        }
+
+        @Override
+        public double score() {
+            double score = 0;
+            for (DocIterator iterator : iterators) {
+                if (iterator.doc() == doc) {
+                    score += iterator.score();
+                }
+            }
+            return score;
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+    }
+}
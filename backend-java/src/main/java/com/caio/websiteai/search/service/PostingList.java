@@ -0,0 +1,164 @@
+package com.caio.websiteai.search.service;
+
+import java.util.Arrays;
+
+/**
+ * Append-only posting list for one term. Each document is stored as varints: the gap from the previous doc ID,
+ * the term frequency, the byte length of the positions, then the gaps between the term's positions. The length lets
+ * readers that do not need positions step over them without decoding. Doc IDs must be added in increasing order. Every
+ * {@value #SKIP_INTERVAL} documents a skip entry records where the next block starts, so that intersections can
+ * jump over blocks instead of decoding them.
+ */
+final class PostingList {
+
+    static final int SKIP_INTERVAL = 64;
+
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int lastDoc = -1;
+    private int docCount;
+    private int[] skipDocs = new int[0];
+    private int[] skipOffsets = new int[0];
+    private int skipCount;
+
+    void add(int doc, int[] positions, int count) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Doc " + doc + " added after " + lastDoc);
+        }
+        if (docCount > 0 && docCount % SKIP_INTERVAL == 0) {
+            if (skipCount == skipDocs.length) {
+                skipDocs = Arrays.copyOf(skipDocs, Math.max(4, skipCount * 2));
+                skipOffsets = Arrays.copyOf(skipOffsets, skipDocs.length);
+            }
+            skipDocs[skipCount] = lastDoc;
+            skipOffsets[skipCount++] = length;
+        }
+        writeVarint(doc - lastDoc);
+        writeVarint(count);
+        int positionBytes = 0;
+        for (int i = 0; i < count; i++) {
+            positionBytes += varintSize(positions[i] - (i > 0 ? positions[i - 1] : 0));
+        }
+        writeVarint(positionBytes);
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarint(positions[i] - previous);
+            previous = positions[i];
+        }
+        lastDoc = doc;
+        docCount++;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    int sizeInBytes() {
+        return length;
+    }
+
+    Reader reader() {
+        return new Reader();
+    }
+
+    private static int varintSize(int value) {
+        return value < 0 ? 5 : (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+    private void writeVarint(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    /**
+     * Forward-only cursor over the list as it was when the reader was created.
+     */
+    final class Reader {
+        private final byte[] data = bytes;
+        private final int end = length;
+        private final int[] blockDocs = skipDocs;
+        private final int[] blockOffsets = skipOffsets;
+        private final int blocks = skipCount;
+        private int nextBlock;
+        private int offset;
+        private int doc = -1;
+        private int freq;
+        private int positionsOffset;
+
+        boolean next() {
+            if (offset >= end) {
+                doc = Integer.MAX_VALUE;
+                return false;
+            }
+            doc += readVarint();
+            freq = readVarint();
+            int positionBytes = readVarint();
+            positionsOffset = offset;
+            offset += positionBytes;
+            return true;
+        }
+
+        /** Moves to the first document at or after {@code target}. */
+        boolean advance(int target) {
+            if (doc >= target) {
+                return doc != Integer.MAX_VALUE;
+            }
+            // Jump to the last block that starts before the target, when that is ahead of the current position.
+            // Targets only increase, so the block cursor moves forward and never needs a search.
+            if (nextBlock < blocks && blockDocs[nextBlock] < target) {
+                do {
+                    nextBlock++;
+                } while (nextBlock < blocks && blockDocs[nextBlock] < target);
+                if (blockOffsets[nextBlock - 1] > offset) {
+                    offset = blockOffsets[nextBlock - 1];
+                    doc = blockDocs[nextBlock - 1];
+                }
+            }
+            while (doc < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return doc != Integer.MAX_VALUE;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int freq() {
+            return freq;
+        }
+
+        /** Decodes the current document's positions into {@code into}, growing it if needed. */
+        int[] positions(int[] into) {
+            int[] positions = into.length >= freq ? into : new int[freq];
+            int saved = offset;
+            offset = positionsOffset;
+            int position = 0;
+            for (int i = 0; i < freq; i++) {
+                position += readVarint();
+                positions[i] = position;
+            }
+            offset = saved;
+            return positions;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
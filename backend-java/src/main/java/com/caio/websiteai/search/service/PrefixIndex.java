@@ -0,0 +1,257 @@
+package com.caio.websiteai.search.service;
+
+import com.caio.websiteai.search.dto.SuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable completion index: suggestion texts sorted case-insensitively and packed into one {@code char[]}, so a
+ * prefix maps to a contiguous range found by binary search. A second array orders the entries by weight. Lookups
+ * compare in place and allocate only the returned list; large ranges are ranked in a heap buffer reused per thread.
+ * Thread-safe once built.
+ */
+final class PrefixIndex {
+
+    static final PrefixIndex EMPTY = build(Map.of());
+
+    // Ranges up to this size are ranked by scanning them; larger ones by a bounded heap over the range.
+    static final int SCAN_LIMIT = 256;
+    // A range holding at least 1/DENSE_SHARE of all entries is ranked by walking the entries in weight order instead:
+    // its heaviest matches turn up within about limit * DENSE_SHARE steps, and even a worst-case walk is then only a
+    // constant factor longer than scanning the range.
+    static final int DENSE_SHARE = 16;
+
+    // Shared by every index, so a rebuild does not drop the threads' buffers; grown to the largest limit seen.
+    private static final ThreadLocal<int[]> HEAP = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final char[] chars;
+    private final int[] offsets;
+    private final SuggestionKind[] kinds;
+    private final float[] weights;
+    private final int[] byWeight;
+
+    private PrefixIndex(char[] chars, int[] offsets, SuggestionKind[] kinds, float[] weights, int[] byWeight) {
+        this.chars = chars;
+        this.offsets = offsets;
+        this.kinds = kinds;
+        this.weights = weights;
+        this.byWeight = byWeight;
+    }
+
+    static PrefixIndex build(Map<Suggestion, Double> weighted) {
+        List<Map.Entry<Suggestion, Double>> entries = new ArrayList<>(weighted.entrySet());
+        entries.sort(Comparator.comparing((Map.Entry<Suggestion, Double> e) -> e.getKey().text(),
+                        String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(e -> e.getKey().kind()));
+
+        int size = entries.size();
+        int[] offsets = new int[size + 1];
+        SuggestionKind[] kinds = new SuggestionKind[size];
+        float[] weights = new float[size];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            Map.Entry<Suggestion, Double> entry = entries.get(i);
+            offsets[i] = text.length();
+            text.append(entry.getKey().text());
+            kinds[i] = entry.getKey().kind();
+            weights[i] = entry.getValue().floatValue();
+        }
+        offsets[size] = text.length();
+        char[] chars = new char[text.length()];
+        text.getChars(0, text.length(), chars, 0);
+
+        int[] byWeight = IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> -weights[i]).thenComparingInt(i -> i))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        return new PrefixIndex(chars, offsets, kinds, weights, byWeight);
+    }
+
+    int size() {
+        return kinds.length;
+    }
+
+    long sizeInBytes() {
+        return chars.length * 2L + offsets.length * 4L + kinds.length * 4L + weights.length * 4L + byWeight.length * 4L;
+    }
+
+    /**
+     * Up to {@code limit} entries starting with {@code prefix} (ignoring case), heaviest first.
+     */
+    List<SuggestionDto> complete(CharSequence prefix, int limit) {
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        int from = bound(prefix, false);
+        int to = bound(prefix, true);
+        int matches = to - from;
+        List<SuggestionDto> results = new ArrayList<>(Math.min(limit, matches));
+        if (matches <= SCAN_LIMIT) {
+            // Selection by repeated scans: each round takes the best entry ranked below the previous pick.
+            int previous = -1;
+            for (int round = 0; round < Math.min(limit, matches); round++) {
+                int best = -1;
+                for (int i = from; i < to; i++) {
+                    if ((previous < 0 || ranksAfter(weights, i, previous)) && (best < 0 || ranksAfter(weights, best, i))) {
+                        best = i;
+                    }
+                }
+                results.add(toDto(best));
+                previous = best;
+            }
+        } else if ((long) matches * DENSE_SHARE >= size()) {
+            for (int i = 0; i < byWeight.length && results.size() < limit; i++) {
+                int entry = byWeight[i];
+                if (entry >= from && entry < to) {
+                    results.add(toDto(entry));
+                }
+            }
+        } else {
+            int count = Math.min(limit, matches);
+            int[] heap = heap(count);
+            selectTop(heap, from, to, count);
+            for (int n = 0; n < count; n++) {
+                results.add(toDto(heap[n]));
+            }
+        }
+        return results;
+    }
+
+    private static int[] heap(int capacity) {
+        int[] heap = HEAP.get();
+        if (heap.length < capacity) {
+            heap = new int[capacity];
+            HEAP.set(heap);
+        }
+        return heap;
+    }
+
+    /**
+     * Leaves the {@code count} best entries in {@code [from, to)} at the front of {@code heap}, best first; the range
+     * must hold at least {@code count} entries. They are kept in a heap whose root is the worst of them so far, one
+     * pass over the range in O(range * log count), then sorted in place by moving the root behind the shrinking heap.
+     */
+    private void selectTop(int[] heap, int from, int to, int count) {
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            if (size < count) {
+                heap[size] = i;
+                siftUp(heap, size++);
+            } else if (ranksAfter(weights, heap[0], i)) {
+                heap[0] = i;
+                siftDown(heap, size);
+            }
+        }
+        for (int n = size - 1; n > 0; n--) {
+            swap(heap, 0, n);
+            siftDown(heap, n);
+        }
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksAfter(weights, heap[index], heap[parent])) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int worst = 2 * index + 1;
+            if (worst >= size) {
+                return;
+            }
+            if (worst + 1 < size && ranksAfter(weights, heap[worst + 1], heap[worst])) {
+                worst++;
+            }
+            if (!ranksAfter(weights, heap[worst], heap[index])) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int entry = heap[a];
+        heap[a] = heap[b];
+        heap[b] = entry;
+    }
+
+    /** First entry that does not sort before {@code prefix}, or (when {@code past}) does not start with it. */
+    private int bound(CharSequence prefix, boolean past) {
+        int low = 0;
+        int high = kinds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparePrefix(mid, prefix);
+            if (cmp < 0 || (past && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Negative when the entry sorts before {@code prefix}, zero when it starts with it, positive otherwise. */
+    private int comparePrefix(int entry, CharSequence prefix) {
+        int start = offsets[entry];
+        int length = offsets[entry + 1] - start;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (i == length) {
+                return -1;
+            }
+            int cmp = fold(chars[start + i]) - fold(prefix.charAt(i));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    // Matches String.CASE_INSENSITIVE_ORDER, which the entries are sorted by.
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /** Whether {@code a} ranks after {@code b}: lighter, or as heavy and later in text order. */
+    private static boolean ranksAfter(float[] weights, int a, int b) {
+        return weights[a] < weights[b] || (weights[a] == weights[b] && a > b);
+    }
+
+    private SuggestionDto toDto(int entry) {
+        return SuggestionDto.builder()
+                .text(new String(chars, offsets[entry], offsets[entry + 1] - offsets[entry]))
+                .type(kinds[entry].label())
+                .build();
+    }
+
+    record Suggestion(SuggestionKind kind, String text) {
+    }
+
+    enum SuggestionKind {
+        TERM("headline"),
+        SOURCE("source"),
+        TOPIC("topic");
+
+        private final String label;
+
+        SuggestionKind(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+}
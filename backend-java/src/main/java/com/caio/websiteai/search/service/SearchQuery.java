@@ -0,0 +1,86 @@
+package com.caio.websiteai.search.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed search query. Space-separated clauses must all match; {@code OR} between clauses makes either one enough;
+ * a leading {@code -} excludes a clause; double quotes make a phrase whose terms must appear consecutively. For
+ * example {@code "climate policy" eu OR uk -opinion}.
+ */
+public record SearchQuery(List<List<Clause>> required, List<Clause> excluded) {
+
+    static final int MAX_CLAUSES = 32;
+
+    public static SearchQuery parse(String text) {
+        List<List<Clause>> required = new ArrayList<>();
+        List<Clause> excluded = new ArrayList<>();
+        boolean orNext = false;
+        int clauses = 0;
+        int i = 0;
+        while (i < text.length() && clauses < MAX_CLAUSES) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            boolean negated = c == '-';
+            if (negated) {
+                i++;
+            }
+            boolean quoted = i < text.length() && text.charAt(i) == '"';
+            int end;
+            String raw;
+            if (quoted) {
+                end = text.indexOf('"', i + 1);
+                end = end < 0 ? text.length() : end;
+                raw = text.substring(i + 1, end);
+                end = Math.min(end + 1, text.length());
+            } else {
+                end = i;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                raw = text.substring(i, end);
+            }
+            i = end;
+
+            if (!quoted && !negated && raw.equals("OR")) {
+                orNext = !required.isEmpty();
+                continue;
+            }
+            if (!quoted && !negated && raw.equals("AND")) {
+                continue;
+            }
+            List<String> terms = Tokenizer.tokenize(raw);
+            if (terms.isEmpty()) {
+                continue;
+            }
+            // An unquoted word that tokenizes into several terms ("u.s.") is matched as a phrase.
+            Clause clause = new Clause(List.copyOf(terms));
+            clauses++;
+            if (negated) {
+                excluded.add(clause);
+            } else if (orNext) {
+                required.get(required.size() - 1).add(clause);
+            } else {
+                required.add(new ArrayList<>(List.of(clause)));
+            }
+            orNext = false;
+        }
+        return new SearchQuery(required, excluded);
+    }
+
+    public boolean isEmpty() {
+        return required.isEmpty();
+    }
+
+    /**
+     * A single term, or a phrase when it has several.
+     */
+    public record Clause(List<String> terms) {
+        public boolean isPhrase() {
+            return terms.size() > 1;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.caio.websiteai.search.service;
+
+import com.caio.websiteai.article.entity.ArticleEntity;
+import com.caio.websiteai.article.service.ArticlesStoredEvent;
+import com.caio.websiteai.common.CanonicalUrl;
+import com.caio.websiteai.common.LongHashSet;
+import com.caio.websiteai.config.BackgroundTasksConfig;
+import com.caio.websiteai.search.dto.SuggestibleArticle;
+import com.caio.websiteai.search.dto.SuggestionDto;
+import com.caio.websiteai.search.repository.ArticleSearchRepository;
+import com.caio.websiteai.search.service.PrefixIndex.Suggestion;
+import com.caio.websiteai.search.service.PrefixIndex.SuggestionKind;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typeahead completions over article title words, source names and topic categories. Each stored article adds its
+ * weight, {@code 1 + einstein_score / 100} decayed by age with the configured half-life, to the suggestions it
+ * contains. Weights are accumulated once the application is ready by streaming {@code articles}, then from
+ * {@link ArticlesStoredEvent}; a background task periodically compiles them into a new {@link PrefixIndex} and swaps
+ * it in, so lookups never wait for updates. Suggestions whose current weight falls below the configured minimum are
+ * dropped at compile time.
+ */
+@Component
+public class SuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "with", "from", "that", "this", "are", "was", "were", "has", "have", "had", "its",
+            "not", "but", "you", "his", "her", "they", "will", "can", "into", "over", "after", "about", "more",
+            "new", "says", "than", "who", "what", "how", "why", "when", "out", "our", "all");
+
+    private final ArticleSearchRepository articleSearchRepository;
+    private final Duration halfLife;
+    private final double minWeight;
+    // Forward decay: weights grow with publication time relative to this instant instead of being decayed in place.
+    private final long epochMillis = System.currentTimeMillis();
+
+    // Guarded by this.
+    private final Map<Suggestion, Double> weights = new HashMap<>();
+    private final LongHashSet countedUrls = new LongHashSet(1024);
+    private boolean dirty;
+
+    private volatile PrefixIndex index = PrefixIndex.EMPTY;
+    private volatile boolean ready;
+
+    public SuggestionIndex(ArticleSearchRepository articleSearchRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${search.suggest.half-life}") Duration halfLife,
+                           @Value("${search.suggest.min-weight}") double minWeight) {
+        this.articleSearchRepository = articleSearchRepository;
+        this.halfLife = halfLife;
+        this.minWeight = minWeight;
+        Gauge.builder("search.suggest.entries", this, self -> self.index.size()).register(meterRegistry);
+        Gauge.builder("search.suggest.bytes", this, self -> self.index.sizeInBytes()).register(meterRegistry);
+    }
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = BackgroundTasksConfig.ENABLED)
+    public void loadInBackground() {
+        new CustomizableThreadFactory("suggestion-index-").newThread(this::load).start();
+    }
+
+    void load() {
+        long started = System.nanoTime();
+        try {
+            articleSearchRepository.scanSuggestible(this::add);
+            ready = true;
+            rebuild();
+            log.info("Suggestion index built with {} entries in {} ms", index.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            log.warn("Suggestion index load failed; suggesting from articles stored since startup: {}", ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesStored(ArticlesStoredEvent event) {
+        event.articles().forEach(article -> add(toSuggestible(article)));
+    }
+
+    /**
+     * Compiles the accumulated weights into a fresh index when they changed since the last compile.
+     */
+    @Scheduled(fixedDelayString = "${search.suggest.rebuild-interval}")
+    public void rebuild() {
+        Map<Suggestion, Double> snapshot;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            double floor = minWeight * decayFactor(System.currentTimeMillis());
+            weights.values().removeIf(weight -> weight < floor);
+            snapshot = new HashMap<>(weights);
+            dirty = false;
+        }
+        index = PrefixIndex.build(snapshot);
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return index.complete(prefix, limit);
+    }
+
+    /**
+     * {@code false} until the first load from the database has completed.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    void add(SuggestibleArticle article) {
+        OffsetDateTime published = article.publishedAt() != null ? article.publishedAt() : OffsetDateTime.now();
+        double score = article.einsteinScore() != null ? article.einsteinScore().doubleValue() : 0.0;
+        double weight = (1 + score / 100) * decayFactor(published.toInstant().toEpochMilli());
+        synchronized (this) {
+            // Updated articles are stored again; count each one once.
+            if (!countedUrls.add(article.urlHash())) {
+                return;
+            }
+            for (String term : Tokenizer.tokenize(article.title())) {
+                if (term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term) && !isNumber(term)) {
+                    weights.merge(new Suggestion(SuggestionKind.TERM, term), weight, Double::sum);
+                }
+            }
+            if (StringUtils.hasText(article.source())) {
+                weights.merge(new Suggestion(SuggestionKind.SOURCE, article.source().trim()), weight, Double::sum);
+            }
+            if (StringUtils.hasText(article.topic())) {
+                weights.merge(new Suggestion(SuggestionKind.TOPIC, article.topic().trim()), weight, Double::sum);
+            }
+            dirty = true;
+        }
+    }
+
+    private double decayFactor(long atMillis) {
+        return Math.pow(2, (double) (atMillis - epochMillis) / halfLife.toMillis());
+    }
+
+    private static boolean isNumber(String term) {
+        return term.chars().allMatch(Character::isDigit);
+    }
+
+    private static SuggestibleArticle toSuggestible(ArticleEntity article) {
+        long urlHash = article.getUrlHash() != null ? article.getUrlHash() : CanonicalUrl.hash(article.getUrl());
+        return new SuggestibleArticle(urlHash, article.getTitle(), article.getSource(), article.getTopicCategory(),
+                article.getPublishedAt(), article.getEinsteinScore());
+    }
+}
@@ -0,0 +1,83 @@
+package com.caio.websiteai.search.web;
+
+import com.caio.websiteai.search.dto.SearchResponse;
+import com.caio.websiteai.search.dto.SuggestResponse;
+import com.caio.websiteai.search.service.ArticleSearchService;
+import com.caio.websiteai.search.service.SuggestionIndex;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+@Validated
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final ArticleSearchService articleSearchService;
+    private final SuggestionIndex suggestionIndex;
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchResponse> search(
+            @RequestParam("q")
+            @NotBlank(message = "Query must not be blank")
+            @Size(max = 500, message = "Query must be at most 500 characters")
+            String query,
+            @RequestParam(value = "country", required = false)
+            @Pattern(regexp = "^[A-Za-z]{2}$", message = "Use 2-letter country code, e.g., US")
+            String country,
+            @RequestParam(value = "topic", required = false) String topic,
+            @RequestParam(value = "limit", defaultValue = "20")
+            @Min(value = 1, message = "limit must be at least 1")
+            @Max(value = 100, message = "limit must be at most 100")
+            int limit
+    ) {
+        return ResponseEntity.ok(articleSearchService.search(query, country, topic, limit));
+    }
+
+    // Path kept from the Node backend.
+    @GetMapping("/country/{code}/search")
+    public ResponseEntity<SearchResponse> countrySearch(
+            @PathVariable("code")
+            @Pattern(regexp = "^[A-Za-z]{2}$", message = "Use 2-letter country code, e.g., US")
+            String code,
+            @RequestParam("q")
+            @NotBlank(message = "Query must not be blank")
+            @Size(max = 500, message = "Query must be at most 500 characters")
+            String query,
+            @RequestParam(value = "limit", defaultValue = "20")
+            @Min(value = 1, message = "limit must be at least 1")
+            @Max(value = 100, message = "limit must be at most 100")
+            int limit
+    ) {
+        return ResponseEntity.ok(articleSearchService.search(query, code, null, limit));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<SuggestResponse> suggest(
+            @RequestParam("q")
+            @NotBlank(message = "Query must not be blank")
+            @Size(max = 100, message = "Query must be at most 100 characters")
+            String query,
+            @RequestParam(value = "limit", defaultValue = "10")
+            @Min(value = 1, message = "limit must be at least 1")
+            @Max(value = 10, message = "limit must be at most 10")
+            int limit
+    ) {
+        return ResponseEntity.ok(SuggestResponse.builder()
+                .query(query)
+                .suggestions(suggestionIndex.suggest(query.strip(), limit))
+                .complete(suggestionIndex.isReady())
+                .build());
+    }
+}
@@ -0,0 +1,30 @@
+-- Article tags and news source focus areas move from element-collection tables to text[] columns on the owning
+-- row (Hibernate has already added the columns). Existing rows are copied over, then the old tables are dropped.
+DO $$
+BEGIN
+    IF to_regclass('article_tags') IS NOT NULL THEN
+        UPDATE articles a
+        SET tags = t.tags
+        FROM (SELECT article_id, array_agg(tag ORDER BY ctid) AS tags FROM article_tags GROUP BY article_id) t
+        WHERE a.id = t.article_id AND a.tags IS NULL;
+        DROP TABLE article_tags;
+    END IF;
+
+    IF to_regclass('news_source_focus_areas') IS NOT NULL THEN
+        UPDATE news_sources s
+        SET focus_areas = f.focus_areas
+        FROM (SELECT news_source_id, array_agg(focus_area ORDER BY ctid) AS focus_areas
+              FROM news_source_focus_areas GROUP BY news_source_id) f
+        WHERE s.id = f.news_source_id AND s.focus_areas IS NULL;
+        DROP TABLE news_source_focus_areas;
+    END IF;
+END
+$$;
+
+UPDATE articles SET tags = '{}' WHERE tags IS NULL;
+ALTER TABLE articles ALTER COLUMN tags SET DEFAULT '{}', ALTER COLUMN tags SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_articles_tags ON articles USING GIN (tags);
+
+UPDATE news_sources SET focus_areas = '{}' WHERE focus_areas IS NULL;
+ALTER TABLE news_sources ALTER COLUMN focus_areas SET DEFAULT '{}', ALTER COLUMN focus_areas SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_news_sources_focus_areas ON news_sources USING GIN (focus_areas);
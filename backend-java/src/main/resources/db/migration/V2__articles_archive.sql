@@ -0,0 +1,41 @@
+-- Cold storage for articles past the hot retention period, range-partitioned by month of published_at so old
+-- months can be detached and dropped in one step. Monthly partitions are created by ArticleRetentionJob;
+-- articles without a publication date land in the default partition.
+-- The columns are spelled out rather than copied with LIKE articles: ddl-auto adds new ArticleEntity columns to
+-- articles only, so each one needs its own ALTER TABLE articles_archive ADD COLUMN migration.
+CREATE TABLE IF NOT EXISTS articles_archive (
+    id                  VARCHAR(255) NOT NULL,
+    title               TEXT NOT NULL,
+    url                 TEXT NOT NULL,
+    url_hash            BIGINT,
+    content_fingerprint BIGINT,
+    source              VARCHAR(255),
+    author              VARCHAR(255),
+    published_at        TIMESTAMP(6) WITH TIME ZONE,
+    description         TEXT,
+    content             TEXT,
+    country             VARCHAR(10),
+    category            VARCHAR(50),
+    rel_score           INTEGER,
+    ana_score           INTEGER,
+    einstein_score      NUMERIC(5, 2),
+    topic_category      VARCHAR(100),
+    provenance          VARCHAR(100),
+    search_query        TEXT,
+    language            VARCHAR(10),
+    sentiment_score     NUMERIC(3, 2),
+    readability_score   INTEGER,
+    word_count          INTEGER,
+    image_url           TEXT,
+    tags                TEXT[] NOT NULL DEFAULT '{}',
+    is_premium          BOOLEAN,
+    is_breaking         BOOLEAN,
+    view_count          INTEGER,
+    share_count         INTEGER,
+    created_at          TIMESTAMP(6) WITH TIME ZONE,
+    updated_at          TIMESTAMP(6) WITH TIME ZONE,
+    archived_at         TIMESTAMP(6) WITH TIME ZONE
+) PARTITION BY RANGE (published_at);
+CREATE TABLE IF NOT EXISTS articles_archive_undated PARTITION OF articles_archive DEFAULT;
+CREATE INDEX IF NOT EXISTS idx_articles_archive_id ON articles_archive (id);
+CREATE INDEX IF NOT EXISTS idx_articles_archive_url_hash ON articles_archive (url_hash);
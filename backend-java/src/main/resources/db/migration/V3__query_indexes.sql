@@ -0,0 +1,30 @@
+-- migration: no-transaction
+-- Indexes for the queries the application actually runs, built CONCURRENTLY so writes continue meanwhile.
+-- If a build fails, drop the INVALID index it leaves behind and delete this version from schema_migrations.
+
+-- Trending topics: published_at range with topic_category grouping, answered from the index alone.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_articles_published_topic
+    ON articles (published_at) INCLUDE (topic_category, rel_score, ana_score)
+    WHERE topic_category IS NOT NULL;
+
+-- Per-country and per-topic browsing, newest first.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_articles_country_published
+    ON articles (country, published_at DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_articles_topic_published
+    ON articles (topic_category, published_at DESC, id DESC);
+
+-- Newest-first reads without a filter, and tag lookups ordered by recency.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_articles_published
+    ON articles (published_at DESC, id DESC);
+
+-- Retention job: matches the COALESCE(published_at, created_at) predicate exactly.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_articles_retention
+    ON articles ((COALESCE(published_at, created_at)));
+
+-- Leaderboard: per-country submission users and per-user achievement counts.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_game_submissions_country_user
+    ON game_submissions (country, user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_achievements_user
+    ON user_achievements (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_game_scores_score
+    ON game_scores (score DESC);
@@ -0,0 +1,128 @@
+package com.caio.websiteai.ai.service;
+
+import com.caio.websiteai.news.dto.Article;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleScoringServiceTest {
+
+    private static final String[] FRAGMENTS = {
+            "AI ", "ai", " Research", "OpenAI", "ChatGPT", "quantum computing", "Google", "AWS outage", "deal", "$",
+            "Netflix trailer", "policy", "Regulation", "study", "startup funding", "billion", "neural network",
+            "machine learning innovation", "ethics", "defense", "growth", "risk", "ban", "warning", "İnnovation",
+            "SECURITY", "clip-on", "off right now", "ai national security", " ", "  ", "\t", "-", "é", "İ", "data"
+    };
+
+    private final ArticleScoringService service = new ArticleScoringService(
+            new ScoringRuleEngine(new DefaultResourceLoader(), event -> { }, "classpath:scoring-rules.yml"));
+
+    @Test
+    void scoresMatchLegacyImplementation() {
+        Random random = new Random(7734);
+        for (int i = 0; i < 5_000; i++) {
+            Article article = Article.builder()
+                    .title(randomText(random))
+                    .description(random.nextInt(5) == 0 ? null : randomText(random))
+                    .source(random.nextBoolean() ? "Reuters Technology" : "Local Gazette")
+                    .build();
+
+            assertThat(service.scoreArticleRelevance(article))
+                    .as("relevance for %s", article)
+                    .isEqualTo(legacyRelevance(article));
+            assertThat(service.scoreAnalysisDepth(article))
+                    .as("depth for %s", article)
+                    .isEqualTo(legacyDepth(article));
+
+            KeywordHits hits = service.matchKeywords(article.getTitle(), article.getDescription());
+            String newsServiceText = (article.getTitle() + " " + article.getDescription()).toLowerCase(Locale.ENGLISH);
+            for (String group : hits.rules().groupNames()) {
+                long expected = hits.rules().groupKeywords(group).stream().filter(newsServiceText::contains).count();
+                assertThat(hits.count(group)).as("%s in %s", group, newsServiceText).isEqualTo((int) expected);
+            }
+        }
+    }
+
+    @Test
+    void blankTitleScoresZero() {
+        Article article = Article.builder().title(" ").description("AI research breakthrough").build();
+        assertThat(service.scoreArticleRelevance(article)).isZero();
+        assertThat(service.scoreAnalysisDepth(article)).isZero();
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int parts = random.nextInt(8);
+        for (int i = 0; i < parts; i++) {
+            String fragment = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+            text.append(random.nextBoolean() ? fragment : fragment.toUpperCase(Locale.ENGLISH));
+            if (random.nextInt(3) == 0) {
+                text.append(' ');
+            }
+        }
+        if (random.nextInt(10) == 0) {
+            text.append("x".repeat(160));
+        }
+        return text.toString();
+    }
+
+    private static int legacyDepth(Article article) {
+        if (article == null || article.getTitle() == null || article.getTitle().isBlank()) {
+            return 0;
+        }
+        String text = (article.getTitle() + " " + nonNull(article.getDescription())).toLowerCase(Locale.ENGLISH);
+        int score = 20;
+        score += 25 * count(text, "quantum", "algorithm", "breakthrough", "outperforms", "supercomputer", "outage", "aws", "openai", "chatgpt");
+        score += 15 * count(text, "analysis", "report", "study", "research", "data", "market", "industry", "experts", "warning");
+        score += 10 * count(text, "browser", "rival", "google", "technology", "cloud", "complexity", "scale");
+        if (article.getDescription() != null && !article.getDescription().isBlank() && article.getDescription().length() > 150) {
+            score += 15;
+        }
+        if (article.getSource() != null && count(article.getSource().toLowerCase(Locale.ENGLISH), "ars", "wired", "bbc", "techcrunch", "reuters") > 0) {
+            score += 20;
+        }
+        return Math.min(score, 100);
+    }
+
+    private static int legacyRelevance(Article article) {
+        if (article == null || article.getTitle() == null || article.getTitle().isBlank()) {
+            return 0;
+        }
+        String text = (article.getTitle() + " " + nonNull(article.getDescription())).toLowerCase(Locale.ENGLISH);
+        int score = 5;
+        score += 40 * count(text, "artificial intelligence breakthrough", "ai research", "machine learning innovation",
+                "ai government", "ai policy", "ai regulation", "ai national security",
+                "quantum computing", "neural network", "deep learning");
+        int ai = count(text, "artificial intelligence", "ai ", "machine learning", "chatgpt", "openai", "algorithm");
+        score += 30 * ai;
+        if (ai > 0) {
+            score += 25 * count(text, "google", "amazon", "aws", "microsoft", "apple", "meta", "nvidia");
+        }
+        score += 20 * count(text, "research", "breakthrough", "innovation", "policy", "regulation", "security");
+        score += 15 * count(text, "startup funding", "ai investment", "venture capital", "billion", "valuation");
+        score -= 60 * count(text, "deal", "sale", "discount", "buy", "price", "review", "specs", "off right now",
+                "camera", "speaker", "headphones", "ebike", "gadget", "$", "clip-on");
+        score -= 50 * count(text, "troll", "trailer", "movie", "netflix", "game");
+        return Math.min(score, 100);
+    }
+
+    private static int count(String text, String... keywords) {
+        List<String> found = new ArrayList<>();
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) {
+                found.add(keyword);
+            }
+        }
+        return found.size();
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,63 @@
+package com.caio.websiteai.ai.service;
+
+import com.caio.websiteai.news.dto.Article;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoringRuleEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void swapsRulesWhenFileChangesAndKeepsThemWhenItBreaks() throws IOException {
+        Path rules = tempDir.resolve("scoring-rules.yml");
+        String defaults = defaultRules();
+        Files.writeString(rules, defaults);
+        List<ScoringRulesChangedEvent> events = new ArrayList<>();
+        ScoringRuleEngine engine = new ScoringRuleEngine(new DefaultResourceLoader(),
+                event -> events.add((ScoringRulesChangedEvent) event), rules.toUri().toString());
+        ArticleScoringService service = new ArticleScoringService(engine);
+        String before = engine.current().version();
+        ArticleTextFeatures features = service.extractFeatures(
+                Article.builder().title("Netflix trailer").build());
+        assertThat(service.scoreArticleRelevance(features)).isEqualTo(5 - 100);
+
+        engine.reloadIfChanged();
+        assertThat(events).isEmpty();
+
+        Files.writeString(rules, defaults.replace("weight: -50", "weight: -10"));
+        engine.reloadIfChanged();
+
+        assertThat(engine.current().version()).isNotEqualTo(before);
+        assertThat(events).containsExactly(new ScoringRulesChangedEvent(before, engine.current().version()));
+        assertThat(service.scoreArticleRelevance(features)).as("features keep the rules they were built with")
+                .isEqualTo(5 - 100);
+        assertThat(service.scoreArticleRelevance(service.extractFeatures(
+                Article.builder().title("Netflix trailer").build()))).isEqualTo(5 - 20);
+
+        String active = engine.current().version();
+        Files.writeString(rules, defaults.replace("requires: ai", "requires: nothing"));
+        engine.reloadIfChanged();
+
+        assertThat(engine.current().version()).isEqualTo(active);
+        assertThat(events).hasSize(1);
+    }
+
+    private static String defaultRules() throws IOException {
+        try (InputStream in = ScoringRuleEngineTest.class.getResourceAsStream("/scoring-rules.yml")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.caio.websiteai.article.repository;
+
+import com.caio.websiteai.article.entity.ArticleEntity;
+import jakarta.persistence.Column;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleArchiveRepositoryTest {
+
+    private static final Pattern CREATE_TABLE =
+            Pattern.compile("CREATE TABLE IF NOT EXISTS articles_archive \\((.*?)\\) PARTITION BY", Pattern.DOTALL);
+    private static final Pattern COLUMN_DEFINITION = Pattern.compile("^\\s*(\\w+)\\s", Pattern.MULTILINE);
+    private static final Pattern ADD_COLUMN = Pattern.compile(
+            "ALTER TABLE articles_archive\\s+ADD COLUMN\\s+(?:IF NOT EXISTS\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    // ddl-auto only ever touches articles; a column it adds there must reach the archive through a migration.
+    @Test
+    void migrationsDeclareEveryArticleColumnOnTheArchive() throws IOException {
+        Set<String> archived = new HashSet<>();
+        for (Resource script : new PathMatchingResourcePatternResolver().getResources("classpath*:db/migration/*.sql")) {
+            String sql = script.getContentAsString(StandardCharsets.UTF_8);
+            Matcher table = CREATE_TABLE.matcher(sql);
+            if (table.find()) {
+                Matcher column = COLUMN_DEFINITION.matcher(table.group(1));
+                while (column.find()) {
+                    archived.add(column.group(1));
+                }
+            }
+            Matcher added = ADD_COLUMN.matcher(sql);
+            while (added.find()) {
+                archived.add(added.group(1));
+            }
+        }
+
+        assertThat(archived).containsAll(entityColumns());
+    }
+
+    private static Set<String> entityColumns() {
+        Set<String> columns = new HashSet<>();
+        for (Field field : ArticleEntity.class.getDeclaredFields()) {
+            Column column = field.getAnnotation(Column.class);
+            if (column != null) {
+                columns.add(column.name().isEmpty() ? field.getName() : column.name());
+            }
+        }
+        return columns;
+    }
+}
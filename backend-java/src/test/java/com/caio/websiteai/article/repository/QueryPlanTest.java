@@ -0,0 +1,187 @@
+package com.caio.websiteai.article.repository;
+
+import com.caio.websiteai.article.dto.ArticleCursor;
+import com.caio.websiteai.game.repository.GameScoreRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the application's database queries against a seeded Postgres and fails when one of them plans a
+ * sequential scan over a large table. The SQL is taken from the repositories themselves; for JPA queries it is the
+ * statement Hibernate issues. Needs a disposable database, so it only runs when {@code QUERY_PLAN_DATABASE_URL}
+ * (and optionally {@code QUERY_PLAN_DATABASE_USERNAME} / {@code _PASSWORD}) is set.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "articles.journal.enabled=false",
+        "articles.retention.cron=-"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "QUERY_PLAN_DATABASE_URL", matches = ".+")
+class QueryPlanTest {
+
+    private static final Set<String> LARGE_TABLES = Set.of("articles", "game_submissions", "user_achievements");
+
+    private static final List<String> issued = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("SPRING_DATASOURCE_URL", () -> System.getenv("QUERY_PLAN_DATABASE_URL"));
+        registry.add("SPRING_DATASOURCE_USERNAME",
+                () -> System.getenv().getOrDefault("QUERY_PLAN_DATABASE_USERNAME", "postgres"));
+        registry.add("SPRING_DATASOURCE_PASSWORD",
+                () -> System.getenv().getOrDefault("QUERY_PLAN_DATABASE_PASSWORD", ""));
+    }
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO articles (id, url, url_hash, title, country, topic_category, published_at, created_at,
+                                      updated_at, rel_score, ana_score, tags, is_premium, is_breaking, view_count,
+                                      share_count)
+                SELECT 'seed-' || g, 'https://seed.example/' || g, g, 'Seed ' || g,
+                       (ARRAY['us', 'gb', 'de', 'fr', 'jp'])[1 + g % 5],
+                       CASE WHEN g % 7 = 0 THEN NULL
+                            ELSE (ARRAY['policy', 'research', 'business', 'security', 'general'])[1 + g % 5] END,
+                       now() - (g % 720) * interval '1 day', now(), now(), g % 100, g % 80,
+                       CASE WHEN g % 20 = 0 THEN ARRAY['policy'] ELSE ARRAY['research'] END,
+                       false, false, 0, 0
+                FROM generate_series(1, 200000) g
+                ON CONFLICT DO NOTHING
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO game_scores (country, score, total_submissions)
+                SELECT 'c' || lpad(g::text, 2, '0'), g * 10, 0 FROM generate_series(0, 49) g
+                ON CONFLICT DO NOTHING
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO game_submissions (url, country, user_id, points, is_duplicate, submitted_at)
+                SELECT 'https://seed.example/submission/' || g, 'c' || lpad((g % 50)::text, 2, '0'),
+                       'user-' || (g % 20000), 5, false, now()
+                FROM generate_series(1, 100000) g
+                ON CONFLICT DO NOTHING
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO user_achievements (user_id, achievement_id, earned_at)
+                SELECT 'user-' || (g % 40000), (SELECT min(id) FROM game_achievements), now()
+                FROM generate_series(1, 100000) g
+                WHERE NOT EXISTS (SELECT 1 FROM user_achievements WHERE user_id = 'user-0')
+                """);
+        jdbcTemplate.execute("VACUUM ANALYZE articles");
+        jdbcTemplate.execute("VACUUM ANALYZE game_scores");
+        jdbcTemplate.execute("VACUUM ANALYZE game_submissions");
+        jdbcTemplate.execute("VACUUM ANALYZE user_achievements");
+    }
+
+    Stream<Arguments> queries() throws NoSuchMethodException {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime weekAgo = now.minusDays(7);
+        MapSqlParameterSource page = new MapSqlParameterSource("limit", 21);
+        String pageQuery = ArticleBrowseRepository.pageQuery(
+                new ArticleBrowseRepository.Filter("gb", null, null, null, null, null),
+                new ArticleCursor(now.minusDays(30), "seed-1000"), false, page);
+        return Stream.of(
+                Arguments.of("trending topics", issuedBy(repository -> repository.findTrendingTopics(weekAgo)),
+                        new Object[]{weekAgo}),
+                named("recent by tag", nativeQuery(ArticleRepository.class, "findRecentByTag", String.class,
+                        int.class), new MapSqlParameterSource("tag", "policy").addValue("limit", 50)),
+                named("browse by country, next page", pageQuery, page),
+                Arguments.of("find by url", issuedBy(repository -> repository.findByUrl("https://seed.example/42")),
+                        new Object[]{"https://seed.example/42"}),
+                Arguments.of("existing articles", ArticleBatchRepository.FIND_EXISTING, new Object[]{
+                        new String[]{"https://seed.example/1", "https://seed.example/2"},
+                        new String[]{"seed-1", "seed-3"}}),
+                Arguments.of("existing articles by url hash", ArticleBatchRepository.FIND_EXISTING_BY_URL_HASH,
+                        new Object[]{new Long[]{1L, 2L, 3L}, new String[]{"seed-1"}}),
+                Arguments.of("leaderboard", nativeQuery(GameScoreRepository.class, "fetchLeaderboard"),
+                        new Object[0])
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void avoidsSequentialScansOnLargeTables(String name, String sql, Object[] args) throws Exception {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+        List<String> scanned = new ArrayList<>();
+        collectSequentialScans(objectMapper.readTree(plan).get(0).get("Plan"), scanned);
+
+        assertThat(scanned).as("sequential scans in %s:%n%s", name, plan).doesNotContainAnyElementsOf(LARGE_TABLES);
+    }
+
+    private static void collectSequentialScans(JsonNode node, List<String> scanned) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            scanned.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, scanned);
+        }
+    }
+
+    private static String nativeQuery(Class<?> repository, String method, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        return repository.getMethod(method, parameterTypes).getAnnotation(Query.class).value();
+    }
+
+    /** The first statement Hibernate issued for a repository call, i.e. the query itself. */
+    private String issuedBy(Consumer<ArticleRepository> call) {
+        issued.clear();
+        call.accept(articleRepository);
+        assertThat(issued).isNotEmpty();
+        return issued.get(0);
+    }
+
+    private static Arguments named(String name, String sql, MapSqlParameterSource params) {
+        return Arguments.of(name, NamedParameterUtils.substituteNamedParameters(sql, params),
+                NamedParameterUtils.buildValueArray(sql, params.getValues()));
+    }
+
+    @TestConfiguration
+    static class RecordIssuedStatements {
+
+        @Bean
+        HibernatePropertiesCustomizer statementRecorder() {
+            StatementInspector recorder = sql -> {
+                issued.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, recorder);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.ai.service.ArticleScoringService;
+import com.caio.websiteai.ai.service.ScoringRuleEngine;
+import com.caio.websiteai.article.dto.ArticleBackfillSummary;
+import com.caio.websiteai.article.entity.ArticleEntity;
+import com.caio.websiteai.article.repository.ArticleArchiveRepository;
+import com.caio.websiteai.article.repository.ArticleBackfillRepository;
+import com.caio.websiteai.article.repository.ArticleBackfillRepository.MergeResult;
+import com.caio.websiteai.news.service.ArticleEnrichmentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ArticleBackfillServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2024-04-01T00:00:00Z");
+
+    private final ArticleBackfillRepository repository = Mockito.mock(ArticleBackfillRepository.class);
+    private final ArticleArchiveRepository archiveRepository = Mockito.mock(ArticleArchiveRepository.class);
+    private final ArticleEnrichmentService enrichmentService = new ArticleEnrichmentService(
+            new ArticleScoringService(new ScoringRuleEngine(new DefaultResourceLoader(), event -> { },
+                    "classpath:scoring-rules.yml")),
+            new SimpleMeterRegistry(), 1_000);
+    private final List<List<ArticleEntity>> merged = new ArrayList<>();
+
+    @Test
+    void mergesEnrichedRowsAndCountsSkippedAndDuplicateLines() throws Exception {
+        mergeSucceeds();
+        Path dump = write("""
+                {"url":"https://example.com/a","title":"AI policy study","source":"Reuters","country":"us"}
+                {broken
+                {"url":"https://example.com/untitled","country":"us"}
+                {"url":"https://example.com/b","title":"Chip startup funding","country":"GB",\
+                "provenance":"newsdata-api","published_at":"2024-03-01 12:00:00+00"}
+                {"url":"https://example.com/a","title":"AI policy study, updated","source":"Reuters","country":"us"}
+                """);
+
+        ArticleBackfillSummary summary = service(DataSize.ofMegabytes(1)).backfill(List.of(dump), false, NOW);
+
+        assertThat(merged).hasSize(1);
+        List<ArticleEntity> rows = merged.get(0);
+        assertThat(rows).extracting(ArticleEntity::getTitle)
+                .containsExactly("AI policy study, updated", "Chip startup funding");
+        ArticleEntity first = rows.get(0);
+        assertThat(first.getId()).endsWith("-us");
+        assertThat(first.getProvenance()).isEqualTo(ArticleBackfillService.PROVENANCE);
+        assertThat(first.getEinsteinScore()).isNotNull();
+        assertThat(first.getContentFingerprint()).isNotNull();
+        ArticleEntity second = rows.get(1);
+        assertThat(second.getCountry()).isEqualTo("gb");
+        assertThat(second.getProvenance()).isEqualTo("newsdata-api");
+        assertThat(second.getPublishedAt()).isEqualTo(OffsetDateTime.parse("2024-03-01T12:00:00Z"));
+        assertThat(summary.getLines()).isEqualTo(5);
+        assertThat(summary.getSkipped()).isEqualTo(2);
+        assertThat(summary.getDuplicates()).isEqualTo(1);
+        assertThat(summary.getInserted()).isEqualTo(2);
+    }
+
+    @Test
+    void readsNewsApiShapedLinesAndTruncatesOverlongColumns() throws Exception {
+        mergeSucceeds();
+        String authors = "Staff Writer, ".repeat(40);
+        Path dump = write("""
+                {"url":"https://example.com/n","title":"Chip export rules","source":{"id":"reuters","name":"Reuters"},\
+                "author":"%s","publishedAt":"2024-03-01T12:00:00Z","urlToImage":"https://example.com/n.jpg",\
+                "country":"us","category":"%s","language":"english-us"}
+                {"url":"https://example.com/m","title":"Unnamed source","source":{"id":null,"name":null},"country":"us"}
+                """.formatted(authors, "c".repeat(60)));
+
+        ArticleBackfillSummary summary = service(DataSize.ofMegabytes(1)).backfill(List.of(dump), false, NOW);
+
+        assertThat(summary.getSkipped()).isZero();
+        List<ArticleEntity> rows = merged.get(0);
+        ArticleEntity row = rows.get(0);
+        assertThat(row.getSource()).isEqualTo("Reuters");
+        assertThat(row.getImageUrl()).isEqualTo("https://example.com/n.jpg");
+        assertThat(row.getAuthor()).hasSize(255).isEqualTo(authors.substring(0, 255));
+        assertThat(row.getCategory()).hasSize(50);
+        assertThat(row.getLanguage()).isEqualTo("english-us");
+        // A nameless source object reads as no source, which storage records as "Unknown".
+        assertThat(rows.get(1).getSource()).isEqualTo("Unknown");
+    }
+
+    @Test
+    void truncatesWithoutSplittingASurrogatePair() {
+        assertThat(ArticleBackfillService.truncate("ab\uD83D\uDE00", 3)).isEqualTo("ab");
+        assertThat(ArticleBackfillService.truncate("abc", 3)).isEqualTo("abc");
+        assertThat(ArticleBackfillService.truncate(null, 3)).isNull();
+    }
+
+    @Test
+    void archivesRowsPastTheHotPeriodAndSkipsRowsRetentionWouldDrop() throws Exception {
+        mergeSucceeds();
+        List<ArticleEntity> archived = new ArrayList<>();
+        when(repository.archive(anyList())).thenAnswer(invocation -> {
+            archived.addAll(invocation.getArgument(0));
+            return 1;
+        });
+        // Hot from 2024-01-02, archive from 2022-04-02: all of March 2022 is before that, April 2022 is not.
+        Path dump = write("""
+                {"url":"https://example.com/hot","title":"Hot","country":"us","published_at":"2024-03-01T00:00:00Z"}
+                {"url":"https://example.com/undated","title":"Undated","country":"us"}
+                {"url":"https://example.com/cold","title":"Cold","country":"us","published_at":"2023-06-15T00:00:00Z"}
+                {"url":"https://example.com/edge","title":"Edge","country":"us","published_at":"2022-04-01T00:00:00Z"}
+                {"url":"https://example.com/gone","title":"Gone","country":"us","published_at":"2022-03-31T23:59:59Z"}
+                """);
+
+        ArticleBackfillSummary summary = service(DataSize.ofMegabytes(1)).backfill(List.of(dump), false, NOW);
+
+        assertThat(merged).singleElement().satisfies(rows ->
+                assertThat(rows).extracting(ArticleEntity::getTitle).containsExactly("Hot", "Undated"));
+        assertThat(archived).extracting(ArticleEntity::getTitle).containsExactly("Cold", "Edge");
+        verify(archiveRepository).createPartition(YearMonth.of(2023, 6));
+        verify(archiveRepository).createPartition(YearMonth.of(2022, 4));
+        verifyNoMoreInteractions(archiveRepository);
+        assertThat(summary.getInserted()).isEqualTo(2);
+        assertThat(summary.getArchived()).isEqualTo(1);
+        assertThat(summary.getUnchanged()).isEqualTo(1);
+        assertThat(summary.getExpired()).isEqualTo(1);
+    }
+
+    @Test
+    void resumesAfterTheLastCommittedChunk() throws Exception {
+        Path dump = write("""
+                {"url":"https://example.com/1","title":"First","country":"us"}
+                {"url":"https://example.com/2","title":"Second","country":"us"}
+                {"url":"https://example.com/3","title":"Third","country":"us"}
+                """);
+        // One line per chunk.
+        ArticleBackfillService service = service(DataSize.ofBytes(1));
+        when(repository.merge(anyList()))
+                .thenAnswer(invocation -> record(invocation.getArgument(0)))
+                .thenThrow(new IllegalStateException("database went away"));
+
+        assertThatThrownBy(() -> service.backfill(List.of(dump), false)).hasMessage("database went away");
+
+        merged.clear();
+        mergeSucceeds();
+        ArticleBackfillSummary resumed = service.backfill(List.of(dump), false);
+
+        assertThat(merged).extracting(rows -> rows.get(0).getTitle()).containsExactly("Second", "Third");
+        assertThat(resumed.getLines()).isEqualTo(2);
+
+        merged.clear();
+        assertThat(service.backfill(List.of(dump), false).getLines()).isZero();
+        assertThat(service.backfill(List.of(dump), true).getLines()).isEqualTo(3);
+        assertThat(merged).hasSize(3);
+    }
+
+    @Test
+    void parsesZonedZonelessPostgresAndEpochTimestamps() {
+        OffsetDateTime noon = OffsetDateTime.parse("2024-03-01T12:00:00Z");
+
+        assertThat(ArticleBackfillService.parseTimestamp("2024-03-01T12:00:00.000Z")).isEqualTo(noon);
+        assertThat(ArticleBackfillService.parseTimestamp("2024-03-01T14:00:00+02:00")).isAtSameInstantAs(noon);
+        assertThat(ArticleBackfillService.parseTimestamp("2024-03-01 12:00:00")).isEqualTo(noon);
+        assertThat(ArticleBackfillService.parseTimestamp("2024-03-01 12:00:00+00")).isEqualTo(noon);
+        assertThat(ArticleBackfillService.parseTimestamp(Long.toString(noon.toInstant().toEpochMilli())))
+                .isEqualTo(noon);
+        assertThat(ArticleBackfillService.parseTimestamp("last tuesday")).isNull();
+        assertThat(ArticleBackfillService.parseTimestamp(" ")).isNull();
+    }
+
+    private ArticleBackfillService service(DataSize chunkSize) {
+        return new ArticleBackfillService(repository, archiveRepository, enrichmentService, new ObjectMapper(), 2,
+                chunkSize, directory.resolve("checkpoint.properties"), Duration.ofHours(1), Duration.ofDays(90),
+                Duration.ofDays(730));
+    }
+
+    private void mergeSucceeds() {
+        doAnswer(invocation -> record(invocation.getArgument(0))).when(repository).merge(anyList());
+    }
+
+    private MergeResult record(List<ArticleEntity> rows) {
+        merged.add(rows);
+        return new MergeResult(rows.size(), rows.size(), 0);
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("articles.ndjson"), content);
+    }
+}
@@ -0,0 +1,67 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.dto.ArticleCursor;
+import com.caio.websiteai.article.dto.ArticlePage;
+import com.caio.websiteai.article.dto.ArticleSummaryDto;
+import com.caio.websiteai.article.repository.ArticleBrowseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArticleBrowseServiceTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2024-05-02T10:00:00.123456Z");
+    private static final ArticleBrowseRepository.Filter ALL =
+            new ArticleBrowseRepository.Filter(null, null, null, null, null, null);
+
+    private final ArticleBrowseRepository repository = mock(ArticleBrowseRepository.class);
+    private final ArticleBrowseService service = new ArticleBrowseService(repository);
+
+    @Test
+    void returnsCursorOfLastRowWhenMoreRowsExist() {
+        when(repository.findPage(any(), any(), anyBoolean(), eq(3))).thenReturn(rows(3));
+
+        ArticlePage page = service.browse(ALL, null, false, 2);
+
+        assertThat(page.getArticles()).extracting(ArticleSummaryDto::getId).containsExactly("a0", "a1");
+        ArticleCursor next = ArticleCursor.decode(page.getNextCursor());
+        assertThat(next).isEqualTo(new ArticleCursor(NOW.minusMinutes(1), "a1"));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        ArticleCursor after = new ArticleCursor(NOW, "z");
+        when(repository.findPage(ALL, after, true, 3)).thenReturn(rows(2));
+
+        ArticlePage page = service.browse(ALL, after, true, 2);
+
+        assertThat(page.getArticles()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+        verify(repository).findPage(ALL, after, true, 3);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> ArticleCursor.decode("bm90LWEtY3Vyc29y"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ArticleCursor.decode("%%%"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<ArticleSummaryDto> rows(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> ArticleSummaryDto.builder().id("a" + i).publishedAt(NOW.minusMinutes(i)).build())
+                .toList();
+    }
+}
@@ -0,0 +1,179 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.repository.ArticleBrowseRepository;
+import com.caio.websiteai.article.repository.ArticleExportRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class ArticleExportServiceTest {
+
+    private static final ArticleBrowseRepository.Filter ALL =
+            new ArticleBrowseRepository.Filter(null, null, null, null, null, null);
+
+    private final ArticleExportRepository repository = Mockito.mock(ArticleExportRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ArticleExportService service =
+            new ArticleExportService(repository, objectMapper, new SimpleMeterRegistry(), 1);
+
+    @Test
+    void writesOneJsonObjectPerRow() throws Exception {
+        streamRows(row("a1", "Rates, \"again\"", null), row("a2", "Second", BigDecimal.valueOf(61.5)));
+
+        String[] lines = export(ArticleExportService.Format.NDJSON, false).split("\n");
+
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asText()).isEqualTo("a1");
+        assertThat(first.get("title").asText()).isEqualTo("Rates, \"again\"");
+        assertThat(first.get("einstein_score").isNull()).isTrue();
+        assertThat(first.get("word_count").isNull()).isTrue();
+        assertThat(first.get("tags").get(1).asText()).isEqualTo("rates");
+        assertThat(first.get("published_at").asText()).isEqualTo("2024-03-01T12:00Z");
+        assertThat(first.has("content")).isFalse();
+        assertThat(objectMapper.readTree(lines[1]).get("einstein_score").decimalValue())
+                .isEqualByComparingTo("61.5");
+    }
+
+    @Test
+    void writesQuotedCsvWithHeaderThroughGzip() throws Exception {
+        streamRows(row("a1", "Rates, \"again\"", BigDecimal.ONE));
+
+        String[] lines = export(ArticleExportService.Format.CSV, true).split("\r\n");
+
+        assertThat(lines[0]).startsWith("id,title,url,").doesNotContain("content");
+        assertThat(lines[1]).startsWith("a1,\"Rates, \"\"again\"\"\",");
+        assertThat(lines[1]).contains(",economy;rates,");
+    }
+
+    @Test
+    void rejectsExportsBeyondTheConcurrencyLimitUntilOneFinishes() throws Exception {
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            streaming.countDown();
+            finish.await();
+            return null;
+        }).when(repository).stream(eq(ALL), anyBoolean(), any());
+        StreamingResponseBody first = service.export(ALL, ArticleExportService.Format.NDJSON, false, false)
+                .orElseThrow();
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> {
+            try {
+                first.writeTo(new ByteArrayOutputStream());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        streaming.await();
+
+        assertThat(service.export(ALL, ArticleExportService.Format.NDJSON, false, false)).isEmpty();
+        finish.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        assertThat(service.export(ALL, ArticleExportService.Format.NDJSON, false, false)).isPresent();
+    }
+
+    @Test
+    void takesTheSlotOnlyWhenTheBodyRuns() throws Exception {
+        streamRows();
+        // Never written, as when the client disconnects before the async dispatch.
+        assertThat(service.export(ALL, ArticleExportService.Format.NDJSON, false, false)).isPresent();
+
+        service.export(ALL, ArticleExportService.Format.NDJSON, false, false).orElseThrow()
+                .writeTo(new ByteArrayOutputStream());
+
+        assertThat(service.export(ALL, ArticleExportService.Format.NDJSON, false, false)).isPresent();
+    }
+
+    @Test
+    void failsABodyThatLosesTheRaceForTheLastSlot() throws Exception {
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            streaming.countDown();
+            finish.await();
+            return null;
+        }).when(repository).stream(eq(ALL), anyBoolean(), any());
+        StreamingResponseBody first = service.export(ALL, ArticleExportService.Format.NDJSON, false, false)
+                .orElseThrow();
+        StreamingResponseBody late = service.export(ALL, ArticleExportService.Format.NDJSON, false, false)
+                .orElseThrow();
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> {
+            try {
+                first.writeTo(new ByteArrayOutputStream());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        streaming.await();
+
+        assertThatThrownBy(() -> late.writeTo(new ByteArrayOutputStream()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        finish.countDown();
+        running.get(5, TimeUnit.SECONDS);
+    }
+
+    private String export(ArticleExportService.Format format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.write(ALL, format, gzip, false, out);
+        byte[] bytes = out.toByteArray();
+        if (gzip) {
+            bytes = new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void streamRows(ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(repository).stream(eq(ALL), anyBoolean(), any());
+    }
+
+    private static ResultSet row(String id, String title, BigDecimal einsteinScore) throws SQLException {
+        ResultSet rs = Mockito.mock(ResultSet.class);
+        Array tags = Mockito.mock(Array.class);
+        when(tags.getArray()).thenReturn(new String[]{"economy", "rates"});
+        when(rs.getString("id")).thenReturn(id);
+        when(rs.getString("title")).thenReturn(title);
+        when(rs.getBigDecimal("einstein_score")).thenReturn(einsteinScore);
+        when(rs.getArray("tags")).thenReturn(tags);
+        when(rs.getObject("published_at", OffsetDateTime.class))
+                .thenReturn(OffsetDateTime.parse("2024-03-01T12:00:00Z"));
+        // Every int and boolean column reads as NULL.
+        when(rs.wasNull()).thenReturn(true);
+        return rs;
+    }
+}
@@ -0,0 +1,76 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.dto.StoredArticleDto;
+import com.caio.websiteai.article.service.ArticleWriteBehindQueue.OverflowPolicy;
+import com.caio.websiteai.common.MappedJournal.FsyncPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArticleIngestionJournalTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysBatchesThatWereNotStoredBeforeShutdown() throws Exception {
+        StoredArticleDto stored = article("stored");
+        StoredArticleDto lost = article("lost");
+
+        ArticleStorageService failingStorage = Mockito.mock(ArticleStorageService.class);
+        when(failingStorage.storeArticles(any(), any()))
+                .thenReturn(null)
+                .thenThrow(new IllegalStateException("database down"));
+        ArticleWriteBehindQueue first = queue(failingStorage, journal());
+        first.submit("us", List.of(stored));
+        verify(failingStorage, timeout(2_000)).storeArticles("us", List.of(stored));
+        first.submit("us", List.of(lost));
+        first.shutdown();
+
+        ArticleStorageService storage = Mockito.mock(ArticleStorageService.class);
+        ArticleWriteBehindQueue second = queue(storage, journal());
+        verify(storage, timeout(2_000)).storeArticles("us", List.of(lost));
+        second.shutdown();
+
+        ArticleStorageService untouched = Mockito.mock(ArticleStorageService.class);
+        ArticleWriteBehindQueue third = queue(untouched, journal());
+        third.shutdown();
+        Mockito.verifyNoInteractions(untouched);
+    }
+
+    private ArticleIngestionJournal journal() throws IOException {
+        return new ArticleIngestionJournal(objectMapper, new SimpleMeterRegistry(), true, directory,
+                DataSize.ofKilobytes(64), FsyncPolicy.ALWAYS);
+    }
+
+    private static ArticleWriteBehindQueue queue(ArticleStorageService storage, ArticleIngestionJournal journal) {
+        return new ArticleWriteBehindQueue(storage, journal, new SimpleMeterRegistry(), 100, 1,
+                Duration.ofHours(1), OverflowPolicy.BLOCK, Duration.ofMillis(10), 3);
+    }
+
+    private static StoredArticleDto article(String path) {
+        return StoredArticleDto.builder()
+                .url("https://example.com/" + path)
+                .title(path)
+                .publishedAt(OffsetDateTime.parse("2024-05-01T12:00:00Z"))
+                .tags(List.of("policy"))
+                .build();
+    }
+}
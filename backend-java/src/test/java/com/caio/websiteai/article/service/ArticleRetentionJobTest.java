@@ -0,0 +1,58 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.repository.ArticleArchiveRepository;
+import com.caio.websiteai.article.repository.ArticleArchiveRepository.ArchiveCandidate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArticleRetentionJobTest {
+
+    private final ArticleArchiveRepository repository = Mockito.mock(ArticleArchiveRepository.class);
+    private final ArticleRetentionJob job = new ArticleRetentionJob(repository,
+            Mockito.mock(ApplicationEventPublisher.class), new SimpleMeterRegistry(),
+            Duration.ofDays(90), Duration.ofDays(730), 2);
+
+    @Test
+    void createsPartitionsBeforeMovingEachBatch() {
+        OffsetDateTime cutoff = OffsetDateTime.parse("2024-06-01T00:00:00Z");
+        OffsetDateTime now = cutoff.plusDays(90);
+        when(repository.findArchivable(cutoff, 2)).thenReturn(
+                List.of(new ArchiveCandidate("a", YearMonth.of(2024, 4)), new ArchiveCandidate("b", YearMonth.of(2024, 4))),
+                List.of(new ArchiveCandidate("c", null)));
+        when(repository.moveToArchive(any(), any())).thenReturn(2, 1);
+
+        assertThat(job.archiveBefore(cutoff, now)).isEqualTo(3);
+
+        InOrder order = Mockito.inOrder(repository);
+        order.verify(repository).createPartition(YearMonth.of(2024, 4));
+        order.verify(repository).moveToArchive(List.of("a", "b"), now);
+        order.verify(repository).moveToArchive(List.of("c"), now);
+        verify(repository, Mockito.times(2)).findArchivable(cutoff, 2);
+    }
+
+    @Test
+    void dropsOnlyPartitionsWhollyBeforeTheCutoff() {
+        when(repository.listPartitions()).thenReturn(
+                List.of(YearMonth.of(2022, 1), YearMonth.of(2022, 2), YearMonth.of(2022, 3)));
+
+        assertThat(job.dropPartitionsBefore(OffsetDateTime.parse("2022-03-01T00:00:00Z"))).isEqualTo(2);
+
+        verify(repository).dropPartition(YearMonth.of(2022, 1));
+        verify(repository).dropPartition(YearMonth.of(2022, 2));
+        verify(repository, never()).dropPartition(YearMonth.of(2022, 3));
+    }
+}
@@ -0,0 +1,215 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.dto.ArticleStorageSummary;
+import com.caio.websiteai.article.dto.StoredArticleDto;
+import com.caio.websiteai.article.entity.ArticleEntity;
+import com.caio.websiteai.article.repository.ArticleBatchRepository;
+import com.caio.websiteai.article.repository.ArticleBatchRepository.ArticleKey;
+import com.caio.websiteai.article.repository.ArticleRepository;
+import com.caio.websiteai.article.repository.NewsSourceRepository;
+import com.caio.websiteai.common.CanonicalUrl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArticleStorageServiceTest {
+
+    private final ArticleRepository articleRepository = Mockito.mock(ArticleRepository.class);
+    private final ArticleBatchRepository articleBatchRepository = Mockito.mock(ArticleBatchRepository.class);
+    private final NewsSourceRepository newsSourceRepository = Mockito.mock(NewsSourceRepository.class);
+    private final KnownUrlIndex knownUrlIndex = new KnownUrlIndex(articleBatchRepository, new SimpleMeterRegistry(), 16);
+    private final ArticleStorageService service = new ArticleStorageService(articleRepository, articleBatchRepository,
+            newsSourceRepository, Mockito.mock(ApiUsageRecorder.class), knownUrlIndex,
+            Mockito.mock(ApplicationEventPublisher.class));
+
+    @BeforeEach
+    void upsertWritesEveryRow() {
+        when(articleBatchRepository.upsertArticles(any(), any())).thenAnswer(invocation ->
+                invocation.<Collection<ArticleEntity>>getArgument(0).stream()
+                        .map(ArticleEntity::getId)
+                        .collect(Collectors.toSet()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void storesBatchWithOneLookupAndCountsLikeRowByRow() {
+        when(articleBatchRepository.findExisting(any(), any())).thenReturn(List.of(
+                new ArticleKey("known-us", "https://example.com/known", null),
+                new ArticleKey("taken-us", "https://example.com/other", null)));
+        when(newsSourceRepository.findIdByName(anyString())).thenReturn(Optional.of(7L));
+        when(newsSourceRepository.applyStats(any(), anyInt(), anyInt(), anyLong(), any())).thenReturn(1);
+
+        ArticleStorageSummary summary = service.storeArticles("us", List.of(
+                article("fresh-us", "https://example.com/fresh"),
+                article("known-us", "https://example.com/known"),
+                article("taken-us", "https://example.com/collides"),
+                article("fresh-us", "https://example.com/fresh"),
+                article("no-url-us", null)));
+
+        assertThat(summary.getRequested()).isEqualTo(5);
+        assertThat(summary.getInserted()).isEqualTo(1);
+        assertThat(summary.getUpdated()).isEqualTo(2);
+        assertThat(summary.getDuplicates()).isEqualTo(1);
+
+        ArgumentCaptor<Collection<ArticleEntity>> upserted = ArgumentCaptor.forClass(Collection.class);
+        verify(articleBatchRepository).upsertArticles(upserted.capture(), any());
+        assertThat(upserted.getValue()).extracting(ArticleEntity::getId).containsExactly("fresh-us", "known-us");
+    }
+
+    @Test
+    void appliesOneAggregatedStatsUpdatePerSource() {
+        when(articleBatchRepository.findExisting(any(), any())).thenReturn(List.of());
+        when(newsSourceRepository.findIdByName("Reuters")).thenReturn(Optional.empty(), Optional.of(3L));
+        when(newsSourceRepository.findIdByName("Wired")).thenReturn(Optional.of(4L));
+        when(newsSourceRepository.applyStats(any(), anyInt(), anyInt(), anyLong(), any())).thenReturn(1);
+        OffsetDateTime latest = OffsetDateTime.parse("2024-05-02T10:00:00Z");
+
+        service.storeArticles("us", List.of(
+                article("a-us", "https://example.com/a", "Reuters", 60, latest.minusDays(1)),
+                article("b-us", "https://example.com/b", "Reuters", 60, latest),
+                article("c-us", "https://example.com/c", " Reuters ", null, null),
+                article("d-us", "https://example.com/d", "Wired", 60, null)));
+        service.storeArticles("gb", List.of(article("e-gb", "https://example.com/e")));
+
+        verify(newsSourceRepository).insertIfAbsent("Reuters", "example.com", "newsapi", false);
+        verify(newsSourceRepository).applyStats(3L, 3, 2, 200L, latest);
+        verify(newsSourceRepository).applyStats(4L, 1, 1, 100L, null);
+        verify(newsSourceRepository).applyStats(3L, 1, 1, 100L, null);
+        // Id lookups are cached by the repository proxy, which a mock does not have: once per batch plus the re-read.
+        verify(newsSourceRepository, times(3)).findIdByName("Reuters");
+    }
+
+    @Test
+    void evictsCachedSourceIdWhenTheSourceRowIsGone() {
+        when(articleBatchRepository.findExisting(any(), any())).thenReturn(List.of());
+        when(newsSourceRepository.findIdByName("Reuters")).thenReturn(Optional.of(3L), Optional.of(5L));
+        when(newsSourceRepository.applyStats(eq(3L), anyInt(), anyInt(), anyLong(), any())).thenReturn(0);
+        when(newsSourceRepository.applyStats(eq(5L), anyInt(), anyInt(), anyLong(), any())).thenReturn(1);
+
+        service.storeArticles("us", List.of(article("a-us", "https://example.com/a")));
+
+        verify(newsSourceRepository).evictIdByName("Reuters");
+        verify(newsSourceRepository).applyStats(5L, 1, 1, 100L, null);
+    }
+
+    @Test
+    void warmIndexSkipsLookupsForUnknownUrls() {
+        Mockito.doAnswer(invocation -> {
+            invocation.<ArticleBatchRepository.UrlHashConsumer>getArgument(0)
+                    .accept("known-us", "https://Example.com/known/?utm_source=feed", null);
+            return null;
+        }).when(articleBatchRepository).scanUrlHashes(any());
+        knownUrlIndex.warmUp();
+        verify(articleBatchRepository).backfillUrlHashes(
+                List.of(new ArticleBatchRepository.UrlHash("known-us", CanonicalUrl.hash("https://example.com/known"))));
+        when(articleBatchRepository.findExistingByUrlHash(any(), any()))
+                .thenReturn(List.of(new ArticleKey("known-us", "https://example.com/known", null)));
+        when(newsSourceRepository.findIdByName(anyString())).thenReturn(Optional.of(7L));
+        when(newsSourceRepository.applyStats(any(), anyInt(), anyInt(), anyLong(), any())).thenReturn(1);
+
+        ArticleStorageSummary summary = service.storeArticles("us", List.of(
+                article("fresh-us", "https://example.com/fresh"),
+                article("known-us", "https://example.com/known")));
+
+        assertThat(summary.getInserted()).isEqualTo(1);
+        assertThat(summary.getUpdated()).isEqualTo(1);
+        verify(articleBatchRepository).findExistingByUrlHash(
+                Set.of(CanonicalUrl.hash("https://example.com/known")), Set.of("known-us"));
+        verify(articleBatchRepository, Mockito.never()).findExisting(any(), any());
+        assertThat(knownUrlIndex.mayBeKnown(CanonicalUrl.hash("https://example.com/fresh"))).isTrue();
+    }
+
+    @Test
+    void countsRowsTheUpsertSkippedAsDuplicatesWithoutALookup() {
+        knownUrlIndex.warmUp();
+        when(newsSourceRepository.findIdByName(anyString())).thenReturn(Optional.of(7L));
+        when(newsSourceRepository.applyStats(any(), anyInt(), anyInt(), anyLong(), any())).thenReturn(1);
+        // "shared-us" was written by a backfill after warm-up: same canonical URL, different raw URL, same id.
+        Mockito.doReturn(Set.of("fresh-us")).when(articleBatchRepository).upsertArticles(any(), any());
+
+        ArticleStorageSummary summary = service.storeArticles("us", List.of(
+                article("fresh-us", "https://example.com/fresh"),
+                article("shared-us", "https://example.com/story")));
+
+        assertThat(summary.getInserted()).isEqualTo(1);
+        assertThat(summary.getDuplicates()).isEqualTo(1);
+        verify(articleBatchRepository, Mockito.never()).findExistingByUrlHash(any(), any());
+        verify(articleBatchRepository, Mockito.never()).findExisting(any(), any());
+        verify(newsSourceRepository).applyStats(7L, 1, 1, 100L, null);
+        assertThat(knownUrlIndex.mayBeKnown(CanonicalUrl.hash("https://example.com/story"))).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void skipsUnchangedArticlesAndUpdatesChangedOnesInPlace() {
+        when(articleBatchRepository.findExisting(any(), any())).thenReturn(List.of());
+        when(newsSourceRepository.findIdByName(anyString())).thenReturn(Optional.of(7L));
+        when(newsSourceRepository.applyStats(any(), anyInt(), anyInt(), anyLong(), any())).thenReturn(1);
+        service.storeArticles("us", List.of(article("same-us", "https://example.com/same"),
+                article("edited-us", "https://example.com/edited")));
+        ArgumentCaptor<Collection<ArticleEntity>> firstWrite = ArgumentCaptor.forClass(Collection.class);
+        verify(articleBatchRepository).upsertArticles(firstWrite.capture(), any());
+        List<ArticleEntity> stored = List.copyOf(firstWrite.getValue());
+        Mockito.clearInvocations(articleBatchRepository, newsSourceRepository);
+
+        when(articleBatchRepository.findExisting(any(), any())).thenReturn(stored.stream()
+                .map(entity -> new ArticleKey(entity.getId(), entity.getUrl(), entity.getContentFingerprint()))
+                .toList());
+        ArticleEntity managed = ArticleEntity.builder().id("edited-us").url("https://example.com/edited")
+                .title("Title edited-us").tags(new ArrayList<>(List.of("policy"))).viewCount(12).build();
+        when(articleRepository.findAllById(Set.of("edited-us"))).thenReturn(List.of(managed));
+
+        ArticleStorageSummary summary = service.storeArticles("us", List.of(
+                article("same-us", "https://example.com/same"),
+                StoredArticleDto.builder().id("edited-us").url("https://example.com/edited").title("Edited title")
+                        .source("Reuters").relevanceScore(40).analysisScore(60).tags(List.of("policy")).build()));
+
+        assertThat(summary.getUnchanged()).isEqualTo(1);
+        assertThat(summary.getUpdated()).isEqualTo(1);
+        assertThat(summary.getInserted()).isZero();
+        assertThat(managed.getTitle()).isEqualTo("Edited title");
+        assertThat(managed.getViewCount()).isEqualTo(12);
+        assertThat(managed.getContentFingerprint()).isNotNull().isNotEqualTo(stored.get(1).getContentFingerprint());
+        verify(articleBatchRepository, Mockito.never()).upsertArticles(any(), any());
+        verify(newsSourceRepository).applyStats(7L, 1, 1, 100L, null);
+    }
+
+    private static StoredArticleDto article(String id, String url) {
+        return article(id, url, "Reuters", 60, null);
+    }
+
+    private static StoredArticleDto article(String id, String url, String source, Integer analysisScore,
+                                            OffsetDateTime publishedAt) {
+        return StoredArticleDto.builder()
+                .id(id)
+                .url(url)
+                .title("Title " + id)
+                .source(source)
+                .relevanceScore(40)
+                .analysisScore(analysisScore)
+                .publishedAt(publishedAt)
+                .tags(List.of("policy"))
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.caio.websiteai.article.service;
+
+import com.caio.websiteai.article.dto.StoredArticleDto;
+import com.caio.websiteai.article.service.ArticleWriteBehindQueue.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArticleWriteBehindQueueTest {
+
+    private final ArticleStorageService storageService = Mockito.mock(ArticleStorageService.class);
+    private final ArticleIngestionJournal journal = Mockito.mock(ArticleIngestionJournal.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ArticleWriteBehindQueue queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.shutdown();
+    }
+
+    @Test
+    void coalescesByUrlAndFlushesWhenFull() {
+        queue = queue(10, 3, Duration.ofHours(1), OverflowPolicy.DROP_NEWEST);
+
+        queue.submit("us", List.of(article("a", "old"), article("b", "b")));
+        queue.submit("us", List.of(article("a", "new")));
+        assertThat(queue.depth()).isEqualTo(2);
+        queue.submit("us", List.of(article("c", "c")));
+
+        verify(storageService, timeout(2_000)).storeArticles("us",
+                List.of(article("a", "new"), article("b", "b"), article("c", "c")));
+        assertThat(meterRegistry.get("articles.writebehind.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropOldestMakesRoomForNewArticles() {
+        queue = queue(2, 2, Duration.ofHours(1), OverflowPolicy.DROP_OLDEST);
+
+        assertThat(queue.submit("us", List.of(article("a", "a"), article("b", "b"), article("c", "c")))).isEqualTo(3);
+
+        verify(storageService, timeout(2_000)).storeArticles("us", List.of(article("b", "b"), article("c", "c")));
+        assertThat(meterRegistry.get("articles.writebehind.dropped").tag("reason", "overflow").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void retriesFailedFlushAfterInterval() {
+        when(storageService.storeArticles(any(), any()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(null);
+        queue = queue(10, 1, Duration.ofMillis(50), OverflowPolicy.BLOCK);
+
+        queue.submit("gb", List.of(article("a", "a")));
+
+        verify(storageService, timeout(2_000).times(2)).storeArticles(eq("gb"), eq(List.of(article("a", "a"))));
+        assertThat(meterRegistry.get("articles.writebehind.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void storesRowsOneByOneAfterMaxAttemptsAndDropsTheOnesThatStillFail() {
+        when(storageService.storeArticles(eq("gb"), any())).thenAnswer(invocation -> {
+            List<StoredArticleDto> articles = invocation.getArgument(1);
+            if (articles.contains(article("bad", "bad"))) {
+                throw new IllegalStateException("value too long for type character varying(255)");
+            }
+            return null;
+        });
+        queue = queue(10, 2, Duration.ofMillis(20), OverflowPolicy.BLOCK);
+
+        queue.submit("gb", List.of(article("bad", "bad"), article("good", "good")));
+
+        verify(storageService, timeout(2_000)).storeArticles("gb", List.of(article("good", "good")));
+        verify(storageService, timeout(2_000)).storeArticles("gb", List.of(article("bad", "bad")));
+        // Both rows' journal records are released once the one-by-one pass is over, the dropped one included.
+        verify(journal, timeout(2_000)).release(List.of(0L, 0L));
+        verify(storageService, times(3)).storeArticles("gb", List.of(article("bad", "bad"), article("good", "good")));
+        assertThat(meterRegistry.get("articles.writebehind.dropped").tag("reason", "failed").counter().count())
+                .isEqualTo(1);
+        assertThat(queue.depth()).isZero();
+    }
+
+    @Test
+    void drainsPendingArticlesOnShutdown() throws InterruptedException {
+        queue = queue(10, 5, Duration.ofHours(1), OverflowPolicy.BLOCK);
+        queue.submit("de", List.of(article("a", "a")));
+
+        queue.shutdown();
+
+        verify(storageService, times(1)).storeArticles("de", List.of(article("a", "a")));
+        assertThat(queue.submit("de", List.of(article("b", "b")))).isZero();
+    }
+
+    private ArticleWriteBehindQueue queue(int capacity, int flushSize, Duration interval, OverflowPolicy policy) {
+        return new ArticleWriteBehindQueue(storageService, journal, meterRegistry,
+                capacity, flushSize, interval, policy, Duration.ofMillis(10), 3);
+    }
+
+    private static StoredArticleDto article(String path, String title) {
+        return StoredArticleDto.builder().url("https://example.com/" + path).title(title).build();
+    }
+}
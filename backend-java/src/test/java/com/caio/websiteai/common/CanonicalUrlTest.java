@@ -0,0 +1,20 @@
+package com.caio.websiteai.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CanonicalUrlTest {
+
+    @Test
+    void dropsOnlyPartsThatDoNotChangeThePage() {
+        assertThat(CanonicalUrl.canonicalize(" HTTPS://News.Example.com:443/World/Story/?utm_source=x&id=7&fbclid=abc#top "))
+                .isEqualTo("https://news.example.com/World/Story?id=7");
+        assertThat(CanonicalUrl.canonicalize("http://example.com")).isEqualTo("http://example.com/");
+        assertThat(CanonicalUrl.canonicalize("http://example.com:8080/a?utm_medium=rss"))
+                .isEqualTo("http://example.com:8080/a");
+        assertThat(CanonicalUrl.canonicalize("not a url")).isEqualTo("not a url");
+        assertThat(CanonicalUrl.hash("https://example.com/a/")).isEqualTo(CanonicalUrl.hash("https://EXAMPLE.com/a"));
+        assertThat(CanonicalUrl.hash("https://example.com/a")).isNotEqualTo(CanonicalUrl.hash("https://example.com/A"));
+    }
+}
@@ -0,0 +1,17 @@
+package com.caio.websiteai.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentHashTest {
+
+    @Test
+    void separatesFieldsAndNulls() {
+        assertThat(ContentHash.of("title", "body")).isEqualTo(ContentHash.of("title", "body"));
+        assertThat(ContentHash.of("ab", "c")).isNotEqualTo(ContentHash.of("a", "bc"));
+        assertThat(ContentHash.of(null, "abc")).isNotEqualTo(ContentHash.of("", "abc"));
+        assertThat(ContentHash.of("abc", null)).isNotEqualTo(ContentHash.of("abc"));
+        assertThat(ContentHash.of("\u0100")).isNotEqualTo(ContentHash.of("\u0001"));
+    }
+}
@@ -0,0 +1,28 @@
+package com.caio.websiteai.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    void behavesLikeHashSetAcrossResizes() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            long value = i % 7 == 0 ? random.nextInt(50) : random.nextLong();
+            assertThat(set.add(value)).isEqualTo(expected.add(value));
+        }
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long value : expected) {
+            assertThat(set.contains(value)).isTrue();
+        }
+        assertThat(set.contains(Long.MIN_VALUE + 3)).isEqualTo(expected.contains(Long.MIN_VALUE + 3));
+    }
+}
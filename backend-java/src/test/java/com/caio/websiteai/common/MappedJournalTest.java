@@ -0,0 +1,98 @@
+package com.caio.websiteai.common;
+
+import com.caio.websiteai.common.MappedJournal.FsyncPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedJournalTest {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsSegmentsAndReplaysFromCommittedOffset() throws IOException {
+        MappedJournal journal = MappedJournal.open(directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS);
+        List<Long> positions = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            positions.add(journal.append(("record-" + i + "-" + "x".repeat(10)).getBytes(StandardCharsets.UTF_8)));
+        }
+        assertThat(segmentCount()).isGreaterThan(2);
+
+        journal.commit(positions.get(3));
+        journal.close();
+
+        MappedJournal reopened = MappedJournal.open(directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS);
+        assertThat(reopened.committed()).isEqualTo(positions.get(3));
+        assertThat(read(reopened)).containsExactly("record-3-xxxxxxxxxx", "record-4-xxxxxxxxxx", "record-5-xxxxxxxxxx");
+        assertThat(segmentCount()).isLessThanOrEqualTo(2);
+
+        reopened.append("record-6".getBytes(StandardCharsets.UTF_8));
+        assertThat(read(reopened)).endsWith("record-6");
+    }
+
+    @Test
+    void truncatesTornTailOnRecovery() throws IOException {
+        MappedJournal journal = MappedJournal.open(directory, 1024, FsyncPolicy.NEVER);
+        journal.append("first".getBytes(StandardCharsets.UTF_8));
+        long torn = journal.append("second".getBytes(StandardCharsets.UTF_8));
+        journal.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            file.seek(torn + 8);
+            file.write('X');
+        }
+
+        MappedJournal recovered = MappedJournal.open(directory, 1024, FsyncPolicy.NEVER);
+        assertThat(recovered.end()).isEqualTo(torn);
+        recovered.append("third".getBytes(StandardCharsets.UTF_8));
+        assertThat(read(recovered)).containsExactly("first", "third");
+    }
+
+    @Test
+    void rollsOverAfterARecordThatExactlyFillsASegment() throws IOException {
+        MappedJournal journal = MappedJournal.open(directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS);
+        String filling = "f".repeat(journal.maxRecordSize());
+
+        assertThat(journal.append(filling.getBytes(StandardCharsets.UTF_8))).isZero();
+        assertThat(journal.append("next".getBytes(StandardCharsets.UTF_8))).isEqualTo(SEGMENT_SIZE);
+        assertThat(segmentCount()).isEqualTo(2);
+        assertThat(read(journal)).containsExactly(filling, "next");
+        journal.close();
+
+        MappedJournal reopened = MappedJournal.open(directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS);
+        assertThat(reopened.end()).isEqualTo(SEGMENT_SIZE + 8 + "next".length());
+        assertThat(read(reopened)).containsExactly(filling, "next");
+    }
+
+    private static List<String> read(MappedJournal journal) throws IOException {
+        List<String> records = new ArrayList<>();
+        journal.replay(journal.committed(), journal.end(),
+                (position, next, payload) -> records.add(new String(payload, StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.caio.websiteai.common;
+
+import com.caio.websiteai.common.MappedLineChunks.Chunk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedLineChunksTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void splitsOnLineBoundariesAndReadsEveryLineOnce() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            lines.add("line-" + i + "-" + "x".repeat(i % 17));
+        }
+        Path file = write(String.join("\n", lines) + "\n");
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            List<Chunk> chunks = MappedLineChunks.split(channel, 0, 64);
+
+            assertThat(chunks.size()).isGreaterThan(10);
+            assertThat(chunks.get(0).start()).isZero();
+            assertThat(chunks.get(chunks.size() - 1).end()).isEqualTo(channel.size());
+            List<String> read = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                if (i > 0) {
+                    assertThat(chunks.get(i).start()).isEqualTo(chunks.get(i - 1).end());
+                }
+                read.addAll(read(channel, chunks.get(i)));
+            }
+            assertThat(read).isEqualTo(lines);
+        }
+    }
+
+    @Test
+    void resumesFromAnOffsetAndHandlesCrLfBlankLinesAndAMissingFinalNewline() throws IOException {
+        Path file = write("first\r\n\r\nsecond\nthird");
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertThat(MappedLineChunks.split(channel, 0, 1000)).containsExactly(new Chunk(0, channel.size()));
+            List<Chunk> resumed = MappedLineChunks.split(channel, "first\r\n\r\n".length(), 2);
+
+            assertThat(resumed).hasSize(2);
+            assertThat(read(channel, resumed.get(0))).containsExactly("second");
+            assertThat(read(channel, resumed.get(1))).containsExactly("third");
+            assertThat(read(channel, new Chunk(0, channel.size()))).containsExactly("first", "second", "third");
+        }
+    }
+
+    @Test
+    void extendsAChunkPastTheTargetForALongLine() throws IOException {
+        String longLine = "y".repeat(200_000);
+        Path file = write("a\n" + longLine + "\nb\n");
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            List<Chunk> chunks = MappedLineChunks.split(channel, 0, 4);
+
+            assertThat(chunks).hasSize(2);
+            assertThat(read(channel, chunks.get(0))).containsExactly("a", longLine);
+            assertThat(read(channel, chunks.get(1))).containsExactly("b");
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("dump.ndjson"), content, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> read(FileChannel channel, Chunk chunk) throws IOException {
+        List<String> lines = new ArrayList<>();
+        MappedLineChunks.forEachLine(channel, chunk,
+                (line, length) -> lines.add(new String(line, 0, length, StandardCharsets.UTF_8)));
+        return lines;
+    }
+}
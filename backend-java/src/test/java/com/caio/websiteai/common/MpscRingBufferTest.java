@@ -0,0 +1,69 @@
+package com.caio.websiteai.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingBufferTest {
+
+    @Test
+    void rejectsOffersWhenFullAndDrainsInOrder() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertThat(buffer.capacity()).isEqualTo(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 2)).isEqualTo(2);
+        assertThat(buffer.offer(5)).isTrue();
+        buffer.drain(drained::add, Integer.MAX_VALUE);
+
+        assertThat(drained).containsExactly(0, 1, 2, 3, 5);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void losesNothingAcceptedUnderConcurrentProducers() throws Exception {
+        MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        long[] accepted = new long[producers];
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (buffer.offer((long) producer * perProducer + i)) {
+                        accepted[producer]++;
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        long[] lastSeen = {-1, -1, -1, -1};
+        long[] drained = new long[1];
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drain(value -> {
+                int producer = (int) (value / perProducer);
+                assertThat(value).isGreaterThan(lastSeen[producer]);
+                lastSeen[producer] = value;
+                drained[0]++;
+            }, 16);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(drained[0]).isEqualTo(accepted[0] + accepted[1] + accepted[2] + accepted[3]);
+    }
+}
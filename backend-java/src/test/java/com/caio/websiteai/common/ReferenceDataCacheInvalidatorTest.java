@@ -0,0 +1,50 @@
+package com.caio.websiteai.common;
+
+import com.caio.websiteai.article.entity.NewsSourceEntity;
+import com.caio.websiteai.article.repository.NewsSourceRepository;
+import com.caio.websiteai.game.entity.GameAchievementEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceDataCacheInvalidatorTest {
+
+    private final ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager(NewsSourceRepository.ID_CACHE);
+    private final ReferenceDataCacheInvalidator invalidator = new ReferenceDataCacheInvalidator(cacheManager);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void clearsTheSourceCacheOnlyWhenASourceChanges() {
+        cacheManager.getCache(NewsSourceRepository.ID_CACHE).put("Reuters", 3L);
+
+        invalidator.onChange(new GameAchievementEntity());
+        assertThat(cacheManager.getCache(NewsSourceRepository.ID_CACHE).get("Reuters")).isNotNull();
+
+        invalidator.onChange(new NewsSourceEntity());
+        assertThat(cacheManager.getCache(NewsSourceRepository.ID_CACHE).get("Reuters")).isNull();
+    }
+
+    @Test
+    void defersClearingUntilTheTransactionCompletes() {
+        cacheManager.getCache(NewsSourceRepository.ID_CACHE).put("Reuters", 3L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidator.onChange(new NewsSourceEntity());
+        assertThat(cacheManager.getCache(NewsSourceRepository.ID_CACHE).get("Reuters")).isNotNull();
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(cacheManager.getCache(NewsSourceRepository.ID_CACHE).get("Reuters")).isNull();
+    }
+}
@@ -0,0 +1,40 @@
+package com.caio.websiteai.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaMigrationRunnerTest {
+
+    @Test
+    void discoversScriptsInVersionOrder() throws Exception {
+        List<SchemaMigrationRunner.Migration> migrations = SchemaMigrationRunner.discover(new DefaultResourceLoader());
+
+        assertThat(migrations).isNotEmpty();
+        assertThat(migrations.get(0).version()).isEqualTo(1);
+        assertThat(migrations.get(0).description()).isEqualTo("array tags and focus areas");
+        assertThat(migrations).extracting(SchemaMigrationRunner.Migration::version).isSorted().doesNotHaveDuplicates();
+        assertThat(migrations.get(0).sql()).contains("USING GIN (tags)");
+        assertThat(migrations.get(0).transactional()).isTrue();
+        assertThat(migrations).filteredOn(migration -> migration.sql().contains("CONCURRENTLY"))
+                .isNotEmpty()
+                .allMatch(migration -> !migration.transactional());
+    }
+
+    @Test
+    void findsTheIndexesAConcurrentScriptBuilds() throws Exception {
+        SchemaMigrationRunner.Migration queryIndexes = SchemaMigrationRunner.discover(new DefaultResourceLoader())
+                .stream()
+                .filter(migration -> migration.version() == 3)
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(queryIndexes.concurrentIndexes()).containsExactly(
+                "idx_articles_published_topic", "idx_articles_country_published", "idx_articles_topic_published",
+                "idx_articles_published", "idx_articles_retention", "idx_game_submissions_country_user",
+                "idx_user_achievements_user", "idx_game_scores_score");
+    }
+}
@@ -1,6 +1,7 @@
 package com.caio.websiteai.news;
 
 import com.caio.websiteai.news.dto.CountryNewsResponse;
+import com.caio.websiteai.news.service.CountryNewsBatchService;
 import com.caio.websiteai.news.service.NewsService;
 import com.caio.websiteai.news.web.CountryNewsController;
 import org.junit.jupiter.api.Test;
@@ -16,7 +17,7 @@ public class CountryNewsControllerTest {
         NewsService mock = Mockito.mock(NewsService.class);
         Mockito.when(mock.getCountryNews("us"))
                 .thenReturn(CountryNewsResponse.builder().country("us").total(0).build());
-        CountryNewsController ctrl = new CountryNewsController(mock);
+        CountryNewsController ctrl = new CountryNewsController(mock, Mockito.mock(CountryNewsBatchService.class));
         ResponseEntity<CountryNewsResponse> res = ctrl.countryNews("US");
         assertThat(res.getStatusCode().is2xxSuccessful()).isTrue();
         assertThat(res.getBody()).isNotNull();
@@ -0,0 +1,171 @@
+package com.caio.websiteai.news.service;
+
+import com.caio.websiteai.ai.service.ArticleScoringService;
+import com.caio.websiteai.ai.service.ArticleTextFeatures;
+import com.caio.websiteai.ai.service.ScoringRuleEngine;
+import com.caio.websiteai.news.dto.Article;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleEnrichmentServiceTest {
+
+    private static final String[] FRAGMENTS = {
+            "AI policy", " regulation ", "Research", "study", "startup", "investment", "funding", "Defense",
+            "ethics", "growth", "success", "breakthrough", "improve", "boost", "concern", "risk", "decline",
+            "warning", "ban", "\t", "\n\n", "  ", "\u000B", " ", " ", "word", "x", "\u0001"
+    };
+    private static final String[] SOURCES = {null, " ", "Reuters", "The Wall Street Journal", "Local Blog", "WIRED UK"};
+
+    private final ArticleScoringService scoringService = new ArticleScoringService(
+            new ScoringRuleEngine(new DefaultResourceLoader(), event -> { }, "classpath:scoring-rules.yml"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ArticleEnrichmentService enrichmentService =
+            new ArticleEnrichmentService(scoringService, meterRegistry, 1_000);
+
+    @Test
+    void enrichmentMatchesLegacyImplementation() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            Article original = randomArticle(random);
+            Article expected = legacyEnrich(copy(original));
+            Article actual = enrichmentService.enrich(copy(original));
+
+            assertThat(actual).as("enrichment of %s", original).usingRecursiveComparison().isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void reusesScoresForUnchangedContent() {
+        Article first = Article.builder().title("AI policy study").description("growth").source("Reuters").build();
+        Article again = first.toBuilder().category("world").build();
+
+        Article expected = legacyEnrich(copy(again));
+        Article actual = enrichmentService.enrich(again);
+        enrichmentService.enrich(first);
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "articleScores").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void countsWordsLikeRegexSplit() {
+        String[] samples = {"one", "  two words ", "tab\tseparated\nlines", "\u0001", "a b", "x \f y", "  \u000B  "};
+        for (String sample : samples) {
+            assertThat(ArticleTextFeatures.countWords(sample))
+                    .as("word count of [%s]", sample)
+                    .isEqualTo(sample.trim().split("\\s+").length);
+            assertThat(ArticleTextFeatures.countSplitWords(sample))
+                    .as("untrimmed word count of [%s]", sample)
+                    .isEqualTo(sample.split("\\s+").length);
+        }
+        assertThat(ArticleTextFeatures.countSplitWords("")).isEqualTo("".split("\\s+").length);
+    }
+
+    private static Article randomArticle(Random random) {
+        return Article.builder()
+                .title(random.nextInt(10) == 0 ? null : randomText(random, 6))
+                .description(random.nextInt(4) == 0 ? null : randomText(random, 12))
+                .content(random.nextInt(3) == 0 ? null : randomText(random, 40) + (random.nextBoolean() ? "y".repeat(random.nextInt(2000)) : ""))
+                .source(SOURCES[random.nextInt(SOURCES.length)])
+                .category(random.nextBoolean() ? null : "world")
+                .language(random.nextBoolean() ? null : "de")
+                .build();
+    }
+
+    private static String randomText(Random random, int maxParts) {
+        StringBuilder text = new StringBuilder();
+        int parts = random.nextInt(maxParts + 1);
+        for (int i = 0; i < parts; i++) {
+            text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            if (random.nextBoolean()) {
+                text.append(' ');
+            }
+        }
+        return text.toString();
+    }
+
+    private static Article copy(Article article) {
+        return article.toBuilder().tags(new ArrayList<>(article.getTags())).build();
+    }
+
+    private Article legacyEnrich(Article article) {
+        article.setRelevanceScore(scoringService.scoreArticleRelevance(article));
+        article.setAnalysisScore(scoringService.scoreAnalysisDepth(article));
+        double avg = (article.getRelevanceScore() + article.getAnalysisScore()) / 2.0;
+        article.setEinsteinScore(BigDecimal.valueOf(avg).setScale(2, RoundingMode.HALF_UP));
+        String text = (article.getTitle() + " " + article.getDescription()).toLowerCase(Locale.ENGLISH);
+        article.setTopicCategory(legacyTopic(text));
+        article.setLanguage(hasText(article.getLanguage()) ? article.getLanguage() : "en");
+        String body = hasText(article.getContent()) ? article.getContent() : article.getDescription();
+        article.setWordCount(hasText(body) ? body.trim().split("\\s+").length : 0);
+        article.setReadabilityScore(!hasText(body) ? 50 : body.length() > 1500 ? 70 : body.length() > 800 ? 60 : body.length() > 400 ? 55 : 50);
+        int sentiment = 0;
+        for (String word : new String[]{"growth", "success", "breakthrough", "improve", "boost"}) {
+            sentiment += text.contains(word) ? 1 : 0;
+        }
+        for (String word : new String[]{"concern", "risk", "decline", "warning", "ban"}) {
+            sentiment -= text.contains(word) ? 1 : 0;
+        }
+        article.setSentimentScore(BigDecimal.valueOf(Math.max(-1, Math.min(1, sentiment / 5.0))).setScale(2, RoundingMode.HALF_UP));
+        article.setProvenance("newsapi");
+        String source = hasText(article.getSource()) ? article.getSource().toLowerCase(Locale.ENGLISH) : null;
+        article.setPremium(source != null && List.of("techcrunch", "wired", "reuters", "bloomberg", "financial times",
+                "wall street journal", "mit technology review").stream().anyMatch(source::contains));
+        article.setBreaking(Boolean.FALSE);
+        List<String> tags = new ArrayList<>();
+        if (text.contains("policy") || text.contains("regulation")) {
+            tags.add("policy");
+        }
+        if (text.contains("research") || text.contains("study")) {
+            tags.add("research");
+        }
+        if (text.contains("investment") || text.contains("funding")) {
+            tags.add("investment");
+        }
+        if (text.contains("security") || text.contains("defense")) {
+            tags.add("security");
+        }
+        article.setTags(tags);
+        if (!hasText(article.getCategory())) {
+            article.setCategory(article.getTopicCategory());
+        }
+        if (!hasText(article.getSource())) {
+            article.setSource("Unknown");
+        }
+        return article;
+    }
+
+    private static String legacyTopic(String text) {
+        if (text.contains("policy") || text.contains("regulation")) {
+            return "policy";
+        }
+        if (text.contains("research") || text.contains("study")) {
+            return "research";
+        }
+        if (text.contains("startup") || text.contains("investment")) {
+            return "business";
+        }
+        if (text.contains("security") || text.contains("defense")) {
+            return "security";
+        }
+        if (text.contains("ethics")) {
+            return "ethics";
+        }
+        return "general";
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,106 @@
+package com.caio.websiteai.news.service;
+
+import com.caio.websiteai.news.dto.CountryNewsBatchResponse;
+import com.caio.websiteai.news.dto.CountryNewsResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CountryNewsBatchServiceTest {
+
+    private final NewsService newsService = Mockito.mock(NewsService.class);
+    // Two fetch slots shared by every batch request.
+    private final CountryNewsBatchService service = new CountryNewsBatchService(newsService, 2, Duration.ofMillis(200));
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void returnsPartialResultsWithinOneTimeoutAndLetsTimedOutLoadsFinish() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Answer<CountryNewsResponse> blocked = invocation -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+            }
+            finished.countDown();
+            return response(invocation.getArgument(0));
+        };
+        when(newsService.getCountryNews("us")).thenAnswer(blocked);
+        when(newsService.getCountryNews("gb")).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return response("gb");
+        });
+        when(newsService.getCountryNews("de")).thenThrow(new IllegalStateException("NewsAPI returned 500"));
+        when(newsService.getCountryNews("it")).thenAnswer(blocked);
+        when(newsService.getCachedCountryNews("fr")).thenReturn(Optional.of(response("fr")));
+
+        long started = System.nanoTime();
+        CountryNewsBatchResponse batch = service.getCountryNews(List.of("US", "gb", "fr", "de", "it", "jp"));
+        Duration waited = Duration.ofNanos(System.nanoTime() - started);
+
+        // Both slots are held by blocked loads, so jp never starts; the request still gives up after one timeout.
+        assertThat(waited).isLessThan(Duration.ofMillis(450));
+        assertThat(batch.isPartial()).isTrue();
+        assertThat(batch.getCountries()).containsOnlyKeys("gb", "fr");
+        assertThat(batch.getFailures()).containsOnlyKeys("us", "de", "it", "jp");
+        assertThat(batch.getFailures().get("us")).isEqualTo("Timed out after 200 ms");
+        assertThat(batch.getFailures().get("jp")).isEqualTo("Timed out after 200 ms");
+        assertThat(batch.getFailures().get("de")).isEqualTo("NewsAPI returned 500");
+        verify(newsService, never()).getCountryNews("fr");
+
+        // The shared loads behind the timed-out countries keep running for the other callers waiting on them, and
+        // the abandoned jp fetch is skipped once a slot frees up.
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(interrupted).isFalse();
+        verify(newsService, after(200).never()).getCountryNews("jp");
+    }
+
+    @Test
+    void servesCacheHitsWhileEveryFetchSlotIsBusy() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(newsService.getCountryNews(any())).thenAnswer(invocation -> {
+            release.await();
+            return response(invocation.getArgument(0));
+        });
+        when(newsService.getCachedCountryNews("gb")).thenReturn(Optional.of(response("gb")));
+        try {
+            service.getCountryNews(List.of("us", "de"));
+
+            long started = System.nanoTime();
+            CountryNewsBatchResponse batch = service.getCountryNews(List.of("gb"));
+
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(100));
+            assertThat(batch.isPartial()).isFalse();
+            assertThat(batch.getCountries()).containsOnlyKeys("gb");
+            verify(newsService, never()).getCountryNews("gb");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static CountryNewsResponse response(String country) {
+        return CountryNewsResponse.builder().country(country).total(0).build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.caio.websiteai.news.service;
+
+import com.caio.websiteai.article.entity.ApiUsageLogEntity;
+import com.caio.websiteai.article.service.ApiUsageRecorder;
+import com.caio.websiteai.news.dto.Article;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class NewsApiClientTest {
+
+    private final ApiUsageRecorder apiUsageRecorder = Mockito.mock(ApiUsageRecorder.class);
+    private MockRestServiceServer server;
+    private NewsApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        client = new NewsApiClient(builder.build(), new ObjectMapper(), apiUsageRecorder);
+        ReflectionTestUtils.setField(client, "baseUrl", "https://newsapi.test/v2");
+        ReflectionTestUtils.setField(client, "apiKey", "key");
+        ReflectionTestUtils.setField(client, "pageSize", 100);
+    }
+
+    @Test
+    void streamsArticlesAndSkipsUnknownFields() {
+        String body = """
+                {"status":"ok","totalResults":2,"meta":{"nested":[1,2,{"x":null}]},
+                 "articles":[
+                   {"source":{"id":"reuters","name":"Reuters"},"author":null,"title":"AI policy shift",
+                    "description":"Regulators respond","url":"https://example.com/a",
+                    "urlToImage":null,"publishedAt":"2024-05-01T10:15:30Z","content":"Body",
+                    "extra":{"ignored":[true]}},
+                   {"source":null,"title":"Second","url":"https://example.com/b","publishedAt":"not-a-date"}
+                 ]}
+                """;
+        server.expect(requestTo("https://newsapi.test/v2/top-headlines?country=us&pageSize=100"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        List<Article> articles = new ArrayList<>();
+        int delivered = client.streamTopHeadlinesByCountry("us", articles::add);
+
+        assertThat(delivered).isEqualTo(2);
+        assertThat(articles.get(0).getSource()).isEqualTo("Reuters");
+        assertThat(articles.get(0).getTitle()).isEqualTo("AI policy shift");
+        assertThat(articles.get(0).getPublishedAt()).isNotNull();
+        assertThat(articles.get(0).getProvenance()).isEqualTo("newsapi");
+        assertThat(articles.get(1).getSource()).isNull();
+        assertThat(articles.get(1).getPublishedAt()).isNull();
+        server.verify();
+
+        ApiUsageLogEntity usage = recordedUsage();
+        assertThat(usage.getResponseStatus()).isEqualTo(200);
+        assertThat(usage.getArticlesReturned()).isEqualTo(2);
+        assertThat(usage.getResponseSize()).isEqualTo(body.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(usage.getRateLimited()).isFalse();
+        assertThat(usage.getQueryParams()).isEqualTo("country=us&pageSize=100");
+        assertThat(usage.getResponseTimeMs()).isNotNull();
+    }
+
+    @Test
+    void surfacesUpstreamErrors() {
+        server.expect(requestTo("https://newsapi.test/v2/top-headlines?country=us&pageSize=100"))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"status\":\"error\",\"code\":\"rateLimited\"}"));
+
+        assertThatThrownBy(() -> client.streamTopHeadlinesByCountry("us", article -> { }))
+                .isInstanceOf(RestClientResponseException.class)
+                .satisfies(ex -> assertThat(((RestClientResponseException) ex).getStatusCode().value()).isEqualTo(429));
+
+        ApiUsageLogEntity usage = recordedUsage();
+        assertThat(usage.getResponseStatus()).isEqualTo(429);
+        assertThat(usage.getRateLimited()).isTrue();
+        assertThat(usage.getResponseSize()).isEqualTo(39);
+        assertThat(usage.getErrorMessage()).contains("429");
+        assertThat(usage.getArticlesReturned()).isNull();
+    }
+
+    private ApiUsageLogEntity recordedUsage() {
+        ArgumentCaptor<ApiUsageLogEntity> usage = ArgumentCaptor.forClass(ApiUsageLogEntity.class);
+        verify(apiUsageRecorder).record(usage.capture());
+        return usage.getValue();
+    }
+}
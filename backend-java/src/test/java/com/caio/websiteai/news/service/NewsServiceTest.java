@@ -0,0 +1,159 @@
+package com.caio.websiteai.news.service;
+
+import com.caio.websiteai.article.service.ArticleWriteBehindQueue;
+import com.caio.websiteai.news.dto.Article;
+import com.caio.websiteai.news.dto.CountryNewsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class NewsServiceTest {
+
+    private static final Duration SOFT_TTL = Duration.ofMinutes(10);
+
+    private final NewsApiClient newsApiClient = Mockito.mock(NewsApiClient.class);
+    private final ArticleEnrichmentService enrichmentService = Mockito.mock(ArticleEnrichmentService.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NewsService service = new NewsService(newsApiClient, Mockito.mock(ArticleWriteBehindQueue.class),
+            enrichmentService, meterRegistry, SOFT_TTL, Duration.ofHours(1), 100, 2, nanos::get);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void servesTheStaleEntryWhileASingleRefreshReplacesIt() throws Exception {
+        when(enrichmentService.scoringVersion()).thenReturn("v1");
+        when(enrichmentService.enrich(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            Consumer<Article> sink = invocation.getArgument(1);
+            if (fetches.incrementAndGet() == 1) {
+                sink.accept(article("First"));
+            } else {
+                refreshing.countDown();
+                release.await();
+                sink.accept(article("Second"));
+            }
+            return 1;
+        }).when(newsApiClient).streamTopHeadlinesByCountry(eq("us"), any());
+
+        CountryNewsResponse fresh = service.getCountryNews("us");
+        assertThat(fresh.isStale()).isFalse();
+        assertThat(fresh.getAgeSeconds()).isZero();
+        assertThat(title(fresh)).isEqualTo("First");
+
+        nanos.addAndGet(SOFT_TTL.plusMinutes(1).toNanos());
+        CountryNewsResponse stale = service.getCountryNews("us");
+        assertThat(refreshing.await(5, TimeUnit.SECONDS)).isTrue();
+        CountryNewsResponse stillStale = service.getCountryNews("us");
+
+        for (CountryNewsResponse response : new CountryNewsResponse[]{stale, stillStale}) {
+            assertThat(response.isStale()).isTrue();
+            assertThat(response.getAgeSeconds()).isEqualTo(660);
+            assertThat(title(response)).isEqualTo("First");
+        }
+        assertThat(fetches).hasValue(2);
+
+        release.countDown();
+        CountryNewsResponse refreshed = awaitTitle("Second");
+        assertThat(title(refreshed)).isEqualTo("Second");
+        assertThat(refreshed.isStale()).isFalse();
+        assertThat(refreshed.getAgeSeconds()).isZero();
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void concurrentMissesForOneCountryShareASingleLoad() throws Exception {
+        when(enrichmentService.scoringVersion()).thenReturn("v1");
+        when(enrichmentService.enrich(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            fetches.incrementAndGet();
+            loading.countDown();
+            release.await();
+            invocation.<Consumer<Article>>getArgument(1).accept(article("Only"));
+            return 1;
+        }).when(newsApiClient).streamTopHeadlinesByCountry(eq("us"), any());
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CountryNewsResponse>> responses = new ArrayList<>();
+            responses.add(callers.submit(() -> service.getCountryNews("us")));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                responses.add(callers.submit(() -> service.getCountryNews("us")));
+            }
+            // The load is held until every other caller has arrived while it was in flight.
+            awaitCoalesced(3);
+            release.countDown();
+            for (Future<CountryNewsResponse> response : responses) {
+                assertThat(title(response.get(5, TimeUnit.SECONDS))).isEqualTo("Only");
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(fetches).hasValue(1);
+        assertThat(meterRegistry.get("cache.load").tag("cache", "countryNews").tag("result", "success")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("news.country.coalesced").counter().count()).isEqualTo(3);
+
+        // A later caller is a plain cache hit, not a coalesced one.
+        service.getCountryNews("us");
+        assertThat(meterRegistry.get("news.country.coalesced").counter().count()).isEqualTo(3);
+    }
+
+    private void awaitCoalesced(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("news.country.coalesced").counter().count() < callers
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    // The refreshed value is installed on a refresh thread just after the fetch returns.
+    private CountryNewsResponse awaitTitle(String title) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            CountryNewsResponse response = service.getCountryNews("us");
+            if (title.equals(title(response)) || System.nanoTime() > deadline) {
+                return response;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static String title(CountryNewsResponse response) {
+        return response.getArticles().get(0).getTitle();
+    }
+
+    private static Article article(String title) {
+        return Article.builder().title(title).url("https://example.com/" + title.toLowerCase()).build();
+    }
+}
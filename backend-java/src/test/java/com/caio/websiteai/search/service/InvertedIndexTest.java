@@ -0,0 +1,135 @@
+package com.caio.websiteai.search.service;
+
+import com.caio.websiteai.search.dto.IndexedArticle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.add(new IndexedArticle("a", "EU passes climate policy package", "Ministers agree on emissions targets",
+                List.of("policy"), "gb", "policy"));
+        index.add(new IndexedArticle("b", "Climate research funding grows", "New policy on climate grants",
+                List.of("research"), "us", "research"));
+        index.add(new IndexedArticle("c", "Chip makers expand in the U.S.", "Policy incentives draw investment",
+                List.of("business"), "us", "business"));
+        index.add(new IndexedArticle("d", "Opinion: climate policy is failing", "A look at the climate policy record",
+                List.of(), "gb", "policy"));
+    }
+
+    @Test
+    void requiresEveryClauseAndRanksByBm25() {
+        // d repeats both terms; c mentions only "policy".
+        assertThat(ids("climate policy")).containsExactlyInAnyOrder("a", "b", "d").first().isEqualTo("d");
+        assertThat(index.search(SearchQuery.parse("climate policy"), null, null, 10).total()).isEqualTo(3);
+    }
+
+    @Test
+    void matchesPhrasesOnlyWhenTermsAreAdjacentWithinAField() {
+        assertThat(ids("\"climate policy\"")).containsExactlyInAnyOrder("a", "d");
+        // "U.S." ends c's title and "Policy" starts its description; the field gap keeps them apart.
+        assertThat(ids("\"u.s. policy\"")).isEmpty();
+        assertThat(ids("u.s.")).containsExactly("c");
+    }
+
+    @Test
+    void supportsOrAndExclusion() {
+        assertThat(ids("chip OR research")).containsExactlyInAnyOrder("b", "c");
+        assertThat(ids("\"climate policy\" -opinion")).containsExactly("a");
+        assertThat(ids("-climate")).isEmpty();
+    }
+
+    @Test
+    void filtersByCountryAndTopic() {
+        assertThat(index.search(SearchQuery.parse("policy"), "US", null, 10).hits())
+                .extracting(InvertedIndex.Hit::articleId).containsExactlyInAnyOrder("b", "c");
+        assertThat(index.search(SearchQuery.parse("policy"), null, "business", 10).hits())
+                .extracting(InvertedIndex.Hit::articleId).containsExactly("c");
+    }
+
+    @Test
+    void reindexingReplacesAndRemovalHidesArticles() {
+        index.add(new IndexedArticle("b", "Quantum research funding grows", null, List.of(), "us", "research"));
+        assertThat(ids("climate")).containsExactlyInAnyOrder("a", "d");
+        assertThat(ids("quantum")).containsExactly("b");
+
+        index.remove("a");
+        assertThat(ids("climate")).containsExactly("d");
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.deletedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void limitsToTheBestHits() {
+        assertThat(index.search(SearchQuery.parse("policy"), null, null, 2).hits()).hasSize(2);
+        assertThat(index.search(SearchQuery.parse("policy"), null, null, 2).total()).isEqualTo(4);
+    }
+
+    @Test
+    void prefersTheNewerDocumentOnEqualScoresAtTheCutoff() {
+        InvertedIndex same = new InvertedIndex();
+        for (String id : List.of("t1", "t2", "t3")) {
+            same.add(new IndexedArticle(id, "Same headline", null, List.of(), "us", "news"));
+        }
+
+        assertThat(same.search(SearchQuery.parse("headline"), null, null, 2).hits())
+                .extracting(InvertedIndex.Hit::articleId).containsExactly("t3", "t2");
+    }
+
+    @Test
+    void intersectsAndMatchesPhrasesAcrossSkipBlocks() {
+        InvertedIndex large = new InvertedIndex();
+        Set<Integer> rare = Set.of(5, 70, 150, 210, 290, 385);
+        int docs = PostingList.SKIP_INTERVAL * 6 + 16;
+        for (int i = 0; i < docs; i++) {
+            StringBuilder title = new StringBuilder("common");
+            title.append(i % 3 == 0 ? " every3" : "").append(i % 5 == 0 ? " every5" : "");
+            title.append(i % 7 == 0 ? " alpha beta" : " beta alpha");
+            title.append(rare.contains(i) ? " rare" : "");
+            large.add(new IndexedArticle("doc" + i, title.toString(), null, List.of(), "us", "news"));
+        }
+
+        // Every list but "rare" spans several skip blocks; the rare clause drives the others to jump over them.
+        assertThat(search(large, "rare common")).containsExactlyInAnyOrder(
+                "doc5", "doc70", "doc150", "doc210", "doc290", "doc385");
+        assertThat(search(large, "every3 every5")).containsExactlyInAnyOrderElementsOf(
+                IntStream.range(0, docs).filter(i -> i % 15 == 0).mapToObj(i -> "doc" + i).toList());
+        // Positions must be decoded for the document landed on after a jump, not one in the skipped block.
+        assertThat(search(large, "\"alpha beta\" rare")).containsExactlyInAnyOrder("doc70", "doc210", "doc385");
+        assertThat(search(large, "\"beta alpha\" rare")).containsExactlyInAnyOrder("doc5", "doc150", "doc290");
+        assertThat(search(large, "\"alpha beta\" every5")).containsExactlyInAnyOrderElementsOf(
+                IntStream.range(0, docs).filter(i -> i % 35 == 0).mapToObj(i -> "doc" + i).toList());
+    }
+
+    @Test
+    void parsesBooleanSyntax() {
+        SearchQuery query = SearchQuery.parse("\"Climate Policy\" eu OR uk AND -opinion OR");
+
+        assertThat(query.required()).hasSize(2);
+        assertThat(query.required().get(0).get(0).terms()).containsExactly("climate", "policy");
+        assertThat(query.required().get(1)).extracting(SearchQuery.Clause::terms)
+                .containsExactly(List.of("eu"), List.of("uk"));
+        assertThat(query.excluded()).extracting(SearchQuery.Clause::terms).containsExactly(List.of("opinion"));
+    }
+
+    private List<String> ids(String query) {
+        return index.search(SearchQuery.parse(query), null, null, 10).hits().stream()
+                .map(InvertedIndex.Hit::articleId)
+                .toList();
+    }
+
+    private static List<String> search(InvertedIndex index, String query) {
+        return index.search(SearchQuery.parse(query), null, null, 1_000).hits().stream()
+                .map(InvertedIndex.Hit::articleId)
+                .toList();
+    }
+}
@@ -0,0 +1,124 @@
+package com.caio.websiteai.search.service;
+
+import com.caio.websiteai.search.dto.SuggestibleArticle;
+import com.caio.websiteai.search.dto.SuggestionDto;
+import com.caio.websiteai.search.repository.ArticleSearchRepository;
+import com.caio.websiteai.search.service.PrefixIndex.Suggestion;
+import com.caio.websiteai.search.service.PrefixIndex.SuggestionKind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex(Mockito.mock(ArticleSearchRepository.class),
+            new SimpleMeterRegistry(), Duration.ofDays(7), 0.01);
+
+    @Test
+    void completesTitleTermsSourcesAndTopicsIgnoringCase() {
+        add(1, "Climate summit opens in Glasgow", "Climate Home News", "climate", 0, 50);
+        index.rebuild();
+
+        assertThat(index.suggest("CLIM", 10)).extracting(SuggestionDto::getText, SuggestionDto::getType)
+                .containsExactlyInAnyOrder(
+                        tuple("climate", "headline"),
+                        tuple("Climate Home News", "source"),
+                        tuple("climate", "topic"));
+        assertThat(index.suggest("in", 10)).isEmpty();
+        assertThat(index.suggest("glasgow x", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksByRecencyAndEinsteinScore() {
+        add(1, "Markets rally", null, null, 0, 0);
+        add(2, "Marathon record falls", null, null, 30, 0);
+        add(3, "Mars rover lands", null, null, 0, 90);
+        index.rebuild();
+
+        assertThat(texts("mar")).containsExactly("mars", "markets", "marathon");
+    }
+
+    @Test
+    void countsAnUpdatedArticleOnceAndCompilesOnlyWhenChanged() {
+        add(1, "Election results", null, null, 0, 0);
+        add(2, "Economy slows", null, null, 0, 0);
+        add(2, "Economy slows", null, null, 0, 0);
+        add(2, "Economy slows", null, null, 0, 0);
+        assertThat(index.suggest("e", 10)).isEmpty();
+
+        index.rebuild();
+        assertThat(texts("e")).containsExactly("economy", "election");
+
+        add(3, "Election day", null, null, 0, 0);
+        assertThat(texts("e")).containsExactly("economy", "election");
+        index.rebuild();
+        assertThat(texts("e")).containsExactly("election", "economy");
+    }
+
+    @Test
+    void dropsSuggestionsThatDecayedBelowTheMinimumWeight() {
+        add(1, "Archived story", null, null, 365, 0);
+        add(2, "Arctic ice", null, null, 0, 0);
+        index.rebuild();
+
+        assertThat(texts("ar")).containsExactly("arctic");
+    }
+
+    @Test
+    void walksWeightOrderForWidePrefixes() {
+        Map<Suggestion, Double> weights = new HashMap<>();
+        for (int i = 0; i < PrefixIndex.SCAN_LIMIT * 4; i++) {
+            weights.put(new Suggestion(SuggestionKind.TERM, "term" + i), (double) (i % 100));
+        }
+        weights.put(new Suggestion(SuggestionKind.TERM, "other"), 1000.0);
+        PrefixIndex prefixIndex = PrefixIndex.build(weights);
+
+        // Equal weights fall back to text order.
+        assertThat(prefixIndex.complete("term", 3)).extracting(SuggestionDto::getText)
+                .containsExactly("term199", "term299", "term399");
+        // 135 matches: ranked by scanning the range.
+        assertThat(prefixIndex.complete("term1", 2)).extracting(SuggestionDto::getText)
+                .containsExactly("term199", "term198");
+    }
+
+    @Test
+    void ranksASparseWidePrefixWithoutWalkingTheWholeIndex() {
+        Map<Suggestion, Double> weights = new HashMap<>();
+        for (int i = 0; i < PrefixIndex.SCAN_LIMIT * PrefixIndex.DENSE_SHARE * 2; i++) {
+            weights.put(new Suggestion(SuggestionKind.TERM, "heavy" + i), 1000.0 + i);
+        }
+        // More matches than the scan limit, but far too few to expect them early in weight order.
+        for (int i = 0; i < PrefixIndex.SCAN_LIMIT * 2; i++) {
+            weights.put(new Suggestion(SuggestionKind.TERM, "light" + i), (double) (i % 50));
+        }
+        PrefixIndex prefixIndex = PrefixIndex.build(weights);
+
+        // Weight 49 goes to light49, light99, ... light499; equal weights fall back to text order.
+        assertThat(prefixIndex.complete("light", 4)).extracting(SuggestionDto::getText)
+                .containsExactly("light149", "light199", "light249", "light299");
+        assertThat(prefixIndex.complete("LIGHT", 1000)).hasSize(PrefixIndex.SCAN_LIMIT * 2)
+                .extracting(SuggestionDto::getText).endsWith("light50", "light500");
+        // The heap buffer is reused by the thread; a smaller lookup after a larger one only reads its own entries.
+        assertThat(prefixIndex.complete("light", 2)).extracting(SuggestionDto::getText)
+                .containsExactly("light149", "light199");
+    }
+
+    private void add(long urlHash, String title, String source, String topic, int ageDays, int einsteinScore) {
+        index.add(new SuggestibleArticle(urlHash, title, source, topic, OffsetDateTime.now().minusDays(ageDays),
+                BigDecimal.valueOf(einsteinScore)));
+    }
+
+    private List<String> texts(String prefix) {
+        return index.suggest(prefix, 10).stream().map(SuggestionDto::getText).toList();
+    }
+}